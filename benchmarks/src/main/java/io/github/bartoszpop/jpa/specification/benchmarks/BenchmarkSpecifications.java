@@ -0,0 +1,38 @@
+package io.github.bartoszpop.jpa.specification.benchmarks;
+
+import io.github.bartoszpop.jpa.specification.CompositeSpecification;
+import io.github.bartoszpop.jpa.specification.ExpressionSpecifications;
+import io.github.bartoszpop.jpa.specification.PathSpecifications;
+
+import javax.persistence.criteria.Path;
+import java.time.LocalDate;
+
+/**
+ * This class creates the specifications the benchmarks compose and render.
+ *
+ * @author Bartosz Popiela
+ */
+final class BenchmarkSpecifications {
+
+    private BenchmarkSpecifications() {
+    }
+
+    static <S extends Path<Employee>> CompositeSpecification<Employee, S> firstName(String firstName) {
+        return PathSpecifications.get("firstName", ExpressionSpecifications.equal(firstName));
+    }
+
+    static <S extends Path<Employee>> CompositeSpecification<Employee, S> bornAfter(LocalDate dateOfBirth) {
+        return PathSpecifications.get("dateOfBirth", ExpressionSpecifications.greaterThan(dateOfBirth));
+    }
+
+    /**
+     * Returns the specification of the depth, i.e. the conjunctions and the disjunctions nested alternately, e.g. {@code ((a and b) or c) and d} of the depth 3.
+     */
+    static <S extends Path<Employee>> CompositeSpecification<Employee, S> nested(int depth) {
+        CompositeSpecification<Employee, S> specification = firstName("Name");
+        for (var i = 0; i < depth; i++) {
+            specification = i % 2 == 0 ? specification.and(firstName("Name" + i)) : specification.or(bornAfter(LocalDate.of(1970, 1, 1).plusDays(i)));
+        }
+        return specification;
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.bartoszpop.jpa.specification.benchmarks;
+
+import io.github.bartoszpop.jpa.specification.CompositeSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.criteria.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures the composition of the chains of {@code and}, {@code or} and {@code not} of the length.
+ *
+ * @author Bartosz Popiela
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompositionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int length;
+
+    private List<CompositeSpecification<Employee, Path<Employee>>> operands;
+
+    @Setup
+    public void setUp() {
+        operands = new ArrayList<>(length);
+        for (var i = 0; i < length; i++) {
+            operands.add(BenchmarkSpecifications.firstName("Name" + i));
+        }
+    }
+
+    @Benchmark
+    public CompositeSpecification<Employee, Path<Employee>> andChain() {
+        var specification = operands.get(0);
+        for (var i = 1; i < length; i++) {
+            specification = specification.and(operands.get(i));
+        }
+        return specification;
+    }
+
+    @Benchmark
+    public CompositeSpecification<Employee, Path<Employee>> orChain() {
+        var specification = operands.get(0);
+        for (var i = 1; i < length; i++) {
+            specification = specification.or(operands.get(i));
+        }
+        return specification;
+    }
+
+    @Benchmark
+    public CompositeSpecification<Employee, Path<Employee>> notChain() {
+        var specification = operands.get(0);
+        for (var i = 1; i < length; i++) {
+            specification = CompositeSpecification.not(specification);
+        }
+        return specification;
+    }
+
+    @Benchmark
+    public CompositeSpecification<Employee, Path<Employee>> allOf() {
+        return CompositeSpecification.allOf(operands);
+    }
+}
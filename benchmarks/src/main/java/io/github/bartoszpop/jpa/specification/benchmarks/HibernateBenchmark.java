@@ -0,0 +1,81 @@
+package io.github.bartoszpop.jpa.specification.benchmarks;
+
+import io.github.bartoszpop.jpa.specification.CompositeSpecification;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures the specifications of the depth rendered by Hibernate {@link javax.persistence.criteria.CriteriaBuilder} and executed against in-memory HSQLDB,
+ * <br>
+ * i.e. the overhead of the library along with the persistence provider.
+ *
+ * @author Bartosz Popiela
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HibernateBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int depth;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private EntityManager entityManager;
+
+    private CompositeSpecification<Employee, Root<Employee>> specification;
+
+    @Setup
+    public void setUp() {
+        entityManagerFactory = new Configuration()
+                .addAnnotatedClass(Employee.class)
+                .setProperty(AvailableSettings.DRIVER, "org.hsqldb.jdbc.JDBCDriver")
+                .setProperty(AvailableSettings.URL, "jdbc:hsqldb:mem:benchmarks")
+                .setProperty(AvailableSettings.USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .buildSessionFactory();
+        entityManager = entityManagerFactory.createEntityManager();
+        specification = BenchmarkSpecifications.nested(depth);
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Employee> toCriteriaQuery() {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(Employee.class);
+        var root = query.from(Employee.class);
+        return query.where(specification.toPredicate(root, query, criteriaBuilder));
+    }
+
+    @Benchmark
+    public List<Employee> getResultList() {
+        return entityManager.createQuery(toCriteriaQuery()).getResultList();
+    }
+}
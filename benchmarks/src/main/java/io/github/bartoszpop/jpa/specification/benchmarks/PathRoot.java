@@ -0,0 +1,20 @@
+package io.github.bartoszpop.jpa.specification.benchmarks;
+
+import io.github.bartoszpop.jpa.specification.AbstractRoot;
+
+import javax.persistence.criteria.Path;
+
+/**
+ * This class is the root every attribute of which is the root itself, so a specification is rendered without a persistence provider.
+ *
+ * @author Bartosz Popiela
+ */
+final class PathRoot<T> extends AbstractRoot<T> {
+
+    @Override
+    public <Y> Path<Y> get(String attributeName) {
+        // Cast allowed because the attribute is never evaluated
+        //noinspection unchecked
+        return (Path<Y>) this;
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.bartoszpop.jpa.specification.benchmarks;
+
+import io.github.bartoszpop.jpa.specification.AbstractCriteriaBuilder;
+import io.github.bartoszpop.jpa.specification.NoOpPredicate;
+
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+
+/**
+ * This class returns the same predicate for the comparisons and the junctions, so the rendering of a specification is measured without a persistence provider.
+ *
+ * @author Bartosz Popiela
+ */
+final class PredicateCriteriaBuilder extends AbstractCriteriaBuilder {
+
+    private static final Predicate PREDICATE = new NoOpPredicate();
+
+    @Override
+    public Predicate and(Expression<Boolean> x, Expression<Boolean> y) {
+        return PREDICATE;
+    }
+
+    @Override
+    public Predicate and(Predicate... restrictions) {
+        return PREDICATE;
+    }
+
+    @Override
+    public Predicate or(Expression<Boolean> x, Expression<Boolean> y) {
+        return PREDICATE;
+    }
+
+    @Override
+    public Predicate or(Predicate... restrictions) {
+        return PREDICATE;
+    }
+
+    @Override
+    public Predicate not(Expression<Boolean> restriction) {
+        return PREDICATE;
+    }
+
+    @Override
+    public Predicate equal(Expression<?> x, Object y) {
+        return PREDICATE;
+    }
+
+    @Override
+    public <Y extends Comparable<? super Y>> Predicate greaterThan(Expression<? extends Y> x, Y y) {
+        return PREDICATE;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.bartoszpop.jpa.specification.benchmarks;
+
+import io.github.bartoszpop.jpa.specification.CompositeSpecification;
+import io.github.bartoszpop.jpa.specification.NoOpCriteriaQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures {@link CompositeSpecification#toPredicate} of the specifications of the depth with the stubs of {@link CriteriaBuilder},
+ * <br>
+ * i.e. the overhead of the library alone. {@link #simplifyAndRender()} measures the first rendering of a specification, which simplifies it as well.
+ * <br>
+ * It composes a new specification per invocation, since a specification caches its simplified tree.
+ *
+ * @author Bartosz Popiela
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderingBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int depth;
+
+    private CompositeSpecification<Employee, Root<Employee>> specification;
+
+    private final Root<Employee> root = new PathRoot<>();
+
+    private final CriteriaQuery<Object> query = new NoOpCriteriaQuery<>();
+
+    private final CriteriaBuilder criteriaBuilder = new PredicateCriteriaBuilder();
+
+    @Setup
+    public void setUp() {
+        specification = BenchmarkSpecifications.nested(depth);
+        specification.toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Benchmark
+    public Predicate toPredicate() {
+        return specification.toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Benchmark
+    public Predicate simplifyAndRender() {
+        return specification.and(BenchmarkSpecifications.firstName("John")).toPredicate(root, query, criteriaBuilder);
+    }
+}
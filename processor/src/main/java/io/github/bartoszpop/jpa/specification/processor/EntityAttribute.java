@@ -0,0 +1,64 @@
+package io.github.bartoszpop.jpa.specification.processor;
+
+/**
+ * This class is an attribute of an entity the factories are generated for.
+ *
+ * @author Bartosz Popiela
+ */
+final class EntityAttribute {
+
+    private final String name;
+
+    private final String type;
+
+    private final String elementType;
+
+    private final boolean association;
+
+    private final boolean collection;
+
+    private final boolean comparable;
+
+    /**
+     * @param type        the canonical name of the type of the attribute, boxed if primitive
+     * @param elementType the canonical name of the type of the joined element, i.e. the element of a collection, the value of a map or the type of the attribute
+     */
+    EntityAttribute(String name, String type, String elementType, boolean association, boolean collection, boolean comparable) {
+        this.name = name;
+        this.type = type;
+        this.elementType = elementType;
+        this.association = association;
+        this.collection = collection;
+        this.comparable = comparable;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getType() {
+        return type;
+    }
+
+    String getElementType() {
+        return elementType;
+    }
+
+    /**
+     * Returns whether the attribute may be joined, i.e. it is a relationship or an element collection.
+     */
+    boolean isAssociation() {
+        return association;
+    }
+
+    boolean isCollection() {
+        return collection;
+    }
+
+    /**
+     * Returns whether the type is {@link Comparable}, so the attribute may be compared with a value, see {@code ExpressionSpecifications#equal}.
+     */
+    boolean isComparable() {
+        return comparable;
+    }
+}
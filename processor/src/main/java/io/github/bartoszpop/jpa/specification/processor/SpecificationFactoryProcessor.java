@@ -0,0 +1,191 @@
+package io.github.bartoszpop.jpa.specification.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class generates the factories of the specifications of the attributes of every {@code javax.persistence.Entity} at compile time,
+ * <br>
+ * e.g. {@code EmployeeSpecifications_} of {@code Employee} in the same package, so there is no reflection at runtime.
+ * <p>
+ * An attribute of the entity or its {@code javax.persistence.MappedSuperclass} has the factories
+ * <ul>
+ *     <li>{@code firstName(String)} if the type of the attribute is {@link Comparable}, and {@code firstName(CompositeSpecification<?, ? super Path<String>>)},</li>
+ *     <li>{@code joinEmployees(CompositeSpecification<?, ? super Join<Department, Employee>>)}, also with {@code JoinType},
+ *     and {@code fetchEmployees(...)} if it is an association or an element collection,</li>
+ *     <li>{@code anyMatchEmployees(...)} and {@code noneMatchEmployees(...)} if it is a collection.</li>
+ * </ul>
+ * The factories compose {@code PathSpecifications} and {@code FromSpecifications}, so the specifications are equal to the hand-written ones
+ * <br>
+ * and {@code CompiledQueryCache} may cache their queries. The attributes are read from the fields, or from the getters if the identifier is annotated on a getter.
+ * <p>
+ * The annotations are compared by the name, thus the processor does not depend on the JPA API. It does not claim {@code javax.persistence.Entity},
+ * <br>
+ * so other processors, e.g. of the static metamodel, process the entities as well.
+ *
+ * @author Bartosz Popiela
+ */
+public final class SpecificationFactoryProcessor extends AbstractProcessor {
+
+    static final String SUFFIX = "Specifications_";
+
+    private static final String ENTITY = "javax.persistence.Entity";
+
+    private static final String MAPPED_SUPERCLASS = "javax.persistence.MappedSuperclass";
+
+    private static final String TRANSIENT = "javax.persistence.Transient";
+
+    private static final Set<String> IDS = Set.of("javax.persistence.Id", "javax.persistence.EmbeddedId");
+
+    private static final Set<String> ASSOCIATIONS = Set.of("javax.persistence.OneToOne", "javax.persistence.OneToMany", "javax.persistence.ManyToOne",
+            "javax.persistence.ManyToMany", "javax.persistence.ElementCollection");
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(ENTITY);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        for (var annotation : annotations) {
+            for (var element : roundEnvironment.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    generate((TypeElement) element);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement entity) {
+        var packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString();
+        var className = entity.getSimpleName() + SUFFIX;
+        var entityName = entity.getNestingKind() == NestingKind.TOP_LEVEL ? entity.getSimpleName().toString() : entity.getQualifiedName().toString();
+        var qualifiedName = packageName.isEmpty() ? className : packageName + '.' + className;
+        try (var writer = processingEnv.getFiler().createSourceFile(qualifiedName, entity).openWriter()) {
+            new SpecificationFactoryWriter(writer).write(packageName, className, entityName, attributes(entity));
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "The specifications of " + entity.getQualifiedName() + " cannot be written: " + e.getMessage(), entity);
+        }
+    }
+
+    /**
+     * Returns the attributes of the entity and its persistent superclasses, the attributes of the superclasses first.
+     * The type of an attribute declared with a type variable of a superclass is the type argument of the entity.
+     */
+    private List<EntityAttribute> attributes(TypeElement entity) {
+        var hierarchy = new ArrayDeque<TypeElement>();
+        for (var type = entity; type != null; type = superclass(type)) {
+            if (type == entity || hasAnnotation(type, ENTITY) || hasAnnotation(type, MAPPED_SUPERCLASS)) {
+                hierarchy.push(type);
+            }
+        }
+        var propertyAccess = hierarchy.stream()
+                .flatMap(type -> ElementFilter.methodsIn(type.getEnclosedElements()).stream())
+                .anyMatch(method -> IDS.stream().anyMatch(id -> hasAnnotation(method, id)));
+        var entityType = (DeclaredType) entity.asType();
+        var attributes = new LinkedHashMap<String, EntityAttribute>();
+        for (var type : hierarchy) {
+            var members = propertyAccess ? ElementFilter.methodsIn(type.getEnclosedElements()) : ElementFilter.fieldsIn(type.getEnclosedElements());
+            for (var member : members) {
+                var name = propertyAccess ? propertyName((ExecutableElement) member) : member.getSimpleName().toString();
+                if (name == null || member.getModifiers().contains(Modifier.STATIC) || member.getModifiers().contains(Modifier.TRANSIENT) || hasAnnotation(member, TRANSIENT)) {
+                    continue;
+                }
+                var memberType = processingEnv.getTypeUtils().asMemberOf(entityType, member);
+                var attributeType = propertyAccess ? ((ExecutableType) memberType).getReturnType() : memberType;
+                var attribute = attribute(name, attributeType, ASSOCIATIONS.stream().anyMatch(association -> hasAnnotation(member, association)));
+                if (attribute != null) {
+                    attributes.put(name, attribute);
+                }
+            }
+        }
+        return new ArrayList<>(attributes.values());
+    }
+
+    /**
+     * Returns the attribute, or null if its type is not declared, e.g. it is a type variable of the entity.
+     */
+    private EntityAttribute attribute(String name, TypeMirror type, boolean association) {
+        var types = processingEnv.getTypeUtils();
+        var boxedType = type.getKind().isPrimitive() ? types.boxedClass((PrimitiveType) type).asType() : type;
+        if (boxedType.getKind() != TypeKind.DECLARED && boxedType.getKind() != TypeKind.ARRAY) {
+            return null;
+        }
+        var erasure = types.erasure(boxedType);
+        var collection = types.isAssignable(erasure, erasure(Collection.class.getName()));
+        var map = types.isAssignable(erasure, erasure(Map.class.getName()));
+        var elementType = boxedType;
+        if (collection || map) {
+            var typeArguments = ((DeclaredType) boxedType).getTypeArguments();
+            var elementIndex = map ? 1 : 0;
+            if (typeArguments.size() <= elementIndex || typeArguments.get(elementIndex).getKind() != TypeKind.DECLARED) {
+                return null;
+            }
+            elementType = typeArguments.get(elementIndex);
+        }
+        var comparable = boxedType.getKind() == TypeKind.DECLARED && types.isAssignable(erasure, erasure(Comparable.class.getName()));
+        return new EntityAttribute(name, boxedType.toString(), elementType.toString(), association, collection || map, comparable);
+    }
+
+    private TypeMirror erasure(String className) {
+        return processingEnv.getTypeUtils().erasure(processingEnv.getElementUtils().getTypeElement(className).asType());
+    }
+
+    private static TypeElement superclass(TypeElement type) {
+        var superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+
+    /**
+     * Returns the name of the property of the getter, or null if the method is not a getter.
+     */
+    private static String propertyName(ExecutableElement method) {
+        var methodName = method.getSimpleName().toString();
+        if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID) {
+            return null;
+        }
+        String name;
+        if (methodName.startsWith("get") && methodName.length() > 3) {
+            name = methodName.substring(3);
+        } else if (methodName.startsWith("is") && methodName.length() > 2 && method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+            name = methodName.substring(2);
+        } else {
+            return null;
+        }
+        // This is as java.beans.Introspector#decapitalize, e.g. the property of getURL is URL
+        return name.length() > 1 && Character.isUpperCase(name.charAt(1)) ? name : Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static boolean hasAnnotation(Element element, String annotation) {
+        return element.getAnnotationMirrors().stream()
+                .anyMatch(mirror -> ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation));
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.bartoszpop.jpa.specification.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * This class writes the source of the factories of the specifications of an entity.
+ * <p>
+ * The types of the attributes are written with the canonical names, so the source does not import them.
+ *
+ * @author Bartosz Popiela
+ */
+final class SpecificationFactoryWriter {
+
+    private static final String SPECIFICATION = "io.github.bartoszpop.jpa.specification.CompositeSpecification";
+
+    private static final String PATH_SPECIFICATIONS = "io.github.bartoszpop.jpa.specification.PathSpecifications";
+
+    private static final String FROM_SPECIFICATIONS = "io.github.bartoszpop.jpa.specification.FromSpecifications";
+
+    private static final String EXPRESSION_SPECIFICATIONS = "io.github.bartoszpop.jpa.specification.ExpressionSpecifications";
+
+    private static final String PATH = "javax.persistence.criteria.Path";
+
+    private static final String FROM = "javax.persistence.criteria.From";
+
+    private static final String JOIN = "javax.persistence.criteria.Join";
+
+    private static final String JOIN_TYPE = "javax.persistence.criteria.JoinType";
+
+    private final Writer writer;
+
+    SpecificationFactoryWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    void write(String packageName, String className, String entityName, List<EntityAttribute> attributes) throws IOException {
+        if (!packageName.isEmpty()) {
+            writer.write("package " + packageName + ";\n\n");
+        }
+        writer.write("@javax.annotation.processing.Generated(\"" + SpecificationFactoryProcessor.class.getName() + "\")\n");
+        writer.write("public final class " + className + " {\n\n");
+        writer.write("    private " + className + "() {\n    }\n");
+        for (var attribute : attributes) {
+            // A path of a collection is not an expression of its elements, so the collection is joined instead
+            if (!attribute.isCollection()) {
+                writeGet(entityName, attribute);
+            }
+            if (attribute.isAssociation()) {
+                writeJoins(entityName, attribute);
+            }
+        }
+        writer.write("}\n");
+    }
+
+    private void writeGet(String entityName, EntityAttribute attribute) throws IOException {
+        var name = attribute.getName();
+        var type = attribute.getType();
+        var typeParameter = "<S extends " + PATH + "<" + entityName + ">> " + SPECIFICATION + "<" + entityName + ", S>";
+        var typeArguments = "<" + entityName + ", " + type + ", S>";
+        if (attribute.isComparable()) {
+            writeMethod(typeParameter, name, type + " " + name,
+                    PATH_SPECIFICATIONS + "." + typeArguments + "get(\"" + name + "\", " + EXPRESSION_SPECIFICATIONS + ".equal(" + name + "))");
+        }
+        writeMethod(typeParameter, name, SPECIFICATION + "<?, ? super " + PATH + "<" + type + ">> specification",
+                PATH_SPECIFICATIONS + "." + typeArguments + "get(\"" + name + "\", specification)");
+    }
+
+    private void writeJoins(String entityName, EntityAttribute attribute) throws IOException {
+        var name = attribute.getName();
+        var suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        var typeParameter = "<S extends " + FROM + "<?, " + entityName + ">> " + SPECIFICATION + "<" + entityName + ", S>";
+        var typeArguments = "<" + entityName + ", " + attribute.getElementType() + ", S>";
+        var specification = SPECIFICATION + "<?, ? super " + JOIN + "<" + entityName + ", " + attribute.getElementType() + ">> specification";
+        var from = FROM_SPECIFICATIONS + "." + typeArguments;
+        writeMethod(typeParameter, "join" + suffix, specification, from + "join(\"" + name + "\", " + JOIN_TYPE + ".INNER, specification)");
+        writeMethod(typeParameter, "join" + suffix, JOIN_TYPE + " joinType, " + specification, from + "join(\"" + name + "\", joinType, specification)");
+        writeMethod(typeParameter, "fetch" + suffix, "", from + "fetch(\"" + name + "\", " + JOIN_TYPE + ".LEFT, " + SPECIFICATION + ".noOp())");
+        writeMethod(typeParameter, "fetch" + suffix, specification, from + "fetch(\"" + name + "\", " + JOIN_TYPE + ".LEFT, specification)");
+        if (attribute.isCollection()) {
+            writeMethod(typeParameter, "anyMatch" + suffix, specification, from + "anyMatch(\"" + name + "\", specification)");
+            writeMethod(typeParameter, "noneMatch" + suffix, specification, from + "noneMatch(\"" + name + "\", specification)");
+        }
+    }
+
+    private void writeMethod(String signature, String name, String parameters, String body) throws IOException {
+        writer.write("\n    public static " + signature + " " + name + "(" + parameters + ") {\n");
+        writer.write("        return " + body + ";\n");
+        writer.write("    }\n");
+    }
+}
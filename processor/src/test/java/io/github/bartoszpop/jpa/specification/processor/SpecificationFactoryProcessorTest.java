@@ -0,0 +1,113 @@
+package io.github.bartoszpop.jpa.specification.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+class SpecificationFactoryProcessorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void process_entity_generatesCompilableFactories() throws IOException {
+        // given
+        var parent = source("Parent", "@javax.persistence.Entity public class Parent { @javax.persistence.Id Long id; }");
+        var child = source("Child", "@javax.persistence.Entity public class Child { @javax.persistence.Id Long id; }");
+        var entity = source("Entity", "@javax.persistence.Entity public class Entity {"
+                + " @javax.persistence.Id Long id;"
+                + " int age;"
+                + " @javax.persistence.ManyToOne Parent parent;"
+                + " @javax.persistence.OneToMany java.util.List<Child> children; }");
+        var usage = source("Usage", "class Usage {"
+                + " io.github.bartoszpop.jpa.specification.CompositeSpecification<Entity, javax.persistence.criteria.Root<Entity>> specification ="
+                + " EntitySpecifications_.<javax.persistence.criteria.Root<Entity>>age(21)"
+                + ".and(EntitySpecifications_.joinParent(ParentSpecifications_.id(1L)))"
+                + ".and(EntitySpecifications_.anyMatchChildren(ChildSpecifications_.id(2L)))"
+                + ".and(EntitySpecifications_.fetchChildren()); }");
+
+        // when
+        var compiled = compile(List.of(parent, child, entity, usage));
+
+        // then
+        assertThat(compiled, equalTo(true));
+        var generated = generated("Entity");
+        assertThat(generated, containsString("age(java.lang.Integer age)"));
+        assertThat(generated, containsString("joinParent(javax.persistence.criteria.JoinType joinType,"));
+        assertThat(generated, containsString("noneMatchChildren("));
+        assertThat(generated, not(containsString(" children(")));
+        assertThat(generated, not(containsString("anyMatchParent(")));
+    }
+
+    @Test
+    void process_mappedSuperclassWithTypeVariable_generatesFactoriesOfTypeArgument() throws IOException {
+        // given
+        var superclass = source("Identifiable", "@javax.persistence.MappedSuperclass public abstract class Identifiable<ID> { @javax.persistence.Id ID id; }");
+        var entity = source("Entity", "@javax.persistence.Entity public class Entity extends Identifiable<String> { String name; }");
+
+        // when
+        var compiled = compile(List.of(superclass, entity));
+
+        // then
+        assertThat(compiled, equalTo(true));
+        var generated = generated("Entity");
+        assertThat(generated, containsString("id(java.lang.String id)"));
+        assertThat(generated, containsString("name(java.lang.String name)"));
+    }
+
+    @Test
+    void process_propertyAccess_generatesFactoriesOfPersistentGetters() throws IOException {
+        // given
+        var entity = source("Entity", "@javax.persistence.Entity public class Entity {"
+                + " @javax.persistence.Id public Long getId() { return null; }"
+                + " public boolean isActive() { return false; }"
+                + " @javax.persistence.Transient public String getDisplayName() { return null; }"
+                + " public static String getCode() { return null; } }");
+
+        // when
+        var compiled = compile(List.of(entity));
+
+        // then
+        assertThat(compiled, equalTo(true));
+        var generated = generated("Entity");
+        assertThat(generated, containsString("id(java.lang.Long id)"));
+        assertThat(generated, containsString("active(java.lang.Boolean active)"));
+        assertThat(generated, not(containsString("displayName(")));
+        assertThat(generated, not(containsString("code(")));
+    }
+
+    private boolean compile(List<JavaFileObject> sources) throws IOException {
+        var classes = Files.createDirectories(directory.resolve("classes"));
+        var generatedSources = Files.createDirectories(directory.resolve("generated"));
+        var options = List.of("-classpath", System.getProperty("java.class.path"), "-d", classes.toString(), "-s", generatedSources.toString());
+        var task = ToolProvider.getSystemJavaCompiler().getTask(null, null, null, options, null, sources);
+        task.setProcessors(List.of(new SpecificationFactoryProcessor()));
+        return task.call();
+    }
+
+    private String generated(String entityName) throws IOException {
+        return Files.readString(directory.resolve("generated").resolve("test").resolve(entityName + SpecificationFactoryProcessor.SUFFIX + ".java"));
+    }
+
+    private static JavaFileObject source(String className, String body) {
+        return new SimpleJavaFileObject(URI.create("string:///test/" + className + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return "package test;\n" + body;
+            }
+        };
+    }
+}
@@ -1,30 +1,69 @@
 package io.github.bartoszpop.jpa.specification.example;
 
+import io.github.bartoszpop.jpa.specification.CachingSpecificationExecutor;
+import io.github.bartoszpop.jpa.specification.CompiledQueryCache;
+import io.github.bartoszpop.jpa.specification.CompositeSpecification;
+import io.github.bartoszpop.jpa.specification.CompositeSpecificationExecutor;
+import io.github.bartoszpop.jpa.specification.ExampleSpecifications;
+import io.github.bartoszpop.jpa.specification.FacetCounter;
 import io.github.bartoszpop.jpa.specification.ExpressionSpecifications;
+import io.github.bartoszpop.jpa.specification.FilterParser;
+import io.github.bartoszpop.jpa.specification.InStrategy;
+import io.github.bartoszpop.jpa.specification.SpecificationCodec;
+import io.github.bartoszpop.jpa.specification.SpecificationInstrumentation;
+import io.github.bartoszpop.jpa.specification.SpecificationRegistry;
+import io.github.bartoszpop.jpa.specification.SpecificationResultCache;
+import io.github.bartoszpop.jpa.specification.SpecificationStatistics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.criteria.Join;
 import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static io.github.bartoszpop.jpa.specification.CompositeSpecification.noOp;
 import static io.github.bartoszpop.jpa.specification.CompositeSpecification.not;
 import static io.github.bartoszpop.jpa.specification.ExpressionSpecifications.greaterThanOrEqualTo;
 import static io.github.bartoszpop.jpa.specification.ExpressionSpecifications.in;
 import static io.github.bartoszpop.jpa.specification.ExpressionSpecifications.lessThan;
 import static io.github.bartoszpop.jpa.specification.example.DepartmentMatchers.department;
+import static io.github.bartoszpop.jpa.specification.example.DepartmentSpecifications.anyEmployee;
 import static io.github.bartoszpop.jpa.specification.example.DepartmentSpecifications.fetchEmployees;
 import static io.github.bartoszpop.jpa.specification.example.DepartmentSpecifications.joinEmployees;
 import static io.github.bartoszpop.jpa.specification.example.DepartmentSpecifications.name;
+import static io.github.bartoszpop.jpa.specification.example.DepartmentSpecifications.noEmployee;
 import static io.github.bartoszpop.jpa.specification.example.EmployeeMatchers.employee;
+import static io.github.bartoszpop.jpa.specification.example.EmployeeSpecifications.bornIn;
 import static io.github.bartoszpop.jpa.specification.example.EmployeeSpecifications.dateOfBirth;
 import static io.github.bartoszpop.jpa.specification.example.EmployeeSpecifications.firstName;
+import static io.github.bartoszpop.jpa.specification.example.EmployeeSpecifications.firstNameIn;
 import static io.github.bartoszpop.jpa.specification.example.EmployeeSpecifications.secondName;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItemInArray;
+import static org.hamcrest.Matchers.startsWith;
 
 @SpringBootApplication
 public class DepartmentApplication {
@@ -33,8 +72,27 @@ public class DepartmentApplication {
         SpringApplication.run(DepartmentApplication.class, args);
     }
 
+    @Bean
+    public static SpecificationResultCache resultCache(EntityManagerFactory entityManagerFactory) {
+        var resultCache = new SpecificationResultCache(100, Duration.ofMinutes(10));
+        ResultCacheInvalidator.register(entityManagerFactory, resultCache);
+        return resultCache;
+    }
+
+    /**
+     * The statistics of the named specifications are registered as an MBean, so e.g. JConsole lists the slowest specifications.
+     */
+    @Bean
+    public static SpecificationStatistics specificationStatistics() throws JMException {
+        var statistics = new SpecificationStatistics(10);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(statistics, new ObjectName(SpecificationStatistics.OBJECT_NAME));
+        SpecificationInstrumentation.setMetrics(statistics);
+        return statistics;
+    }
+
     @Autowired
-    public void friendsCompany(DepartmentRepository departmentRepository) {
+    public void friendsCompany(DepartmentRepository departmentRepository, EntityManager entityManager, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               SpecificationResultCache resultCache, SpecificationStatistics statistics) {
         var chandler = new Employee("Chandler", "Bing", LocalDate.of(1968, 4, 8));
         var dina = new Employee("Dina", "Tribbiani", LocalDate.of(1980, 12, 19));
         var joey = new Employee("Joey", "Tribbiani", LocalDate.of(1968, 1, 9));
@@ -118,6 +176,22 @@ public class DepartmentApplication {
         departmentsFound = departmentRepository.findAll(joinEmployees(not(secondName(rachel.getSecondName()))));
         assertThat(departmentsFound, containsInAnyOrder(department(salesDepartment), department(hrDepartment)));
 
+        /*
+        select distinct
+           department0_.id as id1_0_,
+           department0_.name as name2_0_
+        from
+           department department0_
+           left outer join
+              employee employees1_
+              on department0_.id = employees1_.department_id
+        where
+           employees1_.first_name =?
+           and employees1_.second_name =?
+         */
+        departmentsFound = departmentRepository.findAll(joinEmployees(firstName(joey.getFirstName())).and(joinEmployees(secondName(dina.getSecondName()))));
+        assertThat(departmentsFound, contains(department(salesDepartment)));
+
         /*
         select distinct
            department0_.id as id1_0_0_,
@@ -191,11 +265,422 @@ public class DepartmentApplication {
         departmentsFound = departmentRepository.findAll(joinEmployees(firstName(phoebe.getFirstName()).or(in(List.of(rachel)))));
         assertThat(departmentsFound, containsInAnyOrder(department(salesDepartment), department(financeDepartment)));
 
+        /*
+        select
+           department0_.id as id1_0_,
+           department0_.name as name2_0_
+        from
+           department department0_
+        where
+           exists (
+              select
+                 employees1_.id
+              from
+                 employee employees1_
+              where
+                 department0_.id=employees1_.department_id
+                 and (
+                    employees1_.second_name=?
+                    or employees1_.second_name=?
+                 )
+           )
+         */
+        departmentsFound = departmentRepository.findAll(anyEmployee(secondName(chandler.getSecondName()).or(secondName(dina.getSecondName()))));
+        assertThat(departmentsFound, containsInAnyOrder(department(salesDepartment), department(hrDepartment)));
+
+        /*
+        select
+           department0_.id as id1_0_,
+           department0_.name as name2_0_
+        from
+           department department0_
+        where
+           not (
+              exists (
+                 select
+                    employees1_.id
+                 from
+                    employee employees1_
+                 where
+                    department0_.id=employees1_.department_id
+                    and employees1_.date_of_birth<?
+              )
+           )
+         */
+        departmentsFound = departmentRepository.findAll(noEmployee(dateOfBirth(lessThan(LocalDate.of(1970, 1, 1)))));
+        assertThat(departmentsFound, contains(department(hrDepartment)));
+
+        /*
+        select distinct
+           department0_.id as col_0_0_,
+           department0_.name as col_1_0_
+        from
+           department department0_
+        order by
+           department0_.name asc limit ?
+
+        select distinct
+           department0_.id as id1_0_0_,
+           employees1_.id as id1_1_1_,
+           (...)
+        from
+           department department0_
+           left outer join
+              employee employees1_
+              on department0_.id=employees1_.department_id
+        where
+           department0_.id in (
+              ? , ?
+           )
+
+        select
+           count(department0_.id) as col_0_0_
+        from
+           department department0_
+         */
+        var departmentExecutor = new CompositeSpecificationExecutor<>(Department.class, entityManager);
+        var departmentPage = departmentExecutor.findAll(fetchEmployees(), PageRequest.of(0, 2, Sort.by("name")));
+        assertThat(departmentPage.getContent(), contains(department(financeDepartment), department(hrDepartment)));
+        assertThat(departmentPage.getTotalElements(), equalTo(3L));
+
+        departmentPage = departmentExecutor.findAll(fetchEmployees(), PageRequest.of(1, 2, Sort.by("name")));
+        assertThat(departmentPage.getContent(), contains(department(salesDepartment)));
+        assertThat(departmentPage.getContent().get(0).getEmployees(), containsInAnyOrder(employee(chandler), employee(joey), employee(monica), employee(phoebe), employee(ross)));
+
+        /*
+        The count query of JpaSpecificationExecutor neither fetches nor joins the employees, since the left fetch join without a predicate does not restrict the departments.
+
+        select
+           count(department0_.id) as col_0_0_
+        from
+           department department0_
+         */
+        departmentPage = departmentRepository.findAll(fetchEmployees(), PageRequest.of(0, 2, Sort.by("name")));
+        assertThat(departmentPage.getTotalElements(), equalTo(3L));
+
+        /*
+        The second slice is selected after the last department of the first one rather than at an offset, and one department more than the size is selected.
+
+        select distinct
+           department0_.id as col_0_0_,
+           department0_.name as col_1_0_,
+           department0_.id as col_2_0_
+        from
+           department department0_
+        where
+           department0_.name>?
+           or department0_.name=?
+           and department0_.id>?
+        order by
+           department0_.name asc,
+           department0_.id asc limit ?
+         */
+        var departmentSlice = departmentExecutor.findSlice(fetchEmployees(), Sort.by("name"), null, 2);
+        assertThat(departmentSlice.getContent(), contains(department(financeDepartment), department(hrDepartment)));
+        assertThat(departmentSlice.hasNext(), equalTo(true));
+
+        departmentSlice = departmentExecutor.findSlice(fetchEmployees(), Sort.by("name"), departmentSlice.getContinuationToken(), 2);
+        assertThat(departmentSlice.getContent(), contains(department(salesDepartment)));
+        assertThat(departmentSlice.hasNext(), equalTo(false));
+
+        /*
+        Only the identifier and the name of the departments that have an employee born before 1970 are selected, so no department is hydrated.
+
+        select
+           department0_.id as col_0_0_,
+           department0_.name as col_1_0_
+        from
+           department department0_
+        where
+           exists (
+              select
+                 employees1_.id
+              from
+                 employee employees1_
+              where
+                 department0_.id=employees1_.department_id
+                 and employees1_.date_of_birth<?
+           )
+        order by
+           department0_.name asc
+         */
+        var departmentNames = departmentExecutor.findAll(anyEmployee(dateOfBirth(lessThan(LocalDate.of(1970, 1, 1)))), DepartmentName.class, Sort.by("name"));
+        assertThat(departmentNames.stream().map(DepartmentName::getName).collect(Collectors.toList()), contains(financeDepartment.getName(), salesDepartment.getName()));
+
+        /*
+        The names of the employees are selected along with the identifier and passed to the constructor of the projection.
+
+        select
+           employee0_.id as col_0_0_,
+           employee0_.first_name as col_1_0_,
+           employee0_.second_name as col_2_0_
+        from
+           employee employee0_
+        where
+           employee0_.second_name=?
+         */
+        var employeeExecutor = new CompositeSpecificationExecutor<>(Employee.class, entityManager);
+        var employeeNames = employeeExecutor.findAll(secondName(dina.getSecondName()), EmployeeName.class, Sort.unsorted());
+        assertThat(employeeNames, containsInAnyOrder(new EmployeeName(joey.getFirstName(), joey.getSecondName()), new EmployeeName(dina.getFirstName(), dina.getSecondName())));
+
+        /*
+        The employees born before 1970 are streamed with a cursor in batches of two, and the persistence context is cleared before every next batch.
+         */
+        var streamedEmployees = new TransactionTemplate(transactionManager).execute(status -> {
+            try (var employees = employeeExecutor.stream(dateOfBirth(lessThan(LocalDate.of(1970, 1, 1))), 2)) {
+                return employees.collect(Collectors.toList());
+            }
+        });
+        assertThat(streamedEmployees, containsInAnyOrder(employee(chandler), employee(joey), employee(phoebe), employee(rachel), employee(ross)));
+
+        /*
+        The same filters composed in a different order have the same canonical key, e.g. to share the cached results.
+         */
+        var filter = firstName(chandler.getFirstName()).or(firstName(joey.getFirstName())).and(dateOfBirth(lessThan(LocalDate.of(1970, 1, 1))));
+        var otherFilter = EmployeeSpecifications.<Path<Employee>>dateOfBirth(lessThan(LocalDate.of(1970, 1, 1))).and(firstName(joey.getFirstName()).or(firstName(chandler.getFirstName())));
+        assertThat(filter.getCanonicalKey(), equalTo(otherFilter.getCanonicalKey()));
+        assertThat(filter, equalTo(firstName(chandler.getFirstName()).or(firstName(joey.getFirstName())).and(dateOfBirth(lessThan(LocalDate.of(1970, 1, 1))))));
+
+        /*
+        A saved filter is encoded to the bytes or JSON, then decoded by the factory of the named EmployeeSpecifications#bornIn.
+         */
+        var codec = new SpecificationCodec(new SpecificationRegistry().register("EmployeeSpecifications.bornIn", arguments -> bornIn((Integer) arguments.get(0))));
+        var bornInFilter = filter.or(bornIn(1967));
+        assertThat(codec.decode(codec.encode(bornInFilter)), equalTo(bornInFilter));
+        CompositeSpecification<Employee, Path<Employee>> savedFilter = codec.fromJson(codec.toJson(bornInFilter));
+        assertThat(departmentRepository.count(anyEmployee(savedFilter)), equalTo(departmentRepository.count(anyEmployee(bornInFilter))));
+
+        /*
+        A filter of a query string is parsed once, then its specification is cached.
+         */
+        var employeeFilterParser = new FilterParser<Employee, Join<?, Employee>>(100)
+                .attribute("firstName", String.class)
+                .attribute("secondName", String.class)
+                .attribute("dateOfBirth", LocalDate.class);
+        var departmentFilterParser = new FilterParser<Department, Root<Department>>(100)
+                .attribute("name", String.class)
+                .join("employees", employeeFilterParser, DepartmentSpecifications::joinEmployees);
+        departmentsFound = departmentRepository.findAll(departmentFilterParser.parse("employees.secondName==" + joey.getSecondName() + ";employees.dateOfBirth=ge=1967-01-01"));
+        assertThat(departmentsFound, containsInAnyOrder(department(salesDepartment), department(hrDepartment)));
+        departmentsFound = departmentRepository.findAll(departmentFilterParser.parse("employees.secondName==" + joey.getSecondName() + ";employees.dateOfBirth=ge=1967-01-01"));
+        assertThat(departmentFilterParser.getHitCount(), equalTo(1L));
+
+        /*
+        The second query has the same structure as the first one, so it is built once and the second name is bound to the parameter.
+
+        select
+           count(department0_.id) as col_0_0_
+        from
+           department department0_
+        where
+           exists (
+              select
+                 employees1_.id
+              from
+                 employee employees1_
+              where
+                 department0_.id=employees1_.department_id
+                 and employees1_.second_name=?
+           )
+         */
+        var queryCache = new CompiledQueryCache(100);
+        var cachingDepartmentExecutor = new CompositeSpecificationExecutor<>(Department.class, entityManager, queryCache);
+        assertThat(cachingDepartmentExecutor.count(anyEmployee(secondName(joey.getSecondName()))), equalTo(2L));
+        assertThat(cachingDepartmentExecutor.count(anyEmployee(secondName(ross.getSecondName()))), equalTo(1L));
+        assertThat(queryCache.getMissCount(), equalTo(1L));
+        assertThat(queryCache.getHitCount(), equalTo(1L));
+
+        departmentPage = cachingDepartmentExecutor.findAll(fetchEmployees(secondName(joey.getSecondName())), PageRequest.of(0, 1, Sort.by("name")));
+        assertThat(departmentPage.getContent(), contains(department(hrDepartment)));
+        assertThat(departmentPage.getTotalElements(), equalTo(2L));
+
+        /*
+        The values are bound to the parameters, also if a PredicateBuilder renders a specification, e.g. DepartmentSpecifications#joinEmployees.
+
+        select distinct
+           department0_.id as col_0_0_,
+           department0_.name as col_1_0_
+        from
+           department department0_
+           left outer join
+              employee employees1_
+              on department0_.id=employees1_.department_id
+        where
+           employees1_.date_of_birth<?
+        order by
+           department0_.name asc limit ?
+
+        select distinct
+           department0_.id as id1_0_0_,
+           employees1_.id as id1_1_1_,
+           (...)
+        from
+           department department0_
+           left outer join
+              employee employees1_
+              on department0_.id=employees1_.department_id
+        where
+           employees1_.date_of_birth<?
+           and (
+              department0_.id in (
+                 ?
+              )
+           )
+         */
+        var bindingDepartmentExecutor = new CompositeSpecificationExecutor<>(Department.class, entityManager);
+        bindingDepartmentExecutor.setBindParameters(true);
+        departmentPage = bindingDepartmentExecutor.findAll(fetchEmployees(dateOfBirth(lessThan(LocalDate.of(1970, 1, 1)))), PageRequest.of(0, 1, Sort.by("name")));
+        assertThat(departmentPage.getContent(), contains(department(financeDepartment)));
+        assertThat(departmentPage.getTotalElements(), equalTo(2L));
+
+        /*
+        The first names are split into the chunks of four, and the last chunk is padded with the last first name.
+
+        select
+           department0_.id as id1_0_,
+           department0_.name as name2_0_
+        from
+           department department0_
+        where
+           exists (
+              select
+                 employees1_.id
+              from
+                 employee employees1_
+              where
+                 department0_.id=employees1_.department_id
+                 and (
+                    employees1_.first_name in (
+                       ? , ? , ? , ?
+                    )
+                    or employees1_.first_name in (
+                       ? , ? , ? , ?
+                    )
+                 )
+           )
+         */
+        var inStrategy = InStrategy.direct().padToPowerOfTwo().chunkSize(4).fallbackAbove(10_000, new TemporaryTableFallback(jdbcTemplate));
+        var firstNames = List.of(chandler.getFirstName(), dina.getFirstName(), joey.getFirstName(), monica.getFirstName(), phoebe.getFirstName(), rachel.getFirstName(), ross.getFirstName());
+        departmentsFound = departmentRepository.findAll(anyEmployee(firstNameIn(firstNames, inStrategy)));
+        assertThat(departmentsFound, containsInAnyOrder(department(salesDepartment), department(financeDepartment), department(hrDepartment)));
+
+        /*
+        A million of first names are inserted into the table selected_name under the identifier of the selection, then selected in a subquery.
+        The names are inserted in the transaction of the query and deleted before it commits.
+
+        select
+           department0_.id as id1_0_,
+           department0_.name as name2_0_
+        from
+           department department0_
+        where
+           exists (
+              select
+                 employees1_.id
+              from
+                 employee employees1_
+              where
+                 department0_.id=employees1_.department_id
+                 and (
+                    employees1_.first_name in (
+                       select
+                          selectedna2_.name
+                       from
+                          selected_name selectedna2_
+                       where
+                          selectedna2_.selection_id=?
+                    )
+                 )
+           )
+         */
+        var manyFirstNames = IntStream.range(0, 1_000_000).mapToObj(i -> "First name " + i).collect(Collectors.toCollection(ArrayList::new));
+        manyFirstNames.add(rachel.getFirstName());
+        departmentsFound = new TransactionTemplate(transactionManager).execute(status -> departmentRepository.findAll(anyEmployee(firstNameIn(manyFirstNames, inStrategy))));
+        assertThat(departmentsFound, contains(department(financeDepartment)));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from selected_name", Long.class), equalTo(0L));
+
         /*
         The first specification in chain must be parametrized with a common subtype of the subsequent specifications.
         This is the above example but with the order of specifications reversed.
          */
         departmentsFound = departmentRepository.findAll(joinEmployees(ExpressionSpecifications.<Employee, Path<Employee>> in(List.of(rachel)).or(firstName(phoebe.getFirstName()))));
         assertThat(departmentsFound, containsInAnyOrder(department(salesDepartment), department(financeDepartment)));
+
+        /*
+        The departments loaded with their employees are filtered in memory without a query, e.g. if the application caches them.
+         */
+        var cachedDepartments = departmentRepository.findAll(fetchEmployees());
+        departmentsFound = cachedDepartments.stream().filter(anyEmployee(firstName(rachel.getFirstName())).asPredicate()).collect(Collectors.toList());
+        assertThat(departmentsFound, contains(department(financeDepartment)));
+
+        /*
+        The count of the Sales departments is cached. A new department named Marketing does not satisfy the specification, so the count stays cached,
+        whereas a new department named Sales invalidates it once the transaction is committed.
+         */
+        var cachingDepartmentRepository = new CachingSpecificationExecutor<>(Department.class, departmentRepository, resultCache);
+        assertThat(cachingDepartmentRepository.count(name(salesDepartment.getName())), equalTo(1L));
+        departmentRepository.save(new Department("Marketing"));
+        assertThat(cachingDepartmentRepository.count(name(salesDepartment.getName())), equalTo(1L));
+        departmentRepository.save(new Department(salesDepartment.getName()));
+        assertThat(cachingDepartmentRepository.count(name(salesDepartment.getName())), equalTo(2L));
+        assertThat(resultCache.getHitCount(), equalTo(1L));
+        assertThat(resultCache.getMissCount(), equalTo(2L));
+
+        /*
+        The departments of each facet are counted with a single query rather than a count query per facet.
+
+        select
+           sum(case when department0_.name='Sales' then 1 else 0 end) as col_0_0_,
+           sum(case when exists (
+              select
+                 employees1_.id
+              from
+                 employee employees1_
+              where
+                 department0_.id=employees1_.department_id
+                 and employees1_.first_name=?
+           ) then 1 else 0 end) as col_1_0_
+        from
+           department department0_
+         */
+        var departmentFacetCounter = new FacetCounter<>(Department.class, entityManager);
+        var departmentCounts = departmentFacetCounter.count(noOp(), List.of(name(salesDepartment.getName()), anyEmployee(firstName(rachel.getFirstName()))));
+        assertThat(departmentCounts, contains(2L, 1L));
+
+        /*
+        A facet joining the employees makes the facets count the distinct departments. The employees are joined once for both facets.
+
+        select
+           count(distinct case when employees1_.second_name='Geller' then department0_.id else cast(null as bigint) end) as col_0_0_,
+           count(distinct case when employees1_.first_name='Rachel' then department0_.id else cast(null as bigint) end) as col_1_0_
+        from
+           department department0_
+        left outer join
+           employee employees1_
+              on department0_.id=employees1_.department_id
+         */
+        var departmentCountsByFacet = departmentFacetCounter.count(noOp(), Map.of("Geller", joinEmployees(secondName(ross.getSecondName())), "Rachel", joinEmployees(firstName(rachel.getFirstName()))));
+        assertThat(departmentCountsByFacet, equalTo(Map.of("Geller", 1L, "Rachel", 1L)));
+
+        /*
+        The departments are found by a probe, i.e. the name starts with the name of the probe ignoring case, whereas its null identifier and its employees are ignored.
+
+        select
+           department0_.id as id1_0_,
+           department0_.name as name2_0_
+        from
+           department department0_
+        where
+           lower(department0_.name) like ? escape ?
+         */
+        departmentsFound = departmentRepository.findAll(ExampleSpecifications.like(new Department("fin"), ExampleMatcher.matching().withStringMatcher(ExampleMatcher.StringMatcher.STARTING).withIgnoreCase()));
+        assertThat(departmentsFound, contains(department(financeDepartment)));
+
+        /*
+        The named specification reports the time its predicate took to build, the number of its nodes and joins, the latency of its query and the rows returned.
+         */
+        departmentsFound = departmentExecutor.findAll(anyEmployee(firstName(rachel.getFirstName())).named("departmentsByEmployeeFirstName"), Sort.unsorted());
+        assertThat(departmentsFound, contains(department(financeDepartment)));
+        assertThat(statistics.getSlowestSpecifications(), hasItemInArray(startsWith("departmentsByEmployeeFirstName: queries=1, ")));
     }
 }
@@ -0,0 +1,9 @@
+package io.github.bartoszpop.jpa.specification.example;
+
+/**
+ * This is a closed projection of {@link Department}, so only the name is selected.
+ */
+public interface DepartmentName {
+
+    String getName();
+}
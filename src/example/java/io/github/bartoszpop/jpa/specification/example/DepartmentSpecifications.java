@@ -1,6 +1,10 @@
 package io.github.bartoszpop.jpa.specification.example;
 
 import io.github.bartoszpop.jpa.specification.CompositeSpecification;
+import io.github.bartoszpop.jpa.specification.ExpressionSpecifications;
+import io.github.bartoszpop.jpa.specification.FromSpecifications;
+import io.github.bartoszpop.jpa.specification.JoinRegistry;
+import io.github.bartoszpop.jpa.specification.PathSpecifications;
 import io.github.bartoszpop.jpa.specification.TypeSafePredicateBuilder;
 
 import javax.persistence.criteria.From;
@@ -15,29 +19,25 @@ public final class DepartmentSpecifications {
     private DepartmentSpecifications() {
     }
 
+    /**
+     * The attribute is composed with {@link PathSpecifications#get}, so {@link io.github.bartoszpop.jpa.specification.SpecificationResultCache}
+     * drops the cached results of this specification only if a changed department has the name.
+     */
     public static <S extends Path<Department>> CompositeSpecification<Department, S> name(String name) {
-        return CompositeSpecification.<Department, S, TypeSafePredicateBuilder<Path<Department>>>of(
-                (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("name"), name)
-        );
+        return PathSpecifications.get(Department_.name, ExpressionSpecifications.equal(name));
     }
 
     public static <S extends From<?, Department>> CompositeSpecification<Department, S> fetchEmployees() {
         return fetchEmployees(noOp());
     }
 
+    /**
+     * The fetch join is composed with {@link FromSpecifications#fetch}, so {@link io.github.bartoszpop.jpa.specification.CompositeSpecificationExecutor} may paginate it.
+     * <br>
+     * It makes the query distinct, since the employees are a collection. A count query joins the employees only if the specification restricts them.
+     */
     public static <S extends From<?, Department>> CompositeSpecification<Department, S> fetchEmployees(CompositeSpecification<?, ? super Join<?, Employee>> employeeSpecification) {
-        return CompositeSpecification.<Department, S, TypeSafePredicateBuilder<From<?, Department>>>of(
-                (root, query, criteriaBuilder) -> {
-                    /*
-                    This is to return distinct Department instances. If two employees are in the same department, this query will return two instances of the same Department.
-                    See https://vladmihalcea.com/eager-fetching-is-a-code-smell for details.
-                     */
-                    query.distinct(true);
-
-                    // Cast allowed because Hibernate and EclipseLink return an instance of Join as per https://thorben-janssen.com/hibernate-tip-left-join-fetch-join-criteriaquery
-                    //noinspection unchecked
-                    return employeeSpecification.asBuilder().toPredicate((Join<Department, Employee>) root.<Department, Employee>fetch("employees", JoinType.LEFT), query, criteriaBuilder);
-                });
+        return FromSpecifications.fetch(Department_.employees, JoinType.LEFT, employeeSpecification);
     }
 
     public static <S extends From<?, Department>> CompositeSpecification<Department, S> joinEmployees(CompositeSpecification<?, ? super Join<?, Employee>> employeeSpecification) {
@@ -49,7 +49,19 @@ public final class DepartmentSpecifications {
                      */
                     query.distinct(true);
 
-                    return employeeSpecification.asBuilder().toPredicate(root.<Department, Employee>join("employees", JoinType.LEFT), query, criteriaBuilder);
+                    // This is to join the employees once if the specification is combined with another one joining the employees
+                    return employeeSpecification.asBuilder().toPredicate(JoinRegistry.join(root, Department_.employees, JoinType.LEFT), query, criteriaBuilder);
                 });
     }
+
+    /**
+     * Unlike {@link DepartmentSpecifications#joinEmployees}, this specification neither multiplies the rows nor requires distinct Department instances.
+     */
+    public static <S extends From<?, Department>> CompositeSpecification<Department, S> anyEmployee(CompositeSpecification<?, ? super Join<?, Employee>> employeeSpecification) {
+        return FromSpecifications.anyMatch(Department_.employees, employeeSpecification);
+    }
+
+    public static <S extends From<?, Department>> CompositeSpecification<Department, S> noEmployee(CompositeSpecification<?, ? super Join<?, Employee>> employeeSpecification) {
+        return FromSpecifications.noneMatch(Department_.employees, employeeSpecification);
+    }
 }
@@ -0,0 +1,19 @@
+package io.github.bartoszpop.jpa.specification.example;
+
+import javax.persistence.metamodel.ListAttribute;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.StaticMetamodel;
+
+/**
+ * This is the static metamodel of {@link Department}, as generated by an annotation processor, e.g. hibernate-jpamodelgen.
+ * The JPA provider sets the attributes on bootstrap.
+ */
+@StaticMetamodel(Department.class)
+public abstract class Department_ {
+
+    public static volatile SingularAttribute<Department, Long> id;
+
+    public static volatile SingularAttribute<Department, String> name;
+
+    public static volatile ListAttribute<Department, Employee> employees;
+}
@@ -0,0 +1,39 @@
+package io.github.bartoszpop.jpa.specification.example;
+
+import java.util.Objects;
+
+/**
+ * This class is instantiated with the selected properties. The parameters of the constructor are named as the properties of {@link Employee}.
+ */
+public final class EmployeeName {
+
+    private final String firstName;
+
+    private final String secondName;
+
+    public EmployeeName(String firstName, String secondName) {
+        this.firstName = firstName;
+        this.secondName = secondName;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getSecondName() {
+        return secondName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EmployeeName)) return false;
+        EmployeeName that = (EmployeeName) o;
+        return Objects.equals(firstName, that.firstName) && Objects.equals(secondName, that.secondName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(firstName, secondName);
+    }
+}
@@ -2,26 +2,35 @@ package io.github.bartoszpop.jpa.specification.example;
 
 import io.github.bartoszpop.jpa.specification.CompositeSpecification;
 import io.github.bartoszpop.jpa.specification.ExpressionSpecifications;
+import io.github.bartoszpop.jpa.specification.InStrategy;
+import io.github.bartoszpop.jpa.specification.PathSpecifications;
 import io.github.bartoszpop.jpa.specification.TypeSafePredicateBuilder;
 
 import javax.persistence.criteria.Path;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
 public final class EmployeeSpecifications {
 
     private EmployeeSpecifications() {
     }
 
+    /**
+     * The attribute is composed with {@link PathSpecifications#get}, so {@link io.github.bartoszpop.jpa.specification.CompositeSpecificationExecutor} may cache the query.
+     * <br>
+     * It is the attribute of the static metamodel, so it is not looked up by the name.
+     */
     public static <S extends Path<Employee>> CompositeSpecification<Employee, S> firstName(String firstName) {
-        return CompositeSpecification.<Employee, S, TypeSafePredicateBuilder<Path<Employee>>>of(
-                (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("firstName"), firstName)
-        );
+        return PathSpecifications.get(Employee_.firstName, ExpressionSpecifications.equal(firstName));
     }
 
     public static <S extends Path<Employee>> CompositeSpecification<Employee, S> secondName(String secondName) {
-        return CompositeSpecification.<Employee, S, TypeSafePredicateBuilder<Path<Employee>>>of(
-                (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("secondName"), secondName)
-        );
+        return PathSpecifications.get(Employee_.secondName, ExpressionSpecifications.equal(secondName));
+    }
+
+    public static <S extends Path<Employee>> CompositeSpecification<Employee, S> firstNameIn(Collection<String> firstNames, InStrategy strategy) {
+        return PathSpecifications.get(Employee_.firstName, ExpressionSpecifications.in(firstNames, strategy));
     }
 
     public static <S extends Path<Employee>> CompositeSpecification<Employee, S> dateOfBirth(LocalDate dateOfBirth) {
@@ -29,8 +38,19 @@ public final class EmployeeSpecifications {
     }
 
     public static <S extends Path<Employee>> CompositeSpecification<Employee, S> dateOfBirth(CompositeSpecification<?, ? super Path<LocalDate>> dateOfBirthSpecification) {
-        return CompositeSpecification.<Employee, S, TypeSafePredicateBuilder<Path<Employee>>>of(
-                (root, query, criteriaBuilder) -> dateOfBirthSpecification.asBuilder().toPredicate(root.get("dateOfBirth"), query, criteriaBuilder)
+        return PathSpecifications.get(Employee_.dateOfBirth, dateOfBirthSpecification);
+    }
+
+    /**
+     * JPA has no function of the year of a date, so the predicate is built with the function of the database, which the tree of a specification cannot express.
+     * <br>
+     * The specification is named, so it is equal to another one of the same year and {@link io.github.bartoszpop.jpa.specification.SpecificationCodec} may decode it,
+     * <br>
+     * see {@link CompositeSpecification#getCanonicalKey()}.
+     */
+    public static <S extends Path<Employee>> CompositeSpecification<Employee, S> bornIn(int year) {
+        return CompositeSpecification.<Employee, S, TypeSafePredicateBuilder<Path<Employee>>>of("EmployeeSpecifications.bornIn", List.of(year),
+                (root, query, criteriaBuilder) -> criteriaBuilder.equal(criteriaBuilder.function("year", Integer.class, root.get(Employee_.dateOfBirth)), year)
         );
     }
 }
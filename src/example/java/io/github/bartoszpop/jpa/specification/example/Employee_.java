@@ -0,0 +1,23 @@
+package io.github.bartoszpop.jpa.specification.example;
+
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.StaticMetamodel;
+import java.time.LocalDate;
+
+/**
+ * This is the static metamodel of {@link Employee}, as generated by an annotation processor, e.g. hibernate-jpamodelgen.
+ * The JPA provider sets the attributes on bootstrap.
+ */
+@StaticMetamodel(Employee.class)
+public abstract class Employee_ {
+
+    public static volatile SingularAttribute<Employee, Long> id;
+
+    public static volatile SingularAttribute<Employee, Department> department;
+
+    public static volatile SingularAttribute<Employee, String> firstName;
+
+    public static volatile SingularAttribute<Employee, String> secondName;
+
+    public static volatile SingularAttribute<Employee, LocalDate> dateOfBirth;
+}
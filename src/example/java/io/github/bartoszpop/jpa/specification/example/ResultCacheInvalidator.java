@@ -0,0 +1,84 @@
+package io.github.bartoszpop.jpa.specification.example;
+
+import io.github.bartoszpop.jpa.specification.SpecificationResultCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * This class invalidates {@link SpecificationResultCache} once an entity is persisted, updated or removed and the transaction is committed.
+ * <p>
+ * An updated entity is passed in the previous state as well, so the results it belonged to before the update are dropped too.
+ * <br>
+ * The previous state is a transient instance the persister populates with the old values, or the whole class is invalidated if Hibernate does not know them.
+ */
+public final class ResultCacheInvalidator implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final SpecificationResultCache resultCache;
+
+    private ResultCacheInvalidator(SpecificationResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    public static void register(EntityManagerFactory entityManagerFactory, SpecificationResultCache resultCache) {
+        var invalidator = new ResultCacheInvalidator(resultCache);
+        var listenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry().getService(EventListenerRegistry.class);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT, invalidator);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, invalidator);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, invalidator);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        resultCache.invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getOldState() == null) {
+            resultCache.invalidate(event.getPersister().getMappedClass());
+            return;
+        }
+        var previousEntity = event.getPersister().instantiate(event.getId(), event.getSession());
+        event.getPersister().setPropertyValues(previousEntity, event.getOldState());
+        resultCache.invalidate(previousEntity);
+        resultCache.invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        resultCache.invalidate(event.getEntity());
+    }
+
+    /**
+     * The results are invalidated even if the transaction is rolled back, since the cache may have loaded the changes in the meantime.
+     */
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        onPostInsert(event);
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        onPostUpdate(event);
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        onPostDelete(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.bartoszpop.jpa.specification.example;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * This entity maps the table {@link TemporaryTableFallback} inserts the names into, so a query may select them in a subquery.
+ * <br>
+ * The names of a selection are keyed by its identifier, so the selections of the same query or of concurrent queries do not overwrite each other.
+ */
+@Entity
+@IdClass(SelectedName.Key.class)
+public class SelectedName {
+
+    @Id
+    private String selectionId;
+
+    @Id
+    private String name;
+
+    protected SelectedName() {
+    }
+
+    public static class Key implements Serializable {
+
+        private String selectionId;
+
+        private String name;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return Objects.equals(selectionId, that.selectionId) && Objects.equals(name, that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(selectionId, name);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.bartoszpop.jpa.specification.example;
+
+import io.github.bartoszpop.jpa.specification.InStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * This fallback inserts the names into the table of {@link SelectedName} in batches under the identifier of a new selection
+ * <br>
+ * and selects the names of the selection in a subquery, so the statement has no bind parameter per name.
+ * <p>
+ * The names are inserted in the transaction of the caller, so they are visible to its query only, and deleted before it commits.
+ * <br>
+ * The same names are inserted once per transaction, e.g. for both the count query and the content query of a page.
+ */
+public final class TemporaryTableFallback implements InStrategy.Fallback {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TemporaryTableFallback(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @throws IllegalStateException if there is no transaction, since the names would be committed and never deleted
+     */
+    @Override
+    public Predicate toPredicate(Expression<?> target, Collection<?> values, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        var selectionId = selectionIds().computeIfAbsent(new LinkedHashSet<>(values), this::insert);
+        var subquery = query.subquery(String.class);
+        var selectedName = subquery.from(SelectedName.class);
+        subquery.select(selectedName.get("name")).where(criteriaBuilder.equal(selectedName.get("selectionId"), selectionId));
+        return target.in(subquery);
+    }
+
+    /**
+     * Returns the identifiers of the selections inserted in the current transaction by their names.
+     */
+    private Map<Set<?>, String> selectionIds() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("The names must be selected in a transaction.");
+        }
+        // Cast allowed because only this fallback binds the resource to itself
+        //noinspection unchecked
+        var selectionIds = (Map<Set<?>, String>) TransactionSynchronizationManager.getResource(this);
+        if (selectionIds == null) {
+            var newSelectionIds = new HashMap<Set<?>, String>();
+            TransactionSynchronizationManager.bindResource(this, newSelectionIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    newSelectionIds.values().forEach(selectionId -> jdbcTemplate.update("delete from selected_name where selection_id = ?", selectionId));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(TemporaryTableFallback.this);
+                }
+            });
+            return newSelectionIds;
+        }
+        return selectionIds;
+    }
+
+    private String insert(Set<?> values) {
+        var selectionId = UUID.randomUUID().toString();
+        jdbcTemplate.batchUpdate("insert into selected_name (selection_id, name) values (?, ?)", values, BATCH_SIZE, (statement, value) -> {
+            statement.setString(1, selectionId);
+            statement.setString(2, (String) value);
+        });
+        return selectionId;
+    }
+}
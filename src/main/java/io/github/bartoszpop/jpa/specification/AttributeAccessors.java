@@ -0,0 +1,110 @@
+package io.github.bartoszpop.jpa.specification;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * This class resolves the accessor of an attribute of a class once and caches it per class, so an attribute is read without reflective lookup.
+ * <p>
+ * The public getter of the attribute, i.e. {@code getFirstName()} or {@code isActive()}, takes precedence over the field of the same name,
+ * <br>
+ * since the getter of a lazy proxy initializes it, whereas the field of a proxy is never set.
+ *
+ * @author Bartosz Popiela
+ */
+final class AttributeAccessors {
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<Map<String, Function<Object, Object>>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<String, Function<Object, Object>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private AttributeAccessors() {
+    }
+
+    /**
+     * Returns the accessor of the attribute of the type.
+     *
+     * @throws IllegalArgumentException if the type has neither a getter nor a field of the attribute
+     */
+    static Function<Object, Object> of(Class<?> type, String attribute) {
+        return ACCESSORS.get(type).computeIfAbsent(attribute, ignored -> resolve(type, attribute));
+    }
+
+    /**
+     * Returns whether the attribute of the type is read with its getter, e.g. to read a lazy proxy.
+     */
+    static boolean hasGetter(Class<?> type, String attribute) {
+        return findGetter(type, attribute) != null;
+    }
+
+    private static Function<Object, Object> resolve(Class<?> type, String attribute) {
+        var lookup = MethodHandles.lookup();
+        try {
+            var getter = findGetter(type, attribute);
+            if (getter != null) {
+                // The getter of a non-public class is not accessible otherwise
+                getter.trySetAccessible();
+                return toFunction(lookup.unreflect(getter));
+            }
+            var field = findField(type, attribute);
+            if (field != null) {
+                field.setAccessible(true);
+                return toFunction(lookup.unreflectGetter(field));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("The attribute " + attribute + " of " + type.getName() + " is not accessible.", e);
+        }
+        throw new IllegalArgumentException("The attribute " + attribute + " of " + type.getName() + " is not found.");
+    }
+
+    private static Method findGetter(Class<?> type, String attribute) {
+        var suffix = Character.toUpperCase(attribute.charAt(0)) + attribute.substring(1);
+        for (var prefix : new String[]{"get", "is"}) {
+            try {
+                var method = type.getMethod(prefix + suffix);
+                if (method.getReturnType() != void.class && !Modifier.isStatic(method.getModifiers())) {
+                    return method;
+                }
+            } catch (NoSuchMethodException e) {
+                // The getter has the other prefix or does not exist
+            }
+        }
+        return null;
+    }
+
+    private static Field findField(Class<?> type, String attribute) {
+        for (var declaringType = type; declaringType != null; declaringType = declaringType.getSuperclass()) {
+            for (var field : declaringType.getDeclaredFields()) {
+                if (field.getName().equals(attribute) && !Modifier.isStatic(field.getModifiers())) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Function<Object, Object> toFunction(MethodHandle handle) {
+        var accessor = handle.asType(ACCESSOR_TYPE);
+        return target -> {
+            try {
+                return accessor.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,257 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.JoinType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static io.github.bartoszpop.jpa.specification.SpecificationFormat.*;
+
+/**
+ * This class reads the tree of {@link SpecificationNode} in the binary format of {@link SpecificationFormat}.
+ * <p>
+ * It reads the bytes in place, so a node allocates its fields only, and a string referenced again is the same instance.
+ * <br>
+ * An instance is not thread-safe, since it holds the position and the strings read so far.
+ *
+ * @author Bartosz Popiela
+ */
+final class BinarySpecificationReader {
+
+    private static final String MALFORMED = "The specification is truncated or malformed.";
+
+    private static final JoinType[] JOIN_TYPES = JoinType.values();
+
+    private static final SpecificationNode.Comparison.Operator[] OPERATORS = SpecificationNode.Comparison.Operator.values();
+
+    private final SpecificationRegistry registry;
+
+    private final byte[] bytes;
+
+    private final List<String> strings = new ArrayList<>();
+
+    private int position;
+
+    private int depth;
+
+    BinarySpecificationReader(SpecificationRegistry registry, byte[] bytes) {
+        this.registry = registry;
+        this.bytes = bytes;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a specification of a supported version, they are truncated or malformed,
+     *                                  or the nodes are nested deeper than {@link SpecificationFormat#MAX_DEPTH}
+     */
+    SpecificationNode read() {
+        try {
+            if (readByte() != MAGIC) {
+                throw new IllegalArgumentException("The bytes are not an encoded specification.");
+            }
+            var version = readByte();
+            if (version < 1 || version > VERSION) {
+                throw new IllegalArgumentException("The version " + version + " is not supported.");
+            }
+            var node = readNode();
+            if (position != bytes.length) {
+                throw new IllegalArgumentException("The specification is followed by " + (bytes.length - position) + " bytes.");
+            }
+            return node;
+        } catch (IndexOutOfBoundsException | ArithmeticException | DateTimeException e) {
+            throw new IllegalArgumentException(MALFORMED, e);
+        }
+    }
+
+    private SpecificationNode readNode() {
+        enter();
+        var node = readTaggedNode();
+        depth--;
+        return node;
+    }
+
+    private SpecificationNode readTaggedNode() {
+        var tag = readByte();
+        switch (tag) {
+            case NO_OP:
+                return SpecificationNode.NoOp.INSTANCE;
+            case AND:
+                return new SpecificationNode.And(readOperands());
+            case OR:
+                return new SpecificationNode.Or(readOperands());
+            case NOT:
+                return new SpecificationNode.Not(readNode());
+            case GET:
+                return new SpecificationNode.Get(readString(), readNode());
+            case JOIN:
+                return new SpecificationNode.Join(readString(), JOIN_TYPES[readByte()], readNode());
+            case FETCH:
+                return new SpecificationNode.Fetch(readString(), JOIN_TYPES[readByte()], readNode());
+            case EXISTS:
+                return new SpecificationNode.Exists(readString(), readNode());
+            case COMPARISON:
+                return new SpecificationNode.Comparison(OPERATORS[readByte()], readValue());
+            case IN:
+                var strategy = readStrategy();
+                return new SpecificationNode.In(readValues(), strategy);
+            case LEAF:
+                return registry.create(readString(), readValues());
+            default:
+                throw new IllegalArgumentException("The node tag " + tag + " is not supported.");
+        }
+    }
+
+    private InStrategy readStrategy() {
+        var flags = readUnsigned();
+        var strategy = InStrategy.direct();
+        if ((flags & PADDED) != 0) {
+            strategy = strategy.padToPowerOfTwo();
+        }
+        if ((flags & CHUNKED) != 0) {
+            strategy = strategy.chunkSize(readUnsigned());
+        }
+        if ((flags & FALLBACK) != 0) {
+            var threshold = readUnsigned();
+            strategy = strategy.fallbackAbove(threshold, registry.getFallback(readString()));
+        }
+        return strategy;
+    }
+
+    private List<SpecificationNode> readOperands() {
+        var operands = new SpecificationNode[readCount()];
+        for (var i = 0; i < operands.length; i++) {
+            operands[i] = readNode();
+        }
+        return Arrays.asList(operands);
+    }
+
+    /**
+     * Returns a mutable list, since the values may be null.
+     */
+    private List<Object> readValues() {
+        var count = readCount();
+        var values = new ArrayList<>(count);
+        for (var i = 0; i < count; i++) {
+            values.add(readValue());
+        }
+        return values;
+    }
+
+    private Object readValue() {
+        var tag = readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case FALSE:
+                return Boolean.FALSE;
+            case TRUE:
+                return Boolean.TRUE;
+            case INTEGER:
+                return (int) readSigned();
+            case LONG:
+                return readSigned();
+            case DOUBLE:
+                return Double.longBitsToDouble(readFixed());
+            case STRING:
+                return readString();
+            case BIG_DECIMAL:
+                var scale = (int) readSigned();
+                var length = readCount();
+                position += length;
+                return new BigDecimal(new BigInteger(bytes, position - length, length), scale);
+            case LOCAL_DATE:
+                return LocalDate.ofEpochDay(readSigned());
+            case LOCAL_DATE_TIME:
+                return LocalDateTime.of(LocalDate.ofEpochDay(readSigned()), LocalTime.ofNanoOfDay(readSigned()));
+            case INSTANT:
+                return Instant.ofEpochSecond(readSigned(), readSigned());
+            case SpecificationFormat.UUID:
+                return new UUID(readFixed(), readFixed());
+            case LIST:
+                enter();
+                var list = readValues();
+                depth--;
+                return list;
+            case SPECIFICATION:
+                return CompositeSpecification.fromNode(readNode());
+            default:
+                throw new IllegalArgumentException("The value tag " + tag + " is not supported.");
+        }
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("The specification is nested deeper than " + MAX_DEPTH + " levels.");
+        }
+    }
+
+    private String readString() {
+        var header = readUnsigned();
+        if ((header & 1) != 0) {
+            return strings.get(header >>> 1);
+        }
+        var length = header >>> 1;
+        if (length > bytes.length - position) {
+            throw new IllegalArgumentException(MALFORMED);
+        }
+        var string = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        strings.add(string);
+        return string;
+    }
+
+    /**
+     * Reads the number of the elements, or the bytes, that follow. Each element takes a byte at least, so a count of more than the remaining bytes is malformed,
+     * <br>
+     * and it is rejected before an array of the count is allocated.
+     */
+    private int readCount() {
+        var count = readUnsigned();
+        if (count < 0 || count > bytes.length - position) {
+            throw new IllegalArgumentException(MALFORMED);
+        }
+        return count;
+    }
+
+    private long readSigned() {
+        var zigzag = 0L;
+        for (var shift = 0; ; shift += 7) {
+            var value = readByte();
+            zigzag |= (long) (value & 0x7F) << shift;
+            if (value >= 0) {
+                return zigzag >>> 1 ^ -(zigzag & 1);
+            }
+        }
+    }
+
+    private int readUnsigned() {
+        var result = 0;
+        for (var shift = 0; ; shift += 7) {
+            var value = readByte();
+            result |= (value & 0x7F) << shift;
+            if (value >= 0) {
+                return result;
+            }
+        }
+    }
+
+    private long readFixed() {
+        var result = 0L;
+        for (var i = 0; i < 8; i++) {
+            result = result << 8 | readByte() & 0xFF;
+        }
+        return result;
+    }
+
+    private byte readByte() {
+        return bytes[position++];
+    }
+}
@@ -0,0 +1,264 @@
+package io.github.bartoszpop.jpa.specification;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.github.bartoszpop.jpa.specification.SpecificationFormat.*;
+
+/**
+ * This class writes the tree of {@link SpecificationNode} in the binary format of {@link SpecificationFormat}.
+ * <p>
+ * An instance is not thread-safe, since it holds the buffer and the indices of the strings written so far.
+ *
+ * @author Bartosz Popiela
+ */
+final class BinarySpecificationWriter implements SpecificationVisitor<Void> {
+
+    private final SpecificationRegistry registry;
+
+    private final Map<String, Integer> stringIndices = new HashMap<>();
+
+    private byte[] buffer = new byte[64];
+
+    private int size;
+
+    BinarySpecificationWriter(SpecificationRegistry registry) {
+        this.registry = registry;
+    }
+
+    byte[] write(SpecificationNode node) {
+        writeByte(MAGIC);
+        writeByte(VERSION);
+        node.accept(this);
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the leaf has no name
+     */
+    @Override
+    public Void visitLeaf(SpecificationNode.Leaf leaf) {
+        if (leaf.getName() == null) {
+            throw new IllegalArgumentException("The specification of " + leaf.getPredicateBuilder() + " has no name, so it cannot be encoded.");
+        }
+        writeByte(LEAF);
+        writeString(leaf.getName());
+        writeValues(leaf.getArguments());
+        return null;
+    }
+
+    @Override
+    public Void visitNoOp(SpecificationNode.NoOp noOp) {
+        writeByte(NO_OP);
+        return null;
+    }
+
+    @Override
+    public Void visitAnd(SpecificationNode.And and) {
+        writeByte(AND);
+        writeOperands(and.getOperands());
+        return null;
+    }
+
+    @Override
+    public Void visitOr(SpecificationNode.Or or) {
+        writeByte(OR);
+        writeOperands(or.getOperands());
+        return null;
+    }
+
+    @Override
+    public Void visitNot(SpecificationNode.Not not) {
+        writeByte(NOT);
+        return not.getOperand().accept(this);
+    }
+
+    @Override
+    public Void visitGet(SpecificationNode.Get get) {
+        writeByte(GET);
+        writeString(get.getAttribute());
+        return get.getOperand().accept(this);
+    }
+
+    @Override
+    public Void visitJoin(SpecificationNode.Join join) {
+        writeByte(JOIN);
+        writeString(join.getAttribute());
+        writeByte((byte) join.getJoinType().ordinal());
+        return join.getOperand().accept(this);
+    }
+
+    @Override
+    public Void visitFetch(SpecificationNode.Fetch fetch) {
+        writeByte(FETCH);
+        writeString(fetch.getAttribute());
+        writeByte((byte) fetch.getJoinType().ordinal());
+        return fetch.getOperand().accept(this);
+    }
+
+    @Override
+    public Void visitExists(SpecificationNode.Exists exists) {
+        writeByte(EXISTS);
+        writeString(exists.getAttribute());
+        return exists.getOperand().accept(this);
+    }
+
+    @Override
+    public Void visitComparison(SpecificationNode.Comparison comparison) {
+        writeByte(COMPARISON);
+        writeByte((byte) comparison.getOperator().ordinal());
+        writeValue(comparison.getValue());
+        return null;
+    }
+
+    /**
+     * Writes the flags of the strategy followed by the chunk size, the threshold and the name of the fallback if they are set.
+     */
+    @Override
+    public Void visitIn(SpecificationNode.In in) {
+        writeByte(IN);
+        var strategy = in.getStrategy();
+        var chunked = strategy.getChunkSize() != Integer.MAX_VALUE;
+        var fallback = strategy.getFallback();
+        writeUnsigned((strategy.isPadded() ? PADDED : 0) | (chunked ? CHUNKED : 0) | (fallback != null ? FALLBACK : 0));
+        if (chunked) {
+            writeUnsigned(strategy.getChunkSize());
+        }
+        if (fallback != null) {
+            writeUnsigned(strategy.getFallbackThreshold());
+            writeString(registry.getFallbackName(fallback));
+        }
+        writeValues(in.getValues());
+        return null;
+    }
+
+    private void writeOperands(List<SpecificationNode> operands) {
+        writeUnsigned(operands.size());
+        for (var operand : operands) {
+            operand.accept(this);
+        }
+    }
+
+    private void writeValues(Collection<?> values) {
+        writeUnsigned(values.size());
+        for (var value : values) {
+            writeValue(value);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the type of the value is not supported
+     */
+    private void writeValue(Object value) {
+        if (value == null) {
+            writeByte(NULL);
+        } else if (value instanceof Boolean) {
+            writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer) {
+            writeByte(INTEGER);
+            writeSigned((Integer) value);
+        } else if (value instanceof Long) {
+            writeByte(LONG);
+            writeSigned((Long) value);
+        } else if (value instanceof Double) {
+            writeByte(DOUBLE);
+            writeFixed(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof String) {
+            writeByte(STRING);
+            writeString((String) value);
+        } else if (value instanceof BigDecimal) {
+            writeByte(BIG_DECIMAL);
+            var unscaledValue = ((BigDecimal) value).unscaledValue().toByteArray();
+            writeSigned(((BigDecimal) value).scale());
+            writeUnsigned(unscaledValue.length);
+            writeBytes(unscaledValue);
+        } else if (value instanceof LocalDate) {
+            writeByte(LOCAL_DATE);
+            writeSigned(((LocalDate) value).toEpochDay());
+        } else if (value instanceof LocalDateTime) {
+            writeByte(LOCAL_DATE_TIME);
+            writeSigned(((LocalDateTime) value).toLocalDate().toEpochDay());
+            writeSigned(((LocalDateTime) value).toLocalTime().toNanoOfDay());
+        } else if (value instanceof Instant) {
+            writeByte(INSTANT);
+            writeSigned(((Instant) value).getEpochSecond());
+            writeSigned(((Instant) value).getNano());
+        } else if (value instanceof UUID) {
+            writeByte(SpecificationFormat.UUID);
+            writeFixed(((UUID) value).getMostSignificantBits());
+            writeFixed(((UUID) value).getLeastSignificantBits());
+        } else if (value instanceof Collection) {
+            writeByte(LIST);
+            writeValues((Collection<?>) value);
+        } else if (value instanceof CompositeSpecification) {
+            writeByte(SPECIFICATION);
+            ((CompositeSpecification<?, ?>) value).getSimplifiedNode().accept(this);
+        } else {
+            throw new IllegalArgumentException("The value of " + value.getClass().getName() + " cannot be encoded.");
+        }
+    }
+
+    /**
+     * Writes the index of the string shifted left with the lowest bit set if it is already written, otherwise its length shifted left and the bytes of UTF-8.
+     */
+    private void writeString(String string) {
+        var index = stringIndices.get(string);
+        if (index != null) {
+            writeUnsigned(index << 1 | 1);
+            return;
+        }
+        stringIndices.put(string, stringIndices.size());
+        var bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeUnsigned(bytes.length << 1);
+        writeBytes(bytes);
+    }
+
+    private void writeSigned(long value) {
+        var zigzag = value << 1 ^ value >> 63;
+        while ((zigzag & ~0x7FL) != 0) {
+            writeByte((byte) (zigzag & 0x7F | 0x80));
+            zigzag >>>= 7;
+        }
+        writeByte((byte) zigzag);
+    }
+
+    private void writeUnsigned(int value) {
+        while ((value & ~0x7F) != 0) {
+            writeByte((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        writeByte((byte) value);
+    }
+
+    private void writeFixed(long value) {
+        for (var shift = 56; shift >= 0; shift -= 8) {
+            writeByte((byte) (value >>> shift));
+        }
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    private void writeByte(byte value) {
+        ensureCapacity(1);
+        buffer[size++] = value;
+    }
+
+    private void ensureCapacity(int length) {
+        if (size + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, size + length));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * This class decorates {@link JpaSpecificationExecutor}, e.g. a repository, with {@link SpecificationResultCache}, so the results of the same specifications
+ * <br>
+ * are queried once until they are evicted or invalidated, e.g.
+ * <pre>{@code
+ * var departments = new CachingSpecificationExecutor<>(Department.class, departmentRepository, resultCache);
+ * var salesDepartment = departments.findOne(name("Sales"));
+ * }</pre>
+ * A specification is cached if it is {@link CompositeSpecification} and has {@link CompositeSpecification#getCanonicalKey()}, otherwise it is passed to the delegate.
+ * <p>
+ * The cached entities are shared by the callers and detached, thus they must not be modified nor their lazy associations read.
+ * <br>
+ * The cache must be invalidated whenever an entity is persisted, updated or removed, e.g. by the listeners of the JPA provider.
+ *
+ * @param <T> the type of the entity
+ * @author Bartosz Popiela
+ */
+public class CachingSpecificationExecutor<T> implements JpaSpecificationExecutor<T> {
+
+    private final Class<T> domainClass;
+
+    private final JpaSpecificationExecutor<T> delegate;
+
+    private final SpecificationResultCache cache;
+
+    public CachingSpecificationExecutor(Class<T> domainClass, JpaSpecificationExecutor<T> delegate, SpecificationResultCache cache) {
+        this.domainClass = domainClass;
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Optional<T> findOne(Specification<T> specification) {
+        return cached("findOne", specification, "", () -> delegate.findOne(specification));
+    }
+
+    @Override
+    public List<T> findAll(Specification<T> specification) {
+        return cached("findAll", specification, "", () -> Collections.unmodifiableList(delegate.findAll(specification)));
+    }
+
+    @Override
+    public Page<T> findAll(Specification<T> specification, Pageable pageable) {
+        var arguments = pageable.isPaged() ? pageable.getOffset() + "," + pageable.getPageSize() + "," + pageable.getSort() : "unpaged";
+        return cached("findPage", specification, arguments, () -> delegate.findAll(specification, pageable));
+    }
+
+    @Override
+    public List<T> findAll(Specification<T> specification, Sort sort) {
+        return cached("findAll", specification, sort.toString(), () -> Collections.unmodifiableList(delegate.findAll(specification, sort)));
+    }
+
+    @Override
+    public long count(Specification<T> specification) {
+        return cached("count", specification, "", () -> delegate.count(specification));
+    }
+
+    private <R> R cached(String name, Specification<T> specification, String arguments, Supplier<R> loader) {
+        if (specification instanceof CompositeSpecification) {
+            var compositeSpecification = (CompositeSpecification<?, ?>) specification;
+            var canonicalKey = compositeSpecification.getCanonicalKey();
+            if (canonicalKey != null) {
+                var key = domainClass.getName() + '#' + name + '[' + arguments + ']' + canonicalKey;
+                return cache.get(key, domainClass, compositeSpecification, loader);
+            }
+        }
+        return loader.get();
+    }
+}
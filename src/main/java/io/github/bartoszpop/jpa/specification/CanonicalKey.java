@@ -0,0 +1,169 @@
+package io.github.bartoszpop.jpa.specification;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * This class renders the canonical key of the tree of {@link SpecificationNode}, i.e. the string equal for the trees that differ
+ * <br>
+ * in the order of the operands of {@link SpecificationNode.And} and {@link SpecificationNode.Or} only, since the order does not change the result.
+ * <p>
+ * A value is rendered along with the name of its class and quoted, so the values of different types or containing the delimiters have different keys.
+ * <br>
+ * Only the values of the types whose {@link Object#toString()} determines {@link Object#equals(Object)} are rendered, i.e. strings, characters, booleans, numbers,
+ * <br>
+ * the types of {@code java.time}, {@link UUID}, enums and the collections of them, since the values equal by the key must be equal by the specification.
+ * <br>
+ * An argument of {@link SpecificationNode.Leaf} that is {@link CompositeSpecification} itself is rendered as its canonical key.
+ * <br>
+ * The key is null if the tree has {@link SpecificationNode.Leaf} without a name, since {@link PredicateBuilder} is opaque, or a value of any other type.
+ *
+ * @author Bartosz Popiela
+ */
+final class CanonicalKey implements SpecificationVisitor<String> {
+
+    static final CanonicalKey INSTANCE = new CanonicalKey();
+
+    private static final Set<Class<?>> VALUE_TYPES = Set.of(String.class, Character.class, Boolean.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigInteger.class, BigDecimal.class, LocalDate.class, LocalTime.class, LocalDateTime.class, OffsetTime.class,
+            OffsetDateTime.class, ZonedDateTime.class, Instant.class, Year.class, YearMonth.class, MonthDay.class, Duration.class, Period.class, UUID.class);
+
+    private CanonicalKey() {
+    }
+
+    @Override
+    public String visitLeaf(SpecificationNode.Leaf leaf) {
+        if (leaf.getName() == null) {
+            return null;
+        }
+        var argumentsKey = value(leaf.getArguments());
+        return argumentsKey != null ? "leaf(" + quote(leaf.getName()) + ',' + argumentsKey + ')' : null;
+    }
+
+    @Override
+    public String visitNoOp(SpecificationNode.NoOp noOp) {
+        return "noOp";
+    }
+
+    @Override
+    public String visitAnd(SpecificationNode.And and) {
+        return junction("and", and.getOperands());
+    }
+
+    @Override
+    public String visitOr(SpecificationNode.Or or) {
+        return junction("or", or.getOperands());
+    }
+
+    @Override
+    public String visitNot(SpecificationNode.Not not) {
+        return unary("not(", not.getOperand());
+    }
+
+    @Override
+    public String visitGet(SpecificationNode.Get get) {
+        return unary("get(" + get.getAttribute() + ',', get.getOperand());
+    }
+
+    @Override
+    public String visitJoin(SpecificationNode.Join join) {
+        return unary("join(" + join.getAttribute() + ',' + join.getJoinType() + ',', join.getOperand());
+    }
+
+    @Override
+    public String visitFetch(SpecificationNode.Fetch fetch) {
+        return unary("fetch(" + fetch.getAttribute() + ',' + fetch.getJoinType() + ',', fetch.getOperand());
+    }
+
+    @Override
+    public String visitExists(SpecificationNode.Exists exists) {
+        return unary("exists(" + exists.getAttribute() + ',', exists.getOperand());
+    }
+
+    @Override
+    public String visitComparison(SpecificationNode.Comparison comparison) {
+        var valueKey = value(comparison.getValue());
+        return valueKey != null ? comparison.getOperator().name() + '(' + valueKey + ')' : null;
+    }
+
+    /**
+     * The strategy is not a part of the key, since it does not change the result unless the fallback does.
+     */
+    @Override
+    public String visitIn(SpecificationNode.In in) {
+        var valuesKey = value(in.getValues());
+        return valuesKey != null ? "IN(" + valuesKey + ')' : null;
+    }
+
+    private String unary(String prefix, SpecificationNode operand) {
+        var operandKey = operand.accept(this);
+        return operandKey != null ? prefix + operandKey + ')' : null;
+    }
+
+    /**
+     * Sorts the keys of the operands, so the order of the operands does not change the key.
+     */
+    private String junction(String junction, List<SpecificationNode> operands) {
+        var operandKeys = new ArrayList<String>(operands.size());
+        for (var operand : operands) {
+            var operandKey = operand.accept(this);
+            if (operandKey == null) {
+                return null;
+            }
+            operandKeys.add(operandKey);
+        }
+        operandKeys.sort(null);
+        return junction + '(' + String.join(",", operandKeys) + ')';
+    }
+
+    /**
+     * Returns null if the value is a specification without a key or of a type not rendered by the value.
+     * The elements of a set are sorted by their keys, so the equal sets of a different iteration order have the same key.
+     */
+    private static String value(Object value) {
+        if (value == null) {
+            return "null";
+        } else if (value instanceof CompositeSpecification) {
+            return ((CompositeSpecification<?, ?>) value).getCanonicalKey();
+        } else if (value instanceof Collection) {
+            var valueKeys = new ArrayList<String>(((Collection<?>) value).size());
+            for (var element : (Collection<?>) value) {
+                var elementKey = value(element);
+                if (elementKey == null) {
+                    return null;
+                }
+                valueKeys.add(elementKey);
+            }
+            if (value instanceof Set) {
+                valueKeys.sort(null);
+            }
+            return '[' + String.join(",", valueKeys) + ']';
+        } else if (value instanceof Enum) {
+            return ((Enum<?>) value).getDeclaringClass().getName() + quote(((Enum<?>) value).name());
+        } else if (VALUE_TYPES.contains(value.getClass())) {
+            return value.getClass().getName() + quote(value.toString());
+        }
+        return null;
+    }
+
+    private static String quote(String string) {
+        return '"' + string.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
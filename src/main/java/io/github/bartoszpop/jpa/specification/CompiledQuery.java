@@ -0,0 +1,42 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Parameter;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.ParameterExpression;
+import java.util.List;
+
+/**
+ * This class is {@link CriteriaQuery} built once for the shape of a specification, see {@link SpecificationShape}, with the parameters in place of the values.
+ *
+ * @param <R> the type of the result
+ * @author Bartosz Popiela
+ */
+final class CompiledQuery<R> {
+
+    private final CriteriaQuery<R> criteriaQuery;
+
+    private final List<ParameterExpression<?>> parameters;
+
+    CompiledQuery(CriteriaQuery<R> criteriaQuery, List<ParameterExpression<?>> parameters) {
+        this.criteriaQuery = criteriaQuery;
+        this.parameters = List.copyOf(parameters);
+    }
+
+    /**
+     * Creates the query and binds the values to the parameters in order.
+     */
+    TypedQuery<R> createQuery(EntityManager entityManager, List<?> values) {
+        if (values.size() != parameters.size()) {
+            throw new IllegalArgumentException("Expected " + parameters.size() + " values but got " + values.size() + ".");
+        }
+        var query = entityManager.createQuery(criteriaQuery);
+        for (var i = 0; i < parameters.size(); i++) {
+            // Cast allowed because the parameter is created for the value of this index
+            //noinspection unchecked
+            query.setParameter((Parameter<Object>) parameters.get(i), values.get(i));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.bartoszpop.jpa.specification;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * This class caches the queries {@link CompositeSpecificationExecutor} builds for the specifications of the same structure,
+ * <br>
+ * i.e. the same operators, attributes and joins, so a query is built once and the values of a specification are bound to its parameters.
+ * <p>
+ * The cache holds up to the maximum number of queries and evicts the least recently used one.
+ * It may be shared by the executors of the same {@link javax.persistence.EntityManagerFactory}.
+ * <p>
+ * A specification that has {@link PredicateBuilder} passed to {@link CompositeSpecification#of} is not cached, since its structure is opaque.
+ * <br>
+ * Prefer {@link PathSpecifications#get} and {@link FromSpecifications} to {@link PredicateBuilder} calling {@link javax.persistence.criteria.Path#get(String)} by itself.
+ *
+ * @author Bartosz Popiela
+ */
+public final class CompiledQueryCache {
+
+    private final Map<String, CompiledQuery<?>> queries;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public CompiledQueryCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive.");
+        }
+        this.queries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledQuery<?>> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the query of the key or the query built by the compiler. The query is built outside the lock, so two threads may build the same query once.
+     */
+    <R> CompiledQuery<R> get(String key, Supplier<CompiledQuery<R>> compiler) {
+        CompiledQuery<?> query;
+        synchronized (queries) {
+            query = queries.get(key);
+        }
+        if (query == null) {
+            missCount.incrementAndGet();
+            query = compiler.get();
+            synchronized (queries) {
+                queries.putIfAbsent(key, query);
+            }
+        } else {
+            hitCount.incrementAndGet();
+        }
+        // Cast allowed because the key determines the type of the result
+        //noinspection unchecked
+        return (CompiledQuery<R>) query;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int size() {
+        synchronized (queries) {
+            return queries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (queries) {
+            queries.clear();
+        }
+    }
+}
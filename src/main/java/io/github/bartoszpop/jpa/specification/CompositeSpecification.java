@@ -6,6 +6,12 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This class is a composite {@link Specification} in the sense of <a href="https://www.martinfowler.com/apsupp/spec.pdf">"Specifications"</a> by Eric Evans and Martin Fowler.
@@ -90,6 +96,10 @@ import javax.persistence.criteria.Root;
  * var department = departmentRepository.findOne(name("Sales").and(fetchEmployees()));
  * }</pre>
  * See <a href="https://github.com/bartoszpop/composite-specification/tree/main/src/example/">Composite Specification</a> for more examples.
+ * <p>
+ * An instance of this class is a tree of {@link SpecificationNode} which may be inspected with {@link CompositeSpecification#accept}
+ * <br>
+ * before {@link CriteriaBuilder} is involved.
  *
  * @param <T> the type of the entity
  * @param <S> the type of a target the predicate evaluates on
@@ -97,7 +107,23 @@ import javax.persistence.criteria.Root;
  */
 public final class CompositeSpecification<T, S> implements Specification<T> {
 
-    private final PredicateBuilder<? super S> predicateBuilder;
+    private final SpecificationNode node;
+
+    /**
+     * This is the name {@link SpecificationMetrics} report the specification by, see {@link CompositeSpecification#named}.
+     */
+    private final String name;
+
+    /**
+     * This is the node simplified by {@link SpecificationSimplifier} on the first use.
+     * The field is not volatile because the simplification is idempotent and the nodes are immutable.
+     */
+    private SpecificationNode simplifiedNode;
+
+    /**
+     * This is the canonical key computed on the first use, empty if there is no key. The field is not volatile for the same reason.
+     */
+    private Optional<String> canonicalKey;
 
     /**
      * This constructor must be private because when parameterized with {@code <U extends PredicateBuilder<S> & TypeSafe<? super Root<T>>>},
@@ -109,15 +135,78 @@ public final class CompositeSpecification<T, S> implements Specification<T> {
      * <p>
      * If {@link TypeSafe} is sealed and permits {@link TypeSafePredicateBuilder} only, it throws {@link IncompatibleClassChangeError}.
      */
-    private CompositeSpecification(PredicateBuilder<? super S> predicateBuilder) {
-        this.predicateBuilder = predicateBuilder;
+    private CompositeSpecification(SpecificationNode node) {
+        this(node, null);
+    }
+
+    private CompositeSpecification(SpecificationNode node, String name) {
+        this.node = node;
+        this.name = name;
     }
 
+    /**
+     * Returns null if the specification does not restrict the query, e.g. {@link CompositeSpecification#noOp()},
+     * <br>
+     * as permitted by {@link Specification#toPredicate}.
+     */
     @Override
     public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
-        // Cast allowed because only instances of TypeSafePredicateBuilder<S>, where S is a supertype of Root<T> may be passed to TypeSafeSpecification#of
-        //noinspection unchecked
-        return ((PredicateBuilder<? super Root<T>>) predicateBuilder).toPredicate(root, query, criteriaBuilder);
+        var metrics = SpecificationInstrumentation.metricsOf(getName());
+        if (metrics == null) {
+            return getRenderedNode(query).accept(new PredicateRenderer(root, query, criteriaBuilder, RenderContext.currentParameters(), RenderContext.currentPaths()));
+        }
+        var start = System.nanoTime();
+        var renderedNode = getRenderedNode(query);
+        var predicate = renderedNode.accept(new PredicateRenderer(root, query, criteriaBuilder, RenderContext.currentParameters(), RenderContext.currentPaths()));
+        report(metrics, renderedNode, System.nanoTime() - start);
+        return predicate;
+    }
+
+    /**
+     * Returns the predicate with {@link QueryParameters} in place of the values of the comparisons, see {@link SpecificationShape}.
+     * <br>
+     * The specifications rendered by {@link PredicateBuilder} within this one, e.g. with {@link CompositeSpecification#asBuilder()}, share the parameters.
+     */
+    Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder, QueryParameters parameters) {
+        var metrics = SpecificationInstrumentation.metricsOf(getName());
+        if (metrics == null) {
+            return new RenderContext(parameters).render(() -> getRenderedNode(query).accept(new PredicateRenderer(root, query, criteriaBuilder, parameters, RenderContext.currentPaths())));
+        }
+        var start = System.nanoTime();
+        var renderedNode = getRenderedNode(query);
+        var predicate = new RenderContext(parameters).render(() -> renderedNode.accept(new PredicateRenderer(root, query, criteriaBuilder, parameters, RenderContext.currentPaths())));
+        report(metrics, renderedNode, System.nanoTime() - start);
+        return predicate;
+    }
+
+    private void report(SpecificationMetrics metrics, SpecificationNode renderedNode, long buildNanos) {
+        var counter = new NodeCounter();
+        renderedNode.accept(counter);
+        metrics.rendered(getName(), buildNanos, counter.getNodeCount(), counter.getJoinCount());
+    }
+
+    /**
+     * Returns the copy of this specification reported by the name to {@link SpecificationMetrics}, e.g. {@code firstName("John").named("employeesByFirstName")}.
+     * <br>
+     * The name is not a part of the tree, thus the copy is equal to this specification. A specification composed of the copy is not named.
+     */
+    public CompositeSpecification<T, S> named(String name) {
+        var named = new CompositeSpecification<T, S>(node, name);
+        named.simplifiedNode = simplifiedNode;
+        named.canonicalKey = canonicalKey;
+        return named;
+    }
+
+    /**
+     * Returns the name passed to {@link CompositeSpecification#named}, otherwise the name of the specification created
+     * <br>
+     * with {@link CompositeSpecification#of(String, List, PredicateBuilder)}, or null if there is neither.
+     */
+    public String getName() {
+        if (name != null) {
+            return name;
+        }
+        return node instanceof SpecificationNode.Leaf ? ((SpecificationNode.Leaf) node).getName() : null;
     }
 
     /**
@@ -126,35 +215,211 @@ public final class CompositeSpecification<T, S> implements Specification<T> {
      * and it implements {@link PredicateBuilder} and {@link TypeSafe} with the same type argument {@code T}.
      */
     public static <T, S, U extends PredicateBuilder<? super S> & TypeSafe<? super Root<T>>> CompositeSpecification<T, S> of(U predicateBuilder) {
-        return new CompositeSpecification<>(predicateBuilder);
+        return new CompositeSpecification<>(new SpecificationNode.Leaf(predicateBuilder));
+    }
+
+    /**
+     * Creates an instance identified by the name and the arguments of the factory, so it is equal to another instance created with the same ones,
+     * <br>
+     * e.g. {@code of("EmployeeSpecifications.bornIn", List.of(year), (root, query, criteriaBuilder) -> ...)}.
+     * The name and the arguments must determine the predicate the builder constructs.
+     *
+     * @see CompositeSpecification#getCanonicalKey()
+     */
+    public static <T, S, U extends PredicateBuilder<? super S> & TypeSafe<? super Root<T>>> CompositeSpecification<T, S> of(String name, List<?> arguments, U predicateBuilder) {
+        return new CompositeSpecification<>(new SpecificationNode.Leaf(predicateBuilder, name, arguments));
+    }
+
+    /**
+     * Creates an instance from the node. The caller is responsible for the node to be applicable to {@code S} and {@code Root<T>}.
+     */
+    static <T, S> CompositeSpecification<T, S> fromNode(SpecificationNode node) {
+        return new CompositeSpecification<>(node);
+    }
+
+    SpecificationNode getNode() {
+        return node;
+    }
+
+    SpecificationNode getSimplifiedNode() {
+        var simplifiedNode = this.simplifiedNode;
+        if (simplifiedNode == null) {
+            simplifiedNode = node.accept(SpecificationSimplifier.INSTANCE);
+            this.simplifiedNode = simplifiedNode;
+        }
+        return simplifiedNode;
+    }
+
+    /**
+     * Returns the simplified node without the fetch joins unless the query selects the roots, and without the left joins that do not restrict a count query,
+     * <br>
+     * see {@link QueryKind}. The values of the comparisons are in the same order, so {@link SpecificationShape} of the simplified node applies.
+     */
+    private SpecificationNode getRenderedNode(CriteriaQuery<?> query) {
+        switch (QueryKind.of(query)) {
+            case COUNT:
+                return getSimplifiedNode().accept(FetchEliminator.COUNT);
+            case ID:
+                return getSimplifiedNode().accept(FetchEliminator.INSTANCE);
+            default:
+                return getSimplifiedNode();
+        }
     }
 
+    /**
+     * Returns {@link PredicateBuilder} that never returns null, i.e. it returns {@link CriteriaBuilder#and()} if the specification does not restrict the query.
+     */
     public PredicateBuilder<S> asBuilder() {
-        return predicateBuilder::toPredicate;
+        return (target, query, criteriaBuilder) -> {
+            var predicate = getRenderedNode(query).accept(new PredicateRenderer(target, query, criteriaBuilder, RenderContext.currentParameters(), RenderContext.currentPaths()));
+            return predicate != null ? predicate : criteriaBuilder.and();
+        };
+    }
+
+    /**
+     * Returns {@link java.util.function.Predicate} satisfied by a loaded entity if and only if the query of this specification would select it,
+     * <br>
+     * e.g. {@code departments.stream().filter(anyEmployee(firstName("John")).asPredicate())} filters the departments cached by the application.
+     * <p>
+     * The attributes are read with the getters, or the fields if there are no getters, resolved once per class.
+     * <br>
+     * The lazy associations are initialized on access, thus they should be fetched beforehand.
+     *
+     * @throws UnsupportedOperationException if the specification is composed of {@link PredicateBuilder} passed to {@link CompositeSpecification#of}
+     */
+    public java.util.function.Predicate<T> asPredicate() {
+        var condition = getSimplifiedNode().accept(InMemoryEvaluator.INSTANCE);
+        return target -> Boolean.TRUE.equals(condition.test(target));
+    }
+
+    /**
+     * Returns the key equal for the specifications that differ in the order of the operands of {@link CompositeSpecification#and}
+     * <br>
+     * and {@link CompositeSpecification#or} only, e.g. to share the cached results of the same filters, or null if the specification
+     * <br>
+     * is composed of {@link PredicateBuilder} passed to {@link CompositeSpecification#of(PredicateBuilder)} without a name.
+     */
+    public String getCanonicalKey() {
+        var canonicalKey = this.canonicalKey;
+        if (canonicalKey == null) {
+            canonicalKey = Optional.ofNullable(getSimplifiedNode().accept(CanonicalKey.INSTANCE));
+            this.canonicalKey = canonicalKey;
+        }
+        return canonicalKey.orElse(null);
+    }
+
+    /**
+     * The specifications are equal if their trees are equal once simplified, e.g. {@code first.and(second.and(third))} is equal to {@code allOf(first, second, third)}.
+     * The trees of {@link PredicateBuilder} passed to {@link CompositeSpecification#of(PredicateBuilder)} are equal if they share the same instance.
+     *
+     * @see SpecificationNode
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompositeSpecification)) return false;
+        CompositeSpecification<?, ?> that = (CompositeSpecification<?, ?>) o;
+        return getSimplifiedNode().equals(that.getSimplifiedNode());
+    }
+
+    @Override
+    public int hashCode() {
+        return getSimplifiedNode().hashCode();
+    }
+
+    /**
+     * Passes the root of the tree this specification is composed of to the visitor.
+     */
+    public <R> R accept(SpecificationVisitor<R> visitor) {
+        return node.accept(visitor);
     }
 
     public static <T, S> CompositeSpecification<T, S> noOp() {
-        return new CompositeSpecification<>((root, query, criteriaBuilder) -> criteriaBuilder.and());
+        return new CompositeSpecification<>(SpecificationNode.NoOp.INSTANCE);
+    }
+
+    /**
+     * Returns the specification created by the factory if the value is not null, {@link CompositeSpecification#noOp()} otherwise.
+     * <p>
+     * This is for the optional filter parameters, e.g. {@code noOp().and(optional(firstName, EmployeeSpecifications::firstName))},
+     * <br>
+     * since {@link CompositeSpecification#and} eliminates {@link CompositeSpecification#noOp()}.
+     */
+    public static <V, T, S> CompositeSpecification<T, S> optional(V value, Function<? super V, CompositeSpecification<T, S>> factory) {
+        return value != null ? factory.apply(value) : noOp();
     }
 
     public static <T, S> CompositeSpecification<T, S> not(CompositeSpecification<T, S> specification) {
-        return new CompositeSpecification<>((TypeSafePredicateBuilder<S>) (root, query, criteriaBuilder) ->
-                criteriaBuilder.not(specification.asBuilder().toPredicate(root, query, criteriaBuilder)));
+        return new CompositeSpecification<>(new SpecificationNode.Not(specification.node));
+    }
+
+    /**
+     * Creates a conjunction of the specifications.
+     * <p>
+     * Nested conjunctions, e.g. created with {@link CompositeSpecification#and}, are flattened,
+     * thus {@code allOf(first.and(second), third)} creates a single {@link CriteriaBuilder#and(Predicate...)} of three predicates.
+     * <p>
+     * This method and {@link CompositeSpecification#anyOf(CompositeSpecification[])} iterate the array rather than pass it on,
+     * <br>
+     * so it does not escape them as {@link SafeVarargs} requires, e.g. passing it to {@link java.util.Arrays#asList} is warned of the heap pollution.
+     */
+    @SafeVarargs
+    public static <T, S> CompositeSpecification<T, S> allOf(CompositeSpecification<T, ? super S>... specifications) {
+        var nodes = new ArrayList<SpecificationNode>(specifications.length);
+        for (var specification : specifications) {
+            nodes.add(specification.node);
+        }
+        return new CompositeSpecification<>(new SpecificationNode.And(nodes));
+    }
+
+    /**
+     * @see CompositeSpecification#allOf(CompositeSpecification[])
+     */
+    public static <T, S> CompositeSpecification<T, S> allOf(Collection<? extends CompositeSpecification<T, ? super S>> specifications) {
+        return new CompositeSpecification<>(new SpecificationNode.And(specifications.stream().map(CompositeSpecification::getNode).collect(Collectors.toList())));
+    }
+
+    /**
+     * Creates a disjunction of the specifications.
+     * <p>
+     * Nested disjunctions, e.g. created with {@link CompositeSpecification#or}, are flattened,
+     * thus {@code anyOf(first.or(second), third)} creates a single {@link CriteriaBuilder#or(Predicate...)} of three predicates.
+     */
+    @SafeVarargs
+    public static <T, S> CompositeSpecification<T, S> anyOf(CompositeSpecification<T, ? super S>... specifications) {
+        var nodes = new ArrayList<SpecificationNode>(specifications.length);
+        for (var specification : specifications) {
+            nodes.add(specification.node);
+        }
+        return new CompositeSpecification<>(new SpecificationNode.Or(nodes));
+    }
+
+    /**
+     * @see CompositeSpecification#anyOf(CompositeSpecification[])
+     */
+    public static <T, S> CompositeSpecification<T, S> anyOf(Collection<? extends CompositeSpecification<T, ? super S>> specifications) {
+        return new CompositeSpecification<>(new SpecificationNode.Or(specifications.stream().map(CompositeSpecification::getNode).collect(Collectors.toList())));
     }
 
+    /**
+     * Composes the conjunction in constant time. The chains, e.g. {@code specifications.stream().reduce(CompositeSpecification::and)},
+     * <br>
+     * are flattened with a work stack when simplified, so a chain of any length renders as a single conjunction with a constant stack depth.
+     */
     public CompositeSpecification<T, S> and(CompositeSpecification<T, ? super S> other) {
-        return new CompositeSpecification<>((root, query, criteriaBuilder) -> {
-            var left = this.asBuilder().toPredicate(root, query, criteriaBuilder);
-            var right = other.asBuilder().toPredicate(root, query, criteriaBuilder);
-            return criteriaBuilder.and(left, right);
-        });
+        if (other.node instanceof SpecificationNode.NoOp) {
+            // A composed specification is not named, but it shares the simplified tree of this one
+            return name != null ? named(null) : this;
+        } else if (node instanceof SpecificationNode.NoOp) {
+            return new CompositeSpecification<>(other.node);
+        }
+        return new CompositeSpecification<>(new SpecificationNode.And(List.of(node, other.node)));
     }
 
+    /**
+     * Composes the disjunction in constant time, see {@link CompositeSpecification#and}.
+     */
     public CompositeSpecification<T, S> or(CompositeSpecification<T, ? super S> other) {
-        return new CompositeSpecification<>((root, query, criteriaBuilder) -> {
-            var left = this.asBuilder().toPredicate(root, query, criteriaBuilder);
-            var right = other.asBuilder().toPredicate(root, query, criteriaBuilder);
-            return criteriaBuilder.or(left, right);
-        });
+        return new CompositeSpecification<>(new SpecificationNode.Or(List.of(node, other.node)));
     }
 }
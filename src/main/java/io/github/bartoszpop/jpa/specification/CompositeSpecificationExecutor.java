@@ -0,0 +1,506 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.data.jpa.provider.PersistenceProvider;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class executes {@link CompositeSpecification} against {@link EntityManager}, so it may inspect the tree of a specification before the query is built.
+ * <p>
+ * If a specification fetches a collection, e.g. with {@link FromSpecifications#fetch}, the database returns a row per element of the collection,
+ * <br>
+ * thus the JPA provider either paginates in memory or the page is cut in the middle of a root. Instead, {@link CompositeSpecificationExecutor#findAll(CompositeSpecification, Pageable)}
+ * <br>
+ * selects the identifiers of the page with the fetch joins replaced with joins, then fetches the roots with {@code id in (:page)}, e.g.
+ * <pre>{@code
+ * var executor = new CompositeSpecificationExecutor<>(Department.class, entityManager);
+ * var page = executor.findAll(fetchEmployees(), PageRequest.of(0, 10, Sort.by("name")));
+ * }</pre>
+ * The fetch joins are recognized if they are composed with {@link FromSpecifications#fetch}, not if {@link PredicateBuilder} fetches by itself.
+ * <br>
+ * The entity must have a single identifier attribute.
+ * <p>
+ * {@link CompositeSpecificationExecutor#findSlice} selects the slices after the last entity of the previous one instead, see {@link KeysetSpecifications}.
+ * <p>
+ * {@link CompositeSpecificationExecutor#findAll(CompositeSpecification, Class, Sort)} selects only the properties of a projection rather than the entities.
+ * <p>
+ * If {@link CompiledQueryCache} is passed, the query of a specification is built once for the specifications of the same structure.
+ *
+ * @param <T> the type of the entity
+ * @author Bartosz Popiela
+ */
+public class CompositeSpecificationExecutor<T> {
+
+    private final JpaEntityInformation<T, ?> entityInformation;
+
+    private final EntityManager entityManager;
+
+    private final PersistenceProvider persistenceProvider;
+
+    private final CompiledQueryCache queryCache;
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    /**
+     * These are the properties of the projection types in order of the parameters of the constructor, or of the getters of an interface.
+     */
+    private final Map<Class<?>, List<String>> projectionProperties = new ConcurrentHashMap<>();
+
+    private boolean bindParameters;
+
+    public CompositeSpecificationExecutor(Class<T> domainClass, EntityManager entityManager) {
+        this(domainClass, entityManager, null);
+    }
+
+    /**
+     * Creates an executor that builds a query once for the specifications of the same structure, see {@link CompiledQueryCache}.
+     */
+    public CompositeSpecificationExecutor(Class<T> domainClass, EntityManager entityManager, CompiledQueryCache queryCache) {
+        this.entityInformation = JpaEntityInformationSupport.getEntityInformation(domainClass, entityManager);
+        this.entityManager = entityManager;
+        this.persistenceProvider = PersistenceProvider.fromEntityManager(entityManager);
+        this.queryCache = queryCache;
+    }
+
+    /**
+     * Sets whether the values of the specifications are bound to the parameters named {@code p0}, {@code p1}, etc., rather than rendered as literals,
+     * <br>
+     * also if {@link PredicateBuilder} renders a specification with {@link CompositeSpecification#asBuilder()}, e.g. {@code root.get("dateOfBirth")}.
+     * <p>
+     * Then a specification of the same structure is always rendered to the same query, so the JPA provider and the database reuse its plan,
+     * <br>
+     * whichever literal handling the JPA provider is configured with. The values are always bound if the query is cached, see {@link CompiledQueryCache}.
+     */
+    public void setBindParameters(boolean bindParameters) {
+        this.bindParameters = bindParameters;
+    }
+
+    public List<T> findAll(CompositeSpecification<T, ?> specification, Sort sort) {
+        return getResultList(specification, createQuery(specification, sort));
+    }
+
+    /**
+     * Returns the projections of the entities that satisfy the specification. The query selects only the identifier and the properties of the projection,
+     * <br>
+     * so the entities are neither hydrated nor managed by the persistence context. The projection is either
+     * <ul>
+     *     <li>a closed interface projection, i.e. the getters of the interface are the properties of the entity,</li>
+     *     <li>a class, e.g. a record, with a single public constructor whose parameters are named as the properties of the entity.</li>
+     * </ul>
+     * If the specification joins a collection, an entity is selected once per element, thus the rows are deduplicated by the identifier rather than
+     * <br>
+     * with a distinct query, which would merge the different entities of the same values.
+     *
+     * @throws IllegalArgumentException if the interface is an open projection, or the class has no single constructor with the discoverable parameter names
+     */
+    public <P> List<P> findAll(CompositeSpecification<T, ?> specification, Class<P> projectionType, Sort sort) {
+        var properties = projectionProperties.computeIfAbsent(projectionType, this::resolveProperties);
+        var tuples = getResultList(specification, createQuery("findAll:" + projectionType.getName(), specification, sort, List.of(), (criteriaBuilder, parameters) -> {
+            var query = criteriaBuilder.createTupleQuery();
+            var root = query.from(entityInformation.getJavaType());
+            where(query, toPredicate(specification, root, query, criteriaBuilder, parameters));
+            var selections = new ArrayList<Selection<?>>(properties.size() + 1);
+            selections.add(idPath(root));
+            properties.forEach(property -> selections.add(root.get(property)));
+            // The rows are deduplicated by the identifier, so the query is not distinct
+            return query.multiselect(selections).distinct(false).orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }));
+        var constructor = projectionType.isInterface() ? null : projectionType.getConstructors()[0];
+        var ids = new HashSet<Object>();
+        var projections = new ArrayList<P>();
+        for (var tuple : tuples) {
+            if (!ids.add(tuple.get(0))) {
+                continue;
+            }
+            if (constructor != null) {
+                var arguments = new Object[properties.size()];
+                for (var i = 0; i < arguments.length; i++) {
+                    arguments[i] = tuple.get(i + 1);
+                }
+                // Cast allowed because the constructor is of the projection type
+                //noinspection unchecked
+                projections.add((P) BeanUtils.instantiateClass(constructor, arguments));
+            } else {
+                var values = new HashMap<String, Object>();
+                for (var i = 0; i < properties.size(); i++) {
+                    values.put(properties.get(i), tuple.get(i + 1));
+                }
+                projections.add(projectionFactory.createProjection(projectionType, values));
+            }
+        }
+        return projections;
+    }
+
+    /**
+     * Returns the page of the entities that satisfy the specification.
+     * <p>
+     * If the specification fetches, it runs a query for the identifiers of the page and a query for the entities of these identifiers,
+     * <br>
+     * otherwise it runs a single query. The total is counted only if it cannot be determined from the page.
+     */
+    public Page<T> findAll(CompositeSpecification<T, ?> specification, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll(specification, pageable.getSort()));
+        }
+        CompositeSpecification<T, ?> joinSpecification = CompositeSpecification.<T, Object>fromNode(specification.getSimplifiedNode().accept(FetchEliminator.INSTANCE))
+                .named(specification.getName());
+        return PageableExecutionUtils.getPage(findContent(specification, pageable, bindParameters), pageable, () -> count(joinSpecification));
+    }
+
+    /**
+     * Returns the slice of the entities after the continuation token of the previous slice, or the first slice if the token is null, see {@link KeysetSpecifications}.
+     * <p>
+     * The identifier is appended to the sort unless the entities are sorted by it already, so the order is unique and the token is the values of the sort.
+     * <br>
+     * It selects one entity more than the size to tell whether there is a next slice, thus it runs no count query. If the specification fetches,
+     * <br>
+     * it selects the identifiers of the slice first as {@link CompositeSpecificationExecutor#findAll(CompositeSpecification, Pageable)} does.
+     * <p>
+     * The values are always bound to the parameters, so the slices after the different continuation tokens share the plan of the query.
+     */
+    public KeysetSlice<T> findSlice(CompositeSpecification<T, ?> specification, Sort sort, List<?> continuationToken, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The size must be positive.");
+        }
+        var idName = entityInformation.getRequiredIdAttribute().getName();
+        var keysetSort = sort.getOrderFor(idName) != null ? sort : sort.and(Sort.by(idName));
+        CompositeSpecification<T, ?> keysetSpecification = continuationToken != null
+                ? CompositeSpecification.<T, Object>fromNode(new SpecificationNode.And(List.of(specification.getNode(), KeysetSpecifications.after(keysetSort, continuationToken).getNode())))
+                .named(specification.getName())
+                : specification;
+        var content = findContent(keysetSpecification, PageRequest.of(0, size + 1, keysetSort), true);
+        if (content.size() <= size) {
+            return new KeysetSlice<>(content, null);
+        }
+        var sliceContent = content.subList(0, size);
+        var lastEntity = sliceContent.get(size - 1);
+        var nextToken = new ArrayList<Object>();
+        for (var order : keysetSort) {
+            nextToken.add(getProperty(lastEntity, order.getProperty()));
+        }
+        return new KeysetSlice<>(sliceContent, nextToken);
+    }
+
+    /**
+     * Returns the stream of the entities that satisfy the specification, read with a forward-only cursor rather than loaded into a list,
+     * <br>
+     * e.g. {@link TypedQuery#getResultStream()} of Hibernate scrolls {@link java.sql.ResultSet}. The stream must be closed, since it holds the cursor.
+     * <p>
+     * The JDBC driver fetches the rows in batches of the fetch size and the entities are read-only, i.e. the persistence context keeps no snapshot of them,
+     * <br>
+     * if the JPA provider is Hibernate or EclipseLink, see {@link CompositeSpecificationExecutor#streamHints}.
+     * <br>
+     * Before every next batch, the persistence context is cleared, so the memory does not grow with the number of the entities,
+     * <br>
+     * thus an entity is detached once the stream has passed the batch of it and the other entities of the persistence context are detached as well.
+     * <p>
+     * The stream must be consumed within a transaction. A specification should not fetch a collection, since its elements would span the batches.
+     */
+    public Stream<T> stream(CompositeSpecification<T, ?> specification, int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("The fetch size must be positive.");
+        }
+        var query = createQuery(specification, Sort.unsorted());
+        streamHints(persistenceProvider, fetchSize).forEach(query::setHint);
+        var resultStream = query.getResultStream();
+        var iterator = new ClearingIterator<>(resultStream.iterator(), entityManager, fetchSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(resultStream::close);
+    }
+
+    /**
+     * Returns the content of the page with a single query, or with a query for the identifiers and a query for the entities if the specification fetches.
+     * <br>
+     * The values are bound to the parameters if the bind flag is set, see {@link CompositeSpecificationExecutor#createQuery(String, CompositeSpecification, Sort, List, boolean, QueryBuilder)}.
+     */
+    private List<T> findContent(CompositeSpecification<T, ?> specification, Pageable pageable, boolean bind) {
+        var node = specification.getSimplifiedNode();
+        var joinNode = node.accept(FetchEliminator.INSTANCE);
+        if (joinNode == node) {
+            return getResultList(specification, createQuery(specification, pageable.getSort(), bind)
+                    .setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize()));
+        }
+        var ids = findIds(CompositeSpecification.<T, Object>fromNode(joinNode).named(specification.getName()), pageable, bind);
+        return ids.isEmpty() ? List.of() : findAllById(specification, ids);
+    }
+
+    public long count(CompositeSpecification<T, ?> specification) {
+        var countQuery = createQuery("count", specification, Sort.unsorted(), List.of(), (criteriaBuilder, parameters) -> {
+            var query = criteriaBuilder.createQuery(Long.class);
+            var root = query.from(entityInformation.getJavaType());
+            // The context marks the query as a count, so the left joins without a predicate are omitted, see QueryKind
+            var context = new RenderContext(parameters);
+            context.setCounting(true);
+            where(query, context.render(() -> specification.toPredicate(root, query, criteriaBuilder)));
+            // The count is distinct itself, so the query is not
+            return query.select(query.isDistinct() ? criteriaBuilder.countDistinct(root) : criteriaBuilder.count(root)).distinct(false);
+        });
+        var metrics = SpecificationInstrumentation.metricsOf(specification.getName());
+        if (metrics == null) {
+            return countQuery.getSingleResult();
+        }
+        var start = System.nanoTime();
+        var count = countQuery.getSingleResult();
+        metrics.executed(specification.getName(), System.nanoTime() - start, 1);
+        return count;
+    }
+
+    private TypedQuery<T> createQuery(CompositeSpecification<T, ?> specification, Sort sort) {
+        return createQuery(specification, sort, bindParameters);
+    }
+
+    private TypedQuery<T> createQuery(CompositeSpecification<T, ?> specification, Sort sort, boolean bind) {
+        return createQuery("findAll", specification, sort, List.of(), bind, (criteriaBuilder, parameters) -> {
+            var query = criteriaBuilder.createQuery(entityInformation.getJavaType());
+            var root = query.from(entityInformation.getJavaType());
+            where(query, toPredicate(specification, root, query, criteriaBuilder, parameters));
+            return query.select(root).orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        });
+    }
+
+    /**
+     * Selects the distinct identifiers of the page along with the sort expressions, since a distinct query may be ordered by the selected expressions only.
+     */
+    private List<Object> findIds(CompositeSpecification<T, ?> specification, Pageable pageable, boolean bind) {
+        return getResultList(specification, createQuery("findIds", specification, pageable.getSort(), List.of(), bind, (criteriaBuilder, parameters) -> {
+            var query = criteriaBuilder.createTupleQuery();
+            var root = query.from(entityInformation.getJavaType());
+            where(query, toPredicate(specification, root, query, criteriaBuilder, parameters));
+            List<Order> orders = QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder);
+            var selections = new ArrayList<Selection<?>>(orders.size() + 1);
+            selections.add(idPath(root));
+            orders.forEach(order -> selections.add(order.getExpression()));
+            return query.multiselect(selections).distinct(true).orderBy(orders);
+        })
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize()))
+                .stream()
+                .map(tuple -> tuple.get(0))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Fetches the entities of the identifiers and orders them as the identifiers are, since the fetch joins may reorder the rows.
+     * An entity deleted in the meantime is omitted.
+     * <p>
+     * The identifiers are always bound as a single collection parameter, so the pages of the same size share the plan of the query.
+     */
+    private List<T> findAllById(CompositeSpecification<T, ?> specification, List<Object> ids) {
+        var query = createQuery("findAllById", specification, Sort.unsorted(), List.of(ids), true, (criteriaBuilder, parameters) -> {
+            var criteriaQuery = criteriaBuilder.createQuery(entityInformation.getJavaType());
+            var root = criteriaQuery.from(entityInformation.getJavaType());
+            var predicate = toPredicate(specification, root, criteriaQuery, criteriaBuilder, parameters);
+            // Cast allowed because the parameter is bound to the identifiers
+            //noinspection unchecked
+            var idPredicate = idPath(root).in((Expression<Collection<?>>) (Expression<?>) parameters.create(Collection.class, ids));
+            return criteriaQuery.select(root).where(predicate != null ? criteriaBuilder.and(predicate, idPredicate) : idPredicate);
+        });
+        var entitiesById = new HashMap<Object, T>();
+        for (var entity : getResultList(specification, query)) {
+            entitiesById.put(entityInformation.getId(entity), entity);
+        }
+        return ids.stream().map(entitiesById::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Creates the query built by the builder. If the structure of the specification is cached, the builder is called once for the structure,
+     * <br>
+     * then the values of the specification and the arguments are bound to the parameters. Otherwise, the builder is called with the parameters
+     * <br>
+     * if {@link CompositeSpecificationExecutor#setBindParameters} is set, with no parameters if not.
+     */
+    private <R> TypedQuery<R> createQuery(String name, CompositeSpecification<T, ?> specification, Sort sort, List<?> arguments, QueryBuilder<R> builder) {
+        return createQuery(name, specification, sort, arguments, bindParameters, builder);
+    }
+
+    /**
+     * Creates the query built by the builder as {@link CompositeSpecificationExecutor#createQuery(String, CompositeSpecification, Sort, List, QueryBuilder)} does,
+     * <br>
+     * but the builder is called with the parameters if the bind flag is set, regardless of {@link CompositeSpecificationExecutor#setBindParameters}.
+     */
+    private <R> TypedQuery<R> createQuery(String name, CompositeSpecification<T, ?> specification, Sort sort, List<?> arguments, boolean bind, QueryBuilder<R> builder) {
+        var shape = queryCache != null ? SpecificationShape.of(specification.getSimplifiedNode()) : null;
+        if ((shape == null || shape.getKey() == null) && bind) {
+            var parameters = new QueryParameters(entityManager.getCriteriaBuilder());
+            var criteriaQuery = builder.build(entityManager.getCriteriaBuilder(), parameters);
+            return new CompiledQuery<>(criteriaQuery, parameters.getParameters()).createQuery(entityManager, parameters.getValues());
+        } else if (shape == null || shape.getKey() == null) {
+            return entityManager.createQuery(builder.build(entityManager.getCriteriaBuilder(), null));
+        }
+        var key = entityInformation.getJavaType().getName() + '#' + name + '[' + sort + ']' + shape.getKey();
+        var compiledQuery = queryCache.get(key, () -> {
+            var parameters = new QueryParameters(entityManager.getCriteriaBuilder());
+            var criteriaQuery = builder.build(entityManager.getCriteriaBuilder(), parameters);
+            return new CompiledQuery<>(criteriaQuery, parameters.getParameters());
+        });
+        var values = new ArrayList<Object>(shape.getValues());
+        values.addAll(arguments);
+        return compiledQuery.createQuery(entityManager, values);
+    }
+
+    /**
+     * Returns the result of the query and reports its latency and the number of the rows to {@link SpecificationMetrics} if the specification is named.
+     */
+    private static <R> List<R> getResultList(CompositeSpecification<?, ?> specification, TypedQuery<R> query) {
+        var metrics = SpecificationInstrumentation.metricsOf(specification.getName());
+        if (metrics == null) {
+            return query.getResultList();
+        }
+        var start = System.nanoTime();
+        var resultList = query.getResultList();
+        metrics.executed(specification.getName(), System.nanoTime() - start, resultList.size());
+        return resultList;
+    }
+
+    private List<String> resolveProperties(Class<?> projectionType) {
+        if (projectionType.isInterface()) {
+            var information = projectionFactory.getProjectionInformation(projectionType);
+            if (!information.isClosed()) {
+                throw new IllegalArgumentException("The projection " + projectionType.getName() + " must be closed.");
+            }
+            return information.getInputProperties().stream().map(PropertyDescriptor::getName).collect(Collectors.toUnmodifiableList());
+        }
+        var constructors = projectionType.getConstructors();
+        if (constructors.length != 1) {
+            throw new IllegalArgumentException("The projection " + projectionType.getName() + " must have a single public constructor.");
+        }
+        var parameterNames = parameterNameDiscoverer.getParameterNames(constructors[0]);
+        if (parameterNames == null) {
+            throw new IllegalArgumentException("The parameter names of the constructor of " + projectionType.getName() + " are not discoverable.");
+        }
+        return List.of(parameterNames);
+    }
+
+    /**
+     * Returns the value of the property of the entity, or of the nested attributes of the property separated with dots.
+     */
+    private static Object getProperty(Object entity, String property) {
+        var value = entity;
+        for (var attribute : property.split("\\.")) {
+            value = value != null ? AttributeAccessors.of(value.getClass(), attribute).apply(value) : null;
+        }
+        return value;
+    }
+
+    private Path<?> idPath(Root<T> root) {
+        return root.get(entityInformation.getRequiredIdAttribute().getName());
+    }
+
+    /**
+     * Returns the hints of the JDBC fetch size and of the entities not being dirty-checked as the JPA provider names them, or no hints for another provider,
+     * <br>
+     * since a JPA provider may log the hints it does not recognize, e.g. Hibernate logs HHH000121 for the hints of EclipseLink.
+     */
+    private static Map<String, Object> streamHints(PersistenceProvider persistenceProvider, int fetchSize) {
+        switch (persistenceProvider) {
+            case HIBERNATE:
+                return Map.of("org.hibernate.fetchSize", fetchSize, "org.hibernate.readOnly", true);
+            case ECLIPSELINK:
+                return Map.of("eclipselink.jdbc.fetch-size", fetchSize, "eclipselink.read-only", true);
+            default:
+                return Map.of();
+        }
+    }
+
+    private static <T> Predicate toPredicate(CompositeSpecification<T, ?> specification, Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder, QueryParameters parameters) {
+        return parameters != null ? specification.toPredicate(root, query, criteriaBuilder, parameters) : specification.toPredicate(root, query, criteriaBuilder);
+    }
+
+    private static void where(CriteriaQuery<?> query, Predicate predicate) {
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    /**
+     * This class clears the persistence context before the delegate reads the first entity of the next batch. It clears in {@link Iterator#hasNext()},
+     * <br>
+     * since the iterator of a cursor reads the next entity there, whereas the stream has already passed the previous one.
+     */
+    private static final class ClearingIterator<E> implements Iterator<E> {
+
+        private final Iterator<E> delegate;
+
+        private final EntityManager entityManager;
+
+        private final int batchSize;
+
+        private long count;
+
+        private boolean cleared = true;
+
+        private ClearingIterator(Iterator<E> delegate, EntityManager entityManager, int batchSize) {
+            this.delegate = delegate;
+            this.entityManager = entityManager;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!cleared) {
+                entityManager.clear();
+                cleared = true;
+            }
+            return delegate.hasNext();
+        }
+
+        @Override
+        public E next() {
+            var next = delegate.next();
+            if (++count % batchSize == 0) {
+                cleared = false;
+            }
+            return next;
+        }
+    }
+
+    /**
+     * This interface builds a query with the parameters in place of the values, or with the values if the parameters are null.
+     */
+    @FunctionalInterface
+    private interface QueryBuilder<R> {
+
+        CriteriaQuery<R> build(CriteriaBuilder criteriaBuilder, QueryParameters parameters);
+    }
+}
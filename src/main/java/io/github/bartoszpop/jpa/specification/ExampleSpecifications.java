@@ -0,0 +1,260 @@
+package io.github.bartoszpop.jpa.specification;
+
+import io.github.bartoszpop.jpa.specification.SpecificationNode.Comparison.Operator;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.data.util.ProxyUtils;
+
+import javax.persistence.Embeddable;
+import javax.persistence.Embedded;
+import javax.persistence.EmbeddedId;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToOne;
+import javax.persistence.Transient;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * This class provides the specifications of the query by example, i.e. a target is satisfied if its attributes match the attributes of a probe
+ * <br>
+ * as {@link ExampleMatcher} configures, e.g. {@code like(new Employee("John", null, null), ExampleMatcher.matching().withIgnoreCase())}.
+ * <p>
+ * The attributes of a class are resolved once and cached, so a probe is read with an accessor per attribute rather than with reflection over the class.
+ * <br>
+ * An attribute is a non-static and non-transient field of the class or its superclasses. An embedded attribute or a single-valued association is matched by its attributes,
+ * <br>
+ * and a collection is ignored. A probe or an association that is a proxy, e.g. a lazy proxy of Hibernate, is resolved as the class it proxies
+ * <br>
+ * and read with the getters, since the fields of a proxy are never set.
+ *
+ * @author Bartosz Popiela
+ */
+public final class ExampleSpecifications {
+
+    private static final String IS_NULL = "ExampleSpecifications.isNull";
+
+    private static final String LIKE = "ExampleSpecifications.like";
+
+    private static final char ESCAPE = '\\';
+
+    private static final PredicateBuilder<Expression<?>> IS_NULL_BUILDER = (expression, query, criteriaBuilder) -> criteriaBuilder.isNull(expression);
+
+    private static final ClassValue<List<ExampleAttribute>> ATTRIBUTES = new ClassValue<>() {
+        @Override
+        protected List<ExampleAttribute> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private ExampleSpecifications() {
+    }
+
+    /**
+     * Creates a specification satisfied by a target whose attributes are equal to the non-null attributes of the probe.
+     */
+    public static <T, S extends Path<T>> CompositeSpecification<T, S> like(T probe) {
+        return like(probe, ExampleMatcher.matching());
+    }
+
+    /**
+     * Creates a specification satisfied by a target whose attributes match the attributes of the probe, all or any of them as the matcher decides.
+     * <br>
+     * The attributes are matched with the null handler, the ignored paths, the string matchers, the case sensitivity and the value transformers of the matcher.
+     *
+     * @throws IllegalArgumentException if the probe is null or refers to itself, an attribute is matched with {@link ExampleMatcher.StringMatcher#REGEX},
+     *                                  or an attribute of a proxy has no getter
+     */
+    public static <T, S extends Path<T>> CompositeSpecification<T, S> like(T probe, ExampleMatcher matcher) {
+        if (probe == null) {
+            throw new IllegalArgumentException("The probe must not be null.");
+        }
+        var operands = new ArrayList<SpecificationNode>();
+        var visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        visited.add(probe);
+        addOperands(probe, "", new ExampleMatcherAccessor(matcher), visited, operands);
+        if (operands.isEmpty()) {
+            return CompositeSpecification.fromNode(SpecificationNode.NoOp.INSTANCE);
+        } else if (operands.size() == 1) {
+            return CompositeSpecification.fromNode(operands.get(0));
+        }
+        return CompositeSpecification.fromNode(matcher.isAllMatching() ? new SpecificationNode.And(operands) : new SpecificationNode.Or(operands));
+    }
+
+    /**
+     * Adds the nodes that match the attributes of the probe to the operands. A nested attribute is matched with the nodes of its attributes
+     * <br>
+     * rather than with a junction, so they are the operands of the same junction, e.g. any of them satisfies {@code matchingAny()}.
+     */
+    private static void addOperands(Object probe, String prefix, ExampleMatcherAccessor matcher, Set<Object> visited, List<SpecificationNode> operands) {
+        var type = ProxyUtils.getUserClass(probe);
+        var proxy = type != probe.getClass();
+        for (var attribute : ATTRIBUTES.get(type)) {
+            var path = prefix + attribute.getName();
+            if (matcher.isIgnoredPath(path)) {
+                continue;
+            } else if (proxy && !attribute.hasGetter()) {
+                throw new IllegalArgumentException("The attribute " + path + " of the proxy of " + type.getName() + " must have a getter.");
+            }
+            var value = matcher.getValueTransformerForPath(path).apply(Optional.ofNullable(attribute.read(probe))).orElse(null);
+            if (value == null) {
+                if (matcher.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+                    operands.add(new SpecificationNode.Get(attribute.getName(), new SpecificationNode.Leaf(IS_NULL_BUILDER, IS_NULL, List.of())));
+                }
+            } else if (attribute.isNested()) {
+                if (!visited.add(value)) {
+                    throw new IllegalArgumentException("The attribute " + path + " of the probe refers to the probe.");
+                }
+                var nestedOperands = new ArrayList<SpecificationNode>();
+                addOperands(value, path + '.', matcher, visited, nestedOperands);
+                visited.remove(value);
+                for (var nestedOperand : nestedOperands) {
+                    operands.add(new SpecificationNode.Get(attribute.getName(), nestedOperand));
+                }
+            } else {
+                operands.add(new SpecificationNode.Get(attribute.getName(), match(value, path, matcher)));
+            }
+        }
+    }
+
+    private static SpecificationNode match(Object value, String path, ExampleMatcherAccessor matcher) {
+        if (!(value instanceof String)) {
+            return new SpecificationNode.Comparison(Operator.EQUAL, value);
+        }
+        var string = (String) value;
+        var ignoreCase = matcher.isIgnoreCaseForPath(path);
+        String pattern;
+        switch (matcher.getStringMatcherForPath(path)) {
+            case DEFAULT:
+            case EXACT:
+                if (!ignoreCase) {
+                    return new SpecificationNode.Comparison(Operator.EQUAL, string);
+                }
+                pattern = escape(string);
+                break;
+            case STARTING:
+                pattern = escape(string) + '%';
+                break;
+            case ENDING:
+                pattern = '%' + escape(string);
+                break;
+            case CONTAINING:
+                pattern = '%' + escape(string) + '%';
+                break;
+            default:
+                throw new IllegalArgumentException("The string matcher of " + path + " is not supported.");
+        }
+        var casePattern = ignoreCase ? pattern.toLowerCase(Locale.ROOT) : pattern;
+        return new SpecificationNode.Leaf(new LikePredicateBuilder(casePattern, ignoreCase), LIKE, List.of(casePattern, ignoreCase));
+    }
+
+    private static String escape(String value) {
+        var escaped = new StringBuilder(value.length());
+        for (var i = 0; i < value.length(); i++) {
+            var character = value.charAt(i);
+            if (character == ESCAPE || character == '%' || character == '_') {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(character);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Returns the attributes of the type, the attributes of the superclasses first.
+     */
+    private static List<ExampleAttribute> resolve(Class<?> type) {
+        var hierarchy = new ArrayDeque<Class<?>>();
+        for (var declaringType = type; declaringType != null && declaringType != Object.class; declaringType = declaringType.getSuperclass()) {
+            hierarchy.push(declaringType);
+        }
+        var attributes = new ArrayList<ExampleAttribute>();
+        for (var declaringType : hierarchy) {
+            for (var field : declaringType.getDeclaredFields()) {
+                var fieldType = field.getType();
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers()) || field.isSynthetic() || field.isAnnotationPresent(Transient.class)
+                        || Collection.class.isAssignableFrom(fieldType) || Map.class.isAssignableFrom(fieldType) || fieldType.isArray() && fieldType != byte[].class) {
+                    continue;
+                }
+                var nested = field.isAnnotationPresent(Embedded.class) || field.isAnnotationPresent(EmbeddedId.class) || field.isAnnotationPresent(ManyToOne.class)
+                        || field.isAnnotationPresent(OneToOne.class) || fieldType.isAnnotationPresent(Embeddable.class);
+                attributes.add(new ExampleAttribute(field.getName(), AttributeAccessors.of(type, field.getName()), AttributeAccessors.hasGetter(type, field.getName()), nested));
+            }
+        }
+        return List.copyOf(attributes);
+    }
+
+    private static final class ExampleAttribute {
+
+        private final String name;
+
+        private final Function<Object, Object> accessor;
+
+        private final boolean getter;
+
+        private final boolean nested;
+
+        private ExampleAttribute(String name, Function<Object, Object> accessor, boolean getter, boolean nested) {
+            this.name = name;
+            this.accessor = accessor;
+            this.getter = getter;
+            this.nested = nested;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Object read(Object probe) {
+            return accessor.apply(probe);
+        }
+
+        /**
+         * Returns whether the attribute is read with its getter, so it may be read from a proxy.
+         */
+        boolean hasGetter() {
+            return getter;
+        }
+
+        /**
+         * Returns whether the attribute is matched by its attributes, i.e. it is embedded or a single-valued association.
+         */
+        boolean isNested() {
+            return nested;
+        }
+    }
+
+    /**
+     * This class creates the predicate that the string expression, lower-cased if the case is ignored, matches the pattern.
+     */
+    private static final class LikePredicateBuilder implements PredicateBuilder<Expression<String>> {
+
+        private final String pattern;
+
+        private final boolean ignoreCase;
+
+        private LikePredicateBuilder(String pattern, boolean ignoreCase) {
+            this.pattern = pattern;
+            this.ignoreCase = ignoreCase;
+        }
+
+        @Override
+        public Predicate toPredicate(Expression<String> expression, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+            return criteriaBuilder.like(ignoreCase ? criteriaBuilder.lower(expression) : expression, pattern, ESCAPE);
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package io.github.bartoszpop.jpa.specification;
 
+import io.github.bartoszpop.jpa.specification.SpecificationNode.Comparison;
+import io.github.bartoszpop.jpa.specification.SpecificationNode.Comparison.Operator;
+import io.github.bartoszpop.jpa.specification.SpecificationNode.In;
+
 import javax.persistence.criteria.Expression;
 import java.util.Collection;
 
 /**
  * This class provides predefined specifications applicable to instances of {@link Expression}.
+ * <p>
+ * The values are passed to {@link javax.persistence.criteria.CriteriaBuilder} as they are, i.e. the JPA provider decides whether to render them as literals,
+ * <br>
+ * unless {@link CompositeSpecificationExecutor} binds them to the parameters, see {@link CompositeSpecificationExecutor#setBindParameters}.
  *
  * @author Bartosz Popiela
  */
@@ -13,26 +21,39 @@ public final class ExpressionSpecifications {
     }
 
     public static <T extends Comparable<? super T>, S extends Expression<T>> CompositeSpecification<T, S> equal(T object) {
-        return CompositeSpecification.<T, S, TypeSafePredicateBuilder<Expression<T>>>of((root, query, criteriaBuilder) -> criteriaBuilder.equal(root, object));
+        return CompositeSpecification.fromNode(new Comparison(Operator.EQUAL, object));
+    }
+
+    public static <T extends Comparable<? super T>, S extends Expression<T>> CompositeSpecification<T, S> notEqual(T object) {
+        return CompositeSpecification.fromNode(new Comparison(Operator.NOT_EQUAL, object));
     }
 
     public static <T extends Comparable<? super T>, S extends Expression<T>> CompositeSpecification<T, S> greaterThan(T object) {
-        return CompositeSpecification.<T, S, TypeSafePredicateBuilder<Expression<T>>>of((root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root, object));
+        return CompositeSpecification.fromNode(new Comparison(Operator.GREATER_THAN, object));
     }
 
     public static <T extends Comparable<? super T>, S extends Expression<T>> CompositeSpecification<T, S> greaterThanOrEqualTo(T object) {
-        return CompositeSpecification.<T, S, TypeSafePredicateBuilder<Expression<T>>>of((root, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(root, object));
+        return CompositeSpecification.fromNode(new Comparison(Operator.GREATER_THAN_OR_EQUAL_TO, object));
     }
 
     public static <T extends Comparable<? super T>, S extends Expression<T>> CompositeSpecification<T, S> lessThan(T object) {
-        return CompositeSpecification.<T, S, TypeSafePredicateBuilder<Expression<T>>>of((root, query, criteriaBuilder) -> criteriaBuilder.lessThan(root, object));
+        return CompositeSpecification.fromNode(new Comparison(Operator.LESS_THAN, object));
     }
 
     public static <T extends Comparable<? super T>, S extends Expression<T>> CompositeSpecification<T, S> lessThanOrEqualTo(T object) {
-        return CompositeSpecification.<T, S, TypeSafePredicateBuilder<Expression<T>>>of((root, query, criteriaBuilder) -> criteriaBuilder.lessThanOrEqualTo(root, object));
+        return CompositeSpecification.fromNode(new Comparison(Operator.LESS_THAN_OR_EQUAL_TO, object));
     }
 
     public static <T, S extends Expression<T>> CompositeSpecification<T, S> in(Collection<T> objects) {
-        return CompositeSpecification.<T, S, TypeSafePredicateBuilder<Expression<T>>>of((root, query, criteriaBuilder) -> root.in(objects));
+        return in(objects, InStrategy.direct());
+    }
+
+    /**
+     * Creates a specification satisfied by a target that is a member of the objects, rendered as the strategy decides,
+     * <br>
+     * e.g. {@code in(ids, InStrategy.direct().padToPowerOfTwo().chunkSize(1000))} for the database that limits the values of {@code in} to 1000.
+     */
+    public static <T, S extends Expression<T>> CompositeSpecification<T, S> in(Collection<T> objects, InStrategy strategy) {
+        return CompositeSpecification.fromNode(new In(objects, strategy));
     }
 }
@@ -0,0 +1,139 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class counts the entities satisfying a specification and each of the facets with a single query, e.g. the counts of the filters of a search sidebar,
+ * <pre>{@code
+ * select sum(case when <facet 1> then 1 else 0 end), sum(case when <facet 2> then 1 else 0 end), ... from <entity> where <specification>
+ * }</pre>
+ * rather than with a query per facet. If a join of a collection makes the query distinct, a facet counts the distinct identifiers instead,
+ * <br>
+ * i.e. {@code count(distinct case when <facet> then id end)}, since an entity is scanned once per element of the collection.
+ * <p>
+ * The facets are rendered against the same root as the specification, so a join of the same attribute is shared, see {@link JoinRegistry}.
+ * <br>
+ * The joins of a facet are rendered as left joins, thus a facet does not drop the entities the other facets count, see {@link LeftJoinConverter}.
+ * <br>
+ * A left join of a facet reuses the inner join of the same attribute the specification has created, so a facet counts as
+ * <br>
+ * {@code count(specification.and(facet))} does, e.g. the same employee satisfies both, and the rows are not multiplied by another join.
+ * <br>
+ * The joins created by {@link PredicateBuilder} of a facet are not converted, since the builder is opaque, e.g. it calls {@link Root#join} or
+ * <br>
+ * {@link JoinRegistry#join} with {@link javax.persistence.criteria.JoinType#INNER}, thus such a facet must create left joins itself.
+ *
+ * @param <T> the type of the entity
+ * @author Bartosz Popiela
+ */
+public class FacetCounter<T> {
+
+    private final JpaEntityInformation<T, ?> entityInformation;
+
+    private final EntityManager entityManager;
+
+    public FacetCounter(Class<T> domainClass, EntityManager entityManager) {
+        this.entityInformation = JpaEntityInformationSupport.getEntityInformation(domainClass, entityManager);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Returns the number of the entities satisfying the specification and the facet, for each of the facets in order.
+     *
+     * @throws IllegalArgumentException if there is no facet
+     */
+    public List<Long> count(CompositeSpecification<T, ?> specification, List<? extends CompositeSpecification<T, ?>> facets) {
+        if (facets.isEmpty()) {
+            throw new IllegalArgumentException("The facets must not be empty.");
+        }
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(entityInformation.getJavaType());
+        var facetPredicates = render(specification, facets, root, query, criteriaBuilder);
+        var selections = new ArrayList<Selection<?>>(facetPredicates.size());
+        for (var facetPredicate : facetPredicates) {
+            selections.add(count(criteriaBuilder, root, facetPredicate, query.isDistinct(), entityInformation.getRequiredIdAttribute().getName()));
+        }
+        // The counts are distinct themselves, so the query is not
+        var typedQuery = entityManager.createQuery(query.multiselect(selections).distinct(false));
+        var metrics = SpecificationInstrumentation.metricsOf(specification.getName());
+        var start = System.nanoTime();
+        var tuple = typedQuery.getSingleResult();
+        if (metrics != null) {
+            metrics.executed(specification.getName(), System.nanoTime() - start, 1);
+        }
+        var counts = new ArrayList<Long>(selections.size());
+        for (var i = 0; i < selections.size(); i++) {
+            // The sum is null if no entity satisfies the specification
+            var count = tuple.get(i, Long.class);
+            counts.add(count != null ? count : 0L);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the number of the entities satisfying the specification and the facet by the key of each of the facets, in order of the facets.
+     *
+     * @throws IllegalArgumentException if there is no facet
+     */
+    public <K> Map<K, Long> count(CompositeSpecification<T, ?> specification, Map<K, ? extends CompositeSpecification<T, ?>> facets) {
+        var counts = count(specification, new ArrayList<>(facets.values()));
+        var countsByKey = new LinkedHashMap<K, Long>();
+        var i = 0;
+        for (var key : facets.keySet()) {
+            countsByKey.put(key, counts.get(i++));
+        }
+        return countsByKey;
+    }
+
+    /**
+     * Renders the specification in the where clause of the query and returns the predicates of the facets, null for a facet that does not restrict the entities.
+     */
+    static <T> List<Predicate> render(CompositeSpecification<T, ?> specification, List<? extends CompositeSpecification<T, ?>> facets, Root<T> root,
+                                      CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        // The specification and the facets share the paths of the same parents
+        var context = new RenderContext(null);
+        return context.render(() -> {
+            var predicate = CompositeSpecification.<T, Object>fromNode(specification.getSimplifiedNode().accept(FetchEliminator.COUNT))
+                    .named(specification.getName())
+                    .toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            context.setJoinsShared(true);
+            var predicates = new ArrayList<Predicate>(facets.size());
+            for (var facet : facets) {
+                predicates.add(CompositeSpecification.<T, Object>fromNode(facet.getSimplifiedNode().accept(LeftJoinConverter.INSTANCE).accept(FetchEliminator.COUNT))
+                        .named(facet.getName())
+                        .toPredicate(root, query, criteriaBuilder));
+            }
+            return predicates;
+        });
+    }
+
+    /**
+     * Returns the expression counting the entities satisfying the predicate, or all the entities if the predicate is null, i.e. the facet does not restrict them.
+     */
+    static Expression<Long> count(CriteriaBuilder criteriaBuilder, Root<?> root, Predicate predicate, boolean distinct, String idAttribute) {
+        if (predicate == null) {
+            return distinct ? criteriaBuilder.countDistinct(root) : criteriaBuilder.count(root);
+        } else if (distinct) {
+            var id = root.get(idAttribute);
+            return criteriaBuilder.countDistinct(criteriaBuilder.selectCase().when(predicate, id).otherwise(criteriaBuilder.nullLiteral(id.getJavaType())));
+        }
+        return criteriaBuilder.sum(criteriaBuilder.<Long>selectCase().when(predicate, 1L).otherwise(0L));
+    }
+}
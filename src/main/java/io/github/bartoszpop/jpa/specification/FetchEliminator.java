@@ -0,0 +1,113 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.JoinType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class replaces {@link SpecificationNode.Fetch} with {@link SpecificationNode.Join}, so the tree restricts the same roots without fetching.
+ * <p>
+ * A left fetch join without a predicate does not restrict the roots, thus it is replaced with {@link SpecificationNode.NoOp}.
+ * <br>
+ * The visitor returns the visited node itself if it contains no fetch join, so the caller may tell whether the tree fetches anything.
+ * <p>
+ * {@link FetchEliminator#COUNT} also replaces a left join without a predicate with {@link SpecificationNode.NoOp}, since it does not restrict the roots either,
+ * <br>
+ * e.g. a join to order by, so a count query neither joins nor counts distinct roots because of it.
+ *
+ * @author Bartosz Popiela
+ */
+final class FetchEliminator implements SpecificationVisitor<SpecificationNode> {
+
+    static final FetchEliminator INSTANCE = new FetchEliminator(false);
+
+    static final FetchEliminator COUNT = new FetchEliminator(true);
+
+    private final boolean leftJoinEliminated;
+
+    private FetchEliminator(boolean leftJoinEliminated) {
+        this.leftJoinEliminated = leftJoinEliminated;
+    }
+
+    @Override
+    public SpecificationNode visitLeaf(SpecificationNode.Leaf leaf) {
+        return leaf;
+    }
+
+    @Override
+    public SpecificationNode visitNoOp(SpecificationNode.NoOp noOp) {
+        return noOp;
+    }
+
+    @Override
+    public SpecificationNode visitAnd(SpecificationNode.And and) {
+        var operands = eliminate(and.getOperands());
+        return operands != and.getOperands() ? new SpecificationNode.And(operands) : and;
+    }
+
+    @Override
+    public SpecificationNode visitOr(SpecificationNode.Or or) {
+        var operands = eliminate(or.getOperands());
+        return operands != or.getOperands() ? new SpecificationNode.Or(operands) : or;
+    }
+
+    @Override
+    public SpecificationNode visitNot(SpecificationNode.Not not) {
+        var operand = not.getOperand().accept(this);
+        return operand != not.getOperand() ? new SpecificationNode.Not(operand) : not;
+    }
+
+    @Override
+    public SpecificationNode visitGet(SpecificationNode.Get get) {
+        var operand = get.getOperand().accept(this);
+        return operand != get.getOperand() ? get.withOperand(operand) : get;
+    }
+
+    @Override
+    public SpecificationNode visitJoin(SpecificationNode.Join join) {
+        var operand = join.getOperand().accept(this);
+        if (leftJoinEliminated && join.getJoinType() == JoinType.LEFT && operand instanceof SpecificationNode.NoOp) {
+            return SpecificationNode.NoOp.INSTANCE;
+        }
+        return operand != join.getOperand() ? join.withOperand(operand) : join;
+    }
+
+    @Override
+    public SpecificationNode visitFetch(SpecificationNode.Fetch fetch) {
+        var operand = fetch.getOperand().accept(this);
+        if (fetch.getJoinType() == JoinType.LEFT && operand instanceof SpecificationNode.NoOp) {
+            return SpecificationNode.NoOp.INSTANCE;
+        }
+        return new SpecificationNode.Join(fetch.getAttribute(), fetch.getMetamodelAttribute(), fetch.getJoinType(), operand);
+    }
+
+    @Override
+    public SpecificationNode visitExists(SpecificationNode.Exists exists) {
+        var operand = exists.getOperand().accept(this);
+        return operand != exists.getOperand() ? exists.withOperand(operand) : exists;
+    }
+
+    @Override
+    public SpecificationNode visitComparison(SpecificationNode.Comparison comparison) {
+        return comparison;
+    }
+
+    @Override
+    public SpecificationNode visitIn(SpecificationNode.In in) {
+        return in;
+    }
+
+    /**
+     * Returns the operands themselves if none of them fetches.
+     */
+    private List<SpecificationNode> eliminate(List<SpecificationNode> operands) {
+        var eliminatedOperands = new ArrayList<SpecificationNode>(operands.size());
+        var eliminated = false;
+        for (var operand : operands) {
+            var eliminatedOperand = operand.accept(this);
+            eliminated |= eliminatedOperand != operand;
+            eliminatedOperands.add(eliminatedOperand);
+        }
+        return eliminated ? eliminatedOperands : operands;
+    }
+}
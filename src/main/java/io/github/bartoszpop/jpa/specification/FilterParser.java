@@ -0,0 +1,422 @@
+package io.github.bartoszpop.jpa.specification;
+
+import io.github.bartoszpop.jpa.specification.SpecificationNode.Comparison.Operator;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * This class compiles a filter of the RSQL-like language, e.g. {@code firstName==John;dateOfBirth=ge=1967-01-01}, into {@link CompositeSpecification}.
+ * <p>
+ * A filter is a disjunction of conjunctions, i.e. {@code ;} binds tighter than {@code ,}, and a parenthesized filter is a constraint itself.
+ * <br>
+ * A constraint is a selector, an operator and an argument, or the arguments in parentheses for {@code =in=} and {@code =out=}.
+ * <br>
+ * The operators are {@code ==}, {@code !=}, {@code =gt=} or {@code >}, {@code =ge=} or {@code >=}, {@code =lt=} or {@code <}, {@code =le=} or {@code <=}, {@code =in=} and {@code =out=}.
+ * <br>
+ * An argument is quoted with {@code "} or {@code '} if it contains a reserved character, i.e. a whitespace or one of {@code "'();,=<>!~}.
+ * <br>
+ * The parentheses may be nested at most 64 levels deep.
+ * <p>
+ * A selector is either an attribute registered along with the type its arguments are converted to, e.g. {@code attribute("dateOfBirth", LocalDate.class)},
+ * <br>
+ * or a join followed by a dot and a selector of the parser of the join, e.g. {@code employees.firstName} for
+ * <br>
+ * {@code join("employees", employeeParser, DepartmentSpecifications::joinEmployees)}. An attribute may be nested, e.g. {@code department.name}.
+ * <p>
+ * The filter is scanned character by character once. The specifications of the most recently parsed filters are cached, since a specification is immutable
+ * <br>
+ * and the same filters are parsed repeatedly, e.g. by a REST endpoint. The cache is cleared if an attribute or a join is registered.
+ *
+ * @param <T> the type of the entity
+ * @param <S> the type of a target the predicate evaluates on
+ * @author Bartosz Popiela
+ */
+public final class FilterParser<T, S> {
+
+    private static final String RESERVED_CHARACTERS = "\"'();,=<>!~";
+
+    /**
+     * The maximum nesting depth of the parentheses, since a parenthesized filter is parsed recursively.
+     */
+    private static final int MAX_DEPTH = 64;
+
+    private static final Map<Class<?>, Function<String, Object>> CONVERTERS = Map.ofEntries(
+            Map.entry(String.class, argument -> argument),
+            Map.entry(Boolean.class, FilterParser::toBoolean),
+            Map.entry(Integer.class, Integer::valueOf),
+            Map.entry(Long.class, Long::valueOf),
+            Map.entry(Double.class, Double::valueOf),
+            Map.entry(BigDecimal.class, BigDecimal::new),
+            Map.entry(LocalDate.class, LocalDate::parse),
+            Map.entry(LocalDateTime.class, LocalDateTime::parse),
+            Map.entry(Instant.class, Instant::parse),
+            Map.entry(UUID.class, UUID::fromString)
+    );
+
+    private final Map<String, Attribute> attributes = new ConcurrentHashMap<>();
+
+    private final Map<String, Function<List<String>, SpecificationNode>> joins = new ConcurrentHashMap<>();
+
+    private final Map<String, CompositeSpecification<T, S>> specifications;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public FilterParser(int maximumCacheSize) {
+        if (maximumCacheSize <= 0) {
+            throw new IllegalArgumentException("The maximum cache size must be positive.");
+        }
+        this.specifications = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompositeSpecification<T, S>> eldest) {
+                return size() > maximumCacheSize;
+            }
+        };
+    }
+
+    /**
+     * Registers the attribute, or the nested attributes separated with dots, the arguments of which are converted to the type.
+     *
+     * @throws IllegalArgumentException if the type is neither an enum nor one of {@link String}, {@link Boolean}, {@link Integer}, {@link Long}, {@link Double},
+     *                                  {@link BigDecimal}, {@link LocalDate}, {@link LocalDateTime}, {@link Instant} and {@link UUID}
+     */
+    public FilterParser<T, S> attribute(String selector, Class<?> type) {
+        attributes.put(selector, new Attribute(selector, toConverter(type)));
+        return clearCache();
+    }
+
+    /**
+     * Registers the join, e.g. {@code DepartmentSpecifications::joinEmployees}, of the specification the parser of the join compiles the selectors after the dot to.
+     */
+    public <U, V> FilterParser<T, S> join(String selector, FilterParser<U, V> parser,
+                                          Function<? super CompositeSpecification<U, V>, ? extends CompositeSpecification<T, ? super S>> join) {
+        joins.put(selector, constraint -> join.apply(CompositeSpecification.fromNode(parser.toConstraint(constraint))).getNode());
+        return clearCache();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the filter is malformed, a selector is not registered or an argument is not of the type of the attribute
+     */
+    public CompositeSpecification<T, S> parse(String filter) {
+        CompositeSpecification<T, S> specification;
+        synchronized (specifications) {
+            specification = specifications.get(filter);
+        }
+        if (specification != null) {
+            hitCount.incrementAndGet();
+            return specification;
+        }
+        missCount.incrementAndGet();
+        specification = CompositeSpecification.fromNode(new Parser(filter).parse());
+        synchronized (specifications) {
+            specifications.putIfAbsent(filter, specification);
+        }
+        return specification;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private FilterParser<T, S> clearCache() {
+        synchronized (specifications) {
+            specifications.clear();
+        }
+        return this;
+    }
+
+    /**
+     * Returns the node of the constraint, i.e. the selector, the operator and the arguments.
+     */
+    private SpecificationNode toConstraint(List<String> constraint) {
+        var selector = constraint.get(0);
+        var attribute = attributes.get(selector);
+        if (attribute != null) {
+            return attribute.toNode(constraint.get(1), constraint.subList(2, constraint.size()));
+        }
+        var dot = selector.indexOf('.');
+        var join = dot > 0 ? joins.get(selector.substring(0, dot)) : null;
+        if (join == null) {
+            throw new IllegalArgumentException("The selector " + selector + " is not registered.");
+        }
+        var joinedConstraint = new ArrayList<>(constraint);
+        joinedConstraint.set(0, selector.substring(dot + 1));
+        return join.apply(joinedConstraint);
+    }
+
+    private static Function<String, Object> toConverter(Class<?> type) {
+        if (type.isEnum()) {
+            return argument -> toEnum(type, argument);
+        }
+        var converter = CONVERTERS.get(type);
+        if (converter == null) {
+            throw new IllegalArgumentException("The type " + type.getName() + " is not supported.");
+        }
+        return converter;
+    }
+
+    private static Object toBoolean(String argument) {
+        if (!argument.equals("true") && !argument.equals("false")) {
+            throw new IllegalArgumentException("The argument " + argument + " is not a boolean.");
+        }
+        return Boolean.valueOf(argument);
+    }
+
+    private static Object toEnum(Class<?> type, String argument) {
+        for (var constant : type.getEnumConstants()) {
+            if (((Enum<?>) constant).name().equals(argument)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("The argument " + argument + " is not a constant of " + type.getName() + ".");
+    }
+
+    private static boolean isUnreserved(char character) {
+        return !Character.isWhitespace(character) && RESERVED_CHARACTERS.indexOf(character) < 0;
+    }
+
+    /**
+     * This class is an attribute along with the converter of its arguments.
+     */
+    private static final class Attribute {
+
+        private final String[] path;
+
+        private final Function<String, Object> converter;
+
+        private Attribute(String selector, Function<String, Object> converter) {
+            this.path = selector.split("\\.");
+            this.converter = converter;
+        }
+
+        private SpecificationNode toNode(String operator, List<String> arguments) {
+            var node = toOperatorNode(operator, arguments);
+            for (var i = path.length - 1; i >= 0; i--) {
+                node = new SpecificationNode.Get(path[i], node);
+            }
+            return node;
+        }
+
+        private SpecificationNode toOperatorNode(String operator, List<String> arguments) {
+            switch (operator) {
+                case "=in=":
+                    return new SpecificationNode.In(convert(arguments), InStrategy.direct());
+                case "=out=":
+                    return new SpecificationNode.Not(new SpecificationNode.In(convert(arguments), InStrategy.direct()));
+                default:
+                    if (arguments.size() != 1) {
+                        throw new IllegalArgumentException("The operator " + operator + " requires a single argument.");
+                    }
+                    return new SpecificationNode.Comparison(toOperator(operator), convert(arguments.get(0)));
+            }
+        }
+
+        private static Operator toOperator(String operator) {
+            switch (operator) {
+                case "==":
+                    return Operator.EQUAL;
+                case "!=":
+                    return Operator.NOT_EQUAL;
+                case "=gt=":
+                case ">":
+                    return Operator.GREATER_THAN;
+                case "=ge=":
+                case ">=":
+                    return Operator.GREATER_THAN_OR_EQUAL_TO;
+                case "=lt=":
+                case "<":
+                    return Operator.LESS_THAN;
+                case "=le=":
+                case "<=":
+                    return Operator.LESS_THAN_OR_EQUAL_TO;
+                default:
+                    throw new IllegalArgumentException("The operator " + operator + " is not supported.");
+            }
+        }
+
+        private List<Object> convert(List<String> arguments) {
+            var values = new ArrayList<>(arguments.size());
+            for (var argument : arguments) {
+                values.add(convert(argument));
+            }
+            return values;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the argument is not of the type of the attribute
+         */
+        private Object convert(String argument) {
+            try {
+                return converter.apply(argument);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("The argument " + argument + " of " + String.join(".", path) + " is malformed.", e);
+            }
+        }
+    }
+
+    /**
+     * This class parses a filter with a recursive descent, so each character is read once without backtracking.
+     */
+    private final class Parser {
+
+        private final String filter;
+
+        private int position;
+
+        private int depth;
+
+        private Parser(String filter) {
+            this.filter = filter;
+        }
+
+        private SpecificationNode parse() {
+            var node = parseOr();
+            skipWhitespace();
+            if (position != filter.length()) {
+                throw malformed("',' or ';'");
+            }
+            return node;
+        }
+
+        private SpecificationNode parseOr() {
+            var operands = new ArrayList<SpecificationNode>();
+            operands.add(parseAnd());
+            while (skipWhitespace() && filter.charAt(position) == ',') {
+                position++;
+                operands.add(parseAnd());
+            }
+            return operands.size() == 1 ? operands.get(0) : new SpecificationNode.Or(operands);
+        }
+
+        private SpecificationNode parseAnd() {
+            var operands = new ArrayList<SpecificationNode>();
+            operands.add(parseConstraint());
+            while (skipWhitespace() && filter.charAt(position) == ';') {
+                position++;
+                operands.add(parseConstraint());
+            }
+            return operands.size() == 1 ? operands.get(0) : new SpecificationNode.And(operands);
+        }
+
+        private SpecificationNode parseConstraint() {
+            if (skipWhitespace() && filter.charAt(position) == '(') {
+                if (++depth > MAX_DEPTH) {
+                    throw malformed("at most " + MAX_DEPTH + " nested parentheses");
+                }
+                position++;
+                var node = parseOr();
+                if (!skipWhitespace() || filter.charAt(position) != ')') {
+                    throw malformed("')'");
+                }
+                position++;
+                depth--;
+                return node;
+            }
+            var constraint = new ArrayList<String>();
+            constraint.add(parseUnreserved("selector"));
+            skipWhitespace();
+            constraint.add(parseOperator());
+            if (skipWhitespace() && filter.charAt(position) == '(') {
+                position++;
+                do {
+                    constraint.add(parseArgument());
+                } while (skipWhitespace() && filter.charAt(position++) == ',');
+                if (filter.charAt(position - 1) != ')') {
+                    throw malformed("')'");
+                }
+            } else {
+                constraint.add(parseArgument());
+            }
+            return toConstraint(constraint);
+        }
+
+        private String parseOperator() {
+            var start = position;
+            if (position < filter.length() && filter.charAt(position) == '=') {
+                position++;
+                while (position < filter.length() && Character.isLetter(filter.charAt(position))) {
+                    position++;
+                }
+                expect('=');
+            } else if (position < filter.length() && (filter.charAt(position) == '!' || filter.charAt(position) == '<' || filter.charAt(position) == '>')) {
+                var character = filter.charAt(position++);
+                if (character == '!' || position < filter.length() && filter.charAt(position) == '=') {
+                    expect('=');
+                }
+            } else {
+                throw malformed("operator");
+            }
+            return filter.substring(start, position);
+        }
+
+        private String parseArgument() {
+            if (!skipWhitespace()) {
+                throw malformed("argument");
+            }
+            var quote = filter.charAt(position);
+            if (quote != '"' && quote != '\'') {
+                return parseUnreserved("argument");
+            }
+            var argument = new StringBuilder();
+            position++;
+            while (position < filter.length() && filter.charAt(position) != quote) {
+                if (filter.charAt(position) == '\\') {
+                    position++;
+                }
+                if (position < filter.length()) {
+                    argument.append(filter.charAt(position++));
+                }
+            }
+            expect(quote);
+            return argument.toString();
+        }
+
+        private String parseUnreserved(String expected) {
+            var start = position;
+            while (position < filter.length() && isUnreserved(filter.charAt(position))) {
+                position++;
+            }
+            if (start == position) {
+                throw malformed(expected);
+            }
+            return filter.substring(start, position);
+        }
+
+        private void expect(char character) {
+            if (position >= filter.length() || filter.charAt(position) != character) {
+                throw malformed("'" + character + "'");
+            }
+            position++;
+        }
+
+        /**
+         * Returns false if the end of the filter is reached.
+         */
+        private boolean skipWhitespace() {
+            while (position < filter.length() && Character.isWhitespace(filter.charAt(position))) {
+                position++;
+            }
+            return position < filter.length();
+        }
+
+        private IllegalArgumentException malformed(String expected) {
+            return new IllegalArgumentException("Expected " + expected + " at " + position + " of the filter " + filter + ".");
+        }
+    }
+}
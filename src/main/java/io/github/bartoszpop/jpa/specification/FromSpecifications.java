@@ -0,0 +1,102 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.metamodel.PluralAttribute;
+import javax.persistence.metamodel.SingularAttribute;
+
+/**
+ * This class provides predefined specifications applicable to instances of {@link From}.
+ * <p>
+ * The attributes are passed either by the name or as the attributes of the static metamodel, e.g. {@code join(Department_.employees, JoinType.LEFT, firstName("John"))}.
+ * <br>
+ * The latter do not compile if misspelled or if the specification is of another type, and the JPA provider does not look them up by the name.
+ * The specifications are equal regardless of how the attribute is passed.
+ *
+ * @author Bartosz Popiela
+ */
+public final class FromSpecifications {
+    private FromSpecifications() {
+    }
+
+    /**
+     * Creates a specification that joins the attribute and applies the specification to the join.
+     * The join is shared with the other specifications joining the attribute with the same {@link JoinType}, see {@link JoinRegistry}.
+     */
+    public static <T, Y, S extends From<?, T>> CompositeSpecification<T, S> join(String attribute, JoinType joinType, CompositeSpecification<?, ? super Join<T, Y>> specification) {
+        return CompositeSpecification.fromNode(new SpecificationNode.Join(attribute, joinType, specification.getNode()));
+    }
+
+    /**
+     * Creates a specification that fetches the attribute and applies the specification to the fetch join.
+     * The fetch join is shared with the other specifications fetching the attribute with the same {@link JoinType}, see {@link JoinRegistry}.
+     * <br>
+     * Unless the query selects the roots, e.g. a count query, the fetch join is rendered as a join, see {@link QueryKind}.
+     */
+    public static <T, Y, S extends From<?, T>> CompositeSpecification<T, S> fetch(String attribute, JoinType joinType, CompositeSpecification<?, ? super Join<T, Y>> specification) {
+        return CompositeSpecification.fromNode(new SpecificationNode.Fetch(attribute, joinType, specification.getNode()));
+    }
+
+    /**
+     * Creates a specification satisfied by a target that has an element of the attribute the specification applies to.
+     * <p>
+     * It is rendered as a correlated {@code exists} subquery, thus unlike {@link FromSpecifications#join}, it neither multiplies the rows
+     * <br>
+     * nor requires {@link javax.persistence.criteria.CriteriaQuery#distinct}. The specification must not fetch, since it applies to the subquery.
+     */
+    public static <T, Y, S extends From<?, T>> CompositeSpecification<T, S> anyMatch(String attribute, CompositeSpecification<?, ? super Join<T, Y>> specification) {
+        return CompositeSpecification.fromNode(new SpecificationNode.Exists(attribute, specification.getNode()));
+    }
+
+    /**
+     * Creates a specification satisfied by a target that has no element of the attribute the specification applies to.
+     *
+     * @see FromSpecifications#anyMatch
+     */
+    public static <T, Y, S extends From<?, T>> CompositeSpecification<T, S> noneMatch(String attribute, CompositeSpecification<?, ? super Join<T, Y>> specification) {
+        return CompositeSpecification.not(anyMatch(attribute, specification));
+    }
+
+    /**
+     * @see FromSpecifications#join(String, JoinType, CompositeSpecification)
+     */
+    public static <T, Y, S extends From<?, T>> CompositeSpecification<T, S> join(SingularAttribute<? super T, Y> attribute, JoinType joinType, CompositeSpecification<?, ? super Join<T, Y>> specification) {
+        return CompositeSpecification.fromNode(new SpecificationNode.Join(attribute.getName(), attribute, joinType, specification.getNode()));
+    }
+
+    /**
+     * @see FromSpecifications#join(String, JoinType, CompositeSpecification)
+     */
+    public static <T, Y, S extends From<?, T>> CompositeSpecification<T, S> join(PluralAttribute<? super T, ?, Y> attribute, JoinType joinType, CompositeSpecification<?, ? super Join<T, Y>> specification) {
+        return CompositeSpecification.fromNode(new SpecificationNode.Join(attribute.getName(), attribute, joinType, specification.getNode()));
+    }
+
+    /**
+     * @see FromSpecifications#fetch(String, JoinType, CompositeSpecification)
+     */
+    public static <T, Y, S extends From<?, T>> CompositeSpecification<T, S> fetch(SingularAttribute<? super T, Y> attribute, JoinType joinType, CompositeSpecification<?, ? super Join<T, Y>> specification) {
+        return CompositeSpecification.fromNode(new SpecificationNode.Fetch(attribute.getName(), attribute, joinType, specification.getNode()));
+    }
+
+    /**
+     * @see FromSpecifications#fetch(String, JoinType, CompositeSpecification)
+     */
+    public static <T, Y, S extends From<?, T>> CompositeSpecification<T, S> fetch(PluralAttribute<? super T, ?, Y> attribute, JoinType joinType, CompositeSpecification<?, ? super Join<T, Y>> specification) {
+        return CompositeSpecification.fromNode(new SpecificationNode.Fetch(attribute.getName(), attribute, joinType, specification.getNode()));
+    }
+
+    /**
+     * @see FromSpecifications#anyMatch(String, CompositeSpecification)
+     */
+    public static <T, Y, S extends From<?, T>> CompositeSpecification<T, S> anyMatch(PluralAttribute<? super T, ?, Y> attribute, CompositeSpecification<?, ? super Join<T, Y>> specification) {
+        return CompositeSpecification.fromNode(new SpecificationNode.Exists(attribute.getName(), attribute, specification.getNode()));
+    }
+
+    /**
+     * @see FromSpecifications#noneMatch(String, CompositeSpecification)
+     */
+    public static <T, Y, S extends From<?, T>> CompositeSpecification<T, S> noneMatch(PluralAttribute<? super T, ?, Y> attribute, CompositeSpecification<?, ? super Join<T, Y>> specification) {
+        return CompositeSpecification.not(anyMatch(attribute, specification));
+    }
+}
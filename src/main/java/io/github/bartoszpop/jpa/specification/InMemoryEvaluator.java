@@ -0,0 +1,295 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.JoinType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * This class compiles the tree of {@link SpecificationNode} to {@link Condition} evaluated against the objects on the heap rather than in the database.
+ * <p>
+ * It expects the tree to be simplified by {@link SpecificationSimplifier} and follows three-valued logic of SQL, i.e. a comparison with null is unknown,
+ * <br>
+ * so a loaded entity satisfies a specification without joins if and only if the query rendered by {@link PredicateRenderer} would select it.
+ * <p>
+ * A join is satisfied if an element of the attribute satisfies the operand. The joins of the same attribute that are operands of the same conjunction are merged,
+ * <br>
+ * since {@link JoinRegistry} renders them as a single join, e.g. {@code joinEmployees(firstName("John")).and(joinEmployees(secondName("Doe")))}
+ * <br>
+ * is satisfied by a department with an employee named John Doe. An element of a left join is null if the attribute is null or empty.
+ * <p>
+ * The evaluation of joins may differ from the database in two cases:
+ * <br>
+ * - {@link JoinRegistry} shares a join across the whole query, while the joins in different junctions are not merged, e.g. in
+ * <br>
+ * {@code joinEmployees(firstName("John")).and(joinEmployees(secondName("Doe")).or(name("Sales")))} John and Doe may be different employees,
+ * <br>
+ * - an inner join of an empty attribute in a disjunction falsifies its operand only, not the whole specification.
+ * <p>
+ * {@link SpecificationNode.Leaf} is opaque, thus a specification of {@link PredicateBuilder} cannot be evaluated in memory.
+ *
+ * @author Bartosz Popiela
+ */
+final class InMemoryEvaluator implements SpecificationVisitor<InMemoryEvaluator.Condition> {
+
+    static final InMemoryEvaluator INSTANCE = new InMemoryEvaluator();
+
+    private static final Condition TRUE = target -> Boolean.TRUE;
+
+    private InMemoryEvaluator() {
+    }
+
+    @Override
+    public Condition visitLeaf(SpecificationNode.Leaf leaf) {
+        throw new UnsupportedOperationException("The specification of " + leaf.getPredicateBuilder() + " cannot be evaluated in memory.");
+    }
+
+    @Override
+    public Condition visitNoOp(SpecificationNode.NoOp noOp) {
+        return TRUE;
+    }
+
+    @Override
+    public Condition visitAnd(SpecificationNode.And and) {
+        var conditions = toConditions(mergeJoins(and.getOperands()));
+        return target -> {
+            var result = Boolean.TRUE;
+            for (var condition : conditions) {
+                var operandResult = condition.test(target);
+                if (Boolean.FALSE.equals(operandResult)) {
+                    return Boolean.FALSE;
+                } else if (operandResult == null) {
+                    result = null;
+                }
+            }
+            return result;
+        };
+    }
+
+    @Override
+    public Condition visitOr(SpecificationNode.Or or) {
+        var conditions = toConditions(or.getOperands());
+        return target -> {
+            var result = Boolean.FALSE;
+            for (var condition : conditions) {
+                var operandResult = condition.test(target);
+                if (Boolean.TRUE.equals(operandResult)) {
+                    return Boolean.TRUE;
+                } else if (operandResult == null) {
+                    result = null;
+                }
+            }
+            return result;
+        };
+    }
+
+    @Override
+    public Condition visitNot(SpecificationNode.Not not) {
+        var condition = not.getOperand().accept(this);
+        return target -> {
+            var result = condition.test(target);
+            return result != null ? !result : null;
+        };
+    }
+
+    @Override
+    public Condition visitGet(SpecificationNode.Get get) {
+        var attribute = new Attribute(get.getAttribute());
+        var condition = get.getOperand().accept(this);
+        return target -> condition.test(attribute.get(target));
+    }
+
+    @Override
+    public Condition visitJoin(SpecificationNode.Join join) {
+        return toJoinCondition(join.getAttribute(), join.getJoinType(), join.getOperand());
+    }
+
+    @Override
+    public Condition visitFetch(SpecificationNode.Fetch fetch) {
+        return toJoinCondition(fetch.getAttribute(), fetch.getJoinType(), fetch.getOperand());
+    }
+
+    @Override
+    public Condition visitExists(SpecificationNode.Exists exists) {
+        var attribute = new Attribute(exists.getAttribute());
+        var condition = exists.getOperand().accept(this);
+        return target -> {
+            for (var element : elements(attribute.get(target))) {
+                if (Boolean.TRUE.equals(condition.test(element))) {
+                    return Boolean.TRUE;
+                }
+            }
+            return Boolean.FALSE;
+        };
+    }
+
+    @Override
+    public Condition visitComparison(SpecificationNode.Comparison comparison) {
+        var value = comparison.getValue();
+        switch (comparison.getOperator()) {
+            case EQUAL:
+                return target -> target != null && value != null ? compare(target, value) == 0 : null;
+            case NOT_EQUAL:
+                return target -> target != null && value != null ? compare(target, value) != 0 : null;
+            case GREATER_THAN:
+                return target -> target != null && value != null ? compare(target, value) > 0 : null;
+            case GREATER_THAN_OR_EQUAL_TO:
+                return target -> target != null && value != null ? compare(target, value) >= 0 : null;
+            case LESS_THAN:
+                return target -> target != null && value != null ? compare(target, value) < 0 : null;
+            case LESS_THAN_OR_EQUAL_TO:
+                return target -> target != null && value != null ? compare(target, value) <= 0 : null;
+            default:
+                throw new IllegalArgumentException("Unsupported operator " + comparison.getOperator() + ".");
+        }
+    }
+
+    /**
+     * Copies the values to a hash set once, so a target is looked up in constant time.
+     */
+    @Override
+    public Condition visitIn(SpecificationNode.In in) {
+        var values = new HashSet<Object>(in.getValues());
+        var containsNull = values.remove(null);
+        return target -> {
+            if (target == null) {
+                return null;
+            } else if (values.contains(target)) {
+                return Boolean.TRUE;
+            }
+            return containsNull ? null : Boolean.FALSE;
+        };
+    }
+
+    private Condition toJoinCondition(String attributeName, JoinType joinType, SpecificationNode operand) {
+        var attribute = new Attribute(attributeName);
+        var condition = operand.accept(this);
+        return target -> {
+            var elements = elements(attribute.get(target));
+            if (elements.isEmpty()) {
+                return joinType == JoinType.LEFT ? condition.test(null) : Boolean.FALSE;
+            }
+            var result = Boolean.FALSE;
+            for (var element : elements) {
+                var elementResult = condition.test(element);
+                if (Boolean.TRUE.equals(elementResult)) {
+                    return Boolean.TRUE;
+                } else if (elementResult == null) {
+                    result = null;
+                }
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Merges the joins of the same attribute and {@link JoinType}, as {@link JoinRegistry} does, into a join of the conjunction of their operands.
+     * <br>
+     * The joins nested in the other operands are not merged, see the class documentation.
+     */
+    private static List<SpecificationNode> mergeJoins(List<SpecificationNode> operands) {
+        var joinOperands = new LinkedHashMap<String, List<SpecificationNode>>();
+        var joinTypes = new LinkedHashMap<String, JoinType>();
+        var mergedOperands = new ArrayList<SpecificationNode>(operands.size());
+        for (var operand : operands) {
+            if (operand instanceof SpecificationNode.Join) {
+                var join = (SpecificationNode.Join) operand;
+                var key = join.getAttribute() + '#' + join.getJoinType();
+                joinOperands.computeIfAbsent(key, ignored -> new ArrayList<>()).add(join.getOperand());
+                joinTypes.put(key, join.getJoinType());
+            } else {
+                mergedOperands.add(operand);
+            }
+        }
+        for (Map.Entry<String, List<SpecificationNode>> entry : joinOperands.entrySet()) {
+            var attribute = entry.getKey().substring(0, entry.getKey().lastIndexOf('#'));
+            var operand = entry.getValue().size() == 1 ? entry.getValue().get(0) : new SpecificationNode.And(entry.getValue());
+            mergedOperands.add(new SpecificationNode.Join(attribute, joinTypes.get(entry.getKey()), operand));
+        }
+        return mergedOperands;
+    }
+
+    private List<Condition> toConditions(List<SpecificationNode> operands) {
+        var conditions = new ArrayList<Condition>(operands.size());
+        for (var operand : operands) {
+            conditions.add(operand.accept(this));
+        }
+        return conditions;
+    }
+
+    /**
+     * Returns the elements of a collection or of the values of a map, the value itself if it is single-valued, or no elements if it is null.
+     */
+    private static Collection<?> elements(Object value) {
+        if (value == null) {
+            return List.of();
+        } else if (value instanceof Collection) {
+            return (Collection<?>) value;
+        } else if (value instanceof Map) {
+            return ((Map<?, ?>) value).values();
+        }
+        return List.of(value);
+    }
+
+    private static int compare(Object target, Object value) {
+        // Cast allowed because the comparison factories restrict a value to Comparable
+        //noinspection unchecked
+        return ((Comparable<Object>) target).compareTo(value);
+    }
+
+    /**
+     * This interface evaluates a node against a target and returns null if the result is unknown, e.g. a comparison with null.
+     */
+    @FunctionalInterface
+    interface Condition {
+
+        Boolean test(Object target);
+    }
+
+    /**
+     * This class reads the attribute of a target with the accessor of the last class it was read from, so the cache of {@link AttributeAccessors}
+     * <br>
+     * is looked up only if the class changes, e.g. for a subclass or a proxy. A null target has the attribute null.
+     */
+    private static final class Attribute {
+
+        private final String name;
+
+        private ClassAccessor lastAccessor;
+
+        private Attribute(String name) {
+            this.name = name;
+        }
+
+        private Object get(Object target) {
+            if (target == null) {
+                return null;
+            }
+            var accessor = lastAccessor;
+            if (accessor == null || accessor.type != target.getClass()) {
+                accessor = new ClassAccessor(target.getClass(), AttributeAccessors.of(target.getClass(), name));
+                lastAccessor = accessor;
+            }
+            return accessor.accessor.apply(target);
+        }
+    }
+
+    /**
+     * This class is immutable, so {@link Attribute} may be read by multiple threads without synchronization.
+     */
+    private static final class ClassAccessor {
+
+        private final Class<?> type;
+
+        private final Function<Object, Object> accessor;
+
+        private ClassAccessor(Class<?> type, Function<Object, Object> accessor) {
+            this.type = type;
+            this.accessor = accessor;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class decides how {@link ExpressionSpecifications#in(Collection, InStrategy)} renders the values depending on their number.
+ * <p>
+ * A database limits the number of the values of an {@code in} predicate, or the bind parameters of a statement,
+ * <br>
+ * and a statement is prepared for every number of the bound values. Thus, the values may be
+ * <ul>
+ *     <li>padded to the next power of two with the last value, so there are a few statements for all the numbers of the values,</li>
+ *     <li>split into the chunks of the maximum size, each rendered as a separate {@code in} predicate in a disjunction,</li>
+ *     <li>passed to {@link Fallback} above the threshold, e.g. to insert the values into a temporary table and select them in a subquery.</li>
+ * </ul>
+ * An instance is immutable, e.g. {@code InStrategy.direct().padToPowerOfTwo().chunkSize(1000).fallbackAbove(100_000, temporaryTable)}.
+ *
+ * @author Bartosz Popiela
+ */
+public final class InStrategy {
+
+    private static final InStrategy DIRECT = new InStrategy(false, Integer.MAX_VALUE, Integer.MAX_VALUE, null);
+
+    private final boolean padded;
+
+    private final int chunkSize;
+
+    private final int fallbackThreshold;
+
+    private final Fallback fallback;
+
+    private InStrategy(boolean padded, int chunkSize, int fallbackThreshold, Fallback fallback) {
+        this.padded = padded;
+        this.chunkSize = chunkSize;
+        this.fallbackThreshold = fallbackThreshold;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Returns the strategy that passes the values to {@link Expression#in(Collection)} as they are.
+     */
+    public static InStrategy direct() {
+        return DIRECT;
+    }
+
+    public InStrategy padToPowerOfTwo() {
+        return new InStrategy(true, chunkSize, fallbackThreshold, fallback);
+    }
+
+    /**
+     * Returns the strategy that splits the values into the chunks of at most the size. If the values are padded, so is the last chunk.
+     */
+    public InStrategy chunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive.");
+        }
+        return new InStrategy(padded, chunkSize, fallbackThreshold, fallback);
+    }
+
+    /**
+     * Returns the strategy that passes more values than the threshold to the fallback.
+     */
+    public InStrategy fallbackAbove(int threshold, Fallback fallback) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("The threshold must not be negative.");
+        }
+        return new InStrategy(padded, chunkSize, threshold, fallback);
+    }
+
+    boolean isFallback(Collection<?> values) {
+        return fallback != null && values.size() > fallbackThreshold;
+    }
+
+    Fallback getFallback() {
+        return fallback;
+    }
+
+    boolean isPadded() {
+        return padded;
+    }
+
+    /**
+     * Returns {@link Integer#MAX_VALUE} if the values are not split.
+     */
+    int getChunkSize() {
+        return chunkSize;
+    }
+
+    int getFallbackThreshold() {
+        return fallbackThreshold;
+    }
+
+    /**
+     * Returns the chunks of the values to render as separate {@code in} predicates. The values themselves are the only chunk if they need neither padding nor splitting.
+     */
+    List<Collection<?>> toChunks(Collection<?> values) {
+        if (values.isEmpty() || (values.size() <= chunkSize && (!padded || isPowerOfTwo(values.size())))) {
+            return List.of(values);
+        }
+        var chunks = new ArrayList<Collection<?>>(values.size() / Math.min(chunkSize, values.size()) + 1);
+        var chunk = new ArrayList<Object>(Math.min(chunkSize, values.size()));
+        for (var value : values) {
+            chunk.add(value);
+            if (chunk.size() == chunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(Math.min(chunkSize, values.size()));
+            }
+        }
+        if (!chunk.isEmpty()) {
+            if (padded) {
+                pad(chunk);
+            }
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Repeats the last value up to the next power of two, or up to the chunk size if it is less. A repeated value does not change the result of {@code in}.
+     */
+    private void pad(List<Object> chunk) {
+        var paddedSize = Math.min(Integer.highestOneBit(chunk.size() - 1) << 1, chunkSize);
+        var lastValue = chunk.get(chunk.size() - 1);
+        while (chunk.size() < paddedSize) {
+            chunk.add(lastValue);
+        }
+    }
+
+    /**
+     * The strategies are equal if they have the same padding, chunk size, threshold and the equal fallback.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof InStrategy)) return false;
+        InStrategy that = (InStrategy) o;
+        return padded == that.padded && chunkSize == that.chunkSize && fallbackThreshold == that.fallbackThreshold && Objects.equals(fallback, that.fallback);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(padded, chunkSize, fallbackThreshold, fallback);
+    }
+
+    private static boolean isPowerOfTwo(int size) {
+        return (size & (size - 1)) == 0;
+    }
+
+    /**
+     * This interface renders the {@code in} predicate of more values than {@link InStrategy#fallbackAbove} allows.
+     */
+    @FunctionalInterface
+    public interface Fallback {
+
+        Predicate toPredicate(Expression<?> target, Collection<?> values, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder);
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.CollectionAttribute;
+import javax.persistence.metamodel.ListAttribute;
+import javax.persistence.metamodel.MapAttribute;
+import javax.persistence.metamodel.PluralAttribute;
+import javax.persistence.metamodel.SetAttribute;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.Objects;
+
+/**
+ * This class returns the join of an attribute that already exists rather than creating a new one.
+ * <p>
+ * The joins are looked up by the parent {@link From}, the attribute and {@link JoinType} in {@link From#getJoins()} and {@link From#getFetches()},
+ * <br>
+ * which are scoped to the query the parent belongs to. A join restricted with {@link Join#on} is never returned.
+ * <p>
+ * As a consequence, the specifications joined to the same association restrict the same joined entity, e.g.
+ * <pre>{@code
+ * joinEmployees(firstName("John")).and(joinEmployees(secondName("Doe")))
+ * }</pre>
+ * finds departments with an employee named John Doe and the query has a single join.
+ * <p>
+ * {@link FromSpecifications} delegates to this class, whereas {@link PredicateBuilder} passed to {@link CompositeSpecification#of} may call it directly.
+ * <p>
+ * A join created for the attribute of the static metamodel is created with the attribute rather than its name, so the JPA provider does not look it up by the name.
+ *
+ * @author Bartosz Popiela
+ */
+public final class JoinRegistry {
+    private JoinRegistry() {
+    }
+
+    public static <X, Y> Join<X, Y> join(From<?, X> parent, String attribute, JoinType joinType) {
+        return join(parent, attribute, null, joinType);
+    }
+
+    public static <X, Y> Join<X, Y> join(From<?, X> parent, SingularAttribute<? super X, Y> attribute, JoinType joinType) {
+        return join(parent, attribute.getName(), attribute, joinType);
+    }
+
+    public static <X, Y> Join<X, Y> join(From<?, X> parent, PluralAttribute<? super X, ?, Y> attribute, JoinType joinType) {
+        return join(parent, attribute.getName(), attribute, joinType);
+    }
+
+    /**
+     * Returns the join of the attribute, created with the metamodel attribute if it is not null.
+     */
+    static <X, Y> Join<X, Y> join(From<?, X> parent, String attribute, Attribute<?, ?> metamodelAttribute, JoinType joinType) {
+        if (parent.getJoins() != null) {
+            for (var join : parent.getJoins()) {
+                if (isShareable(join.getJoinType(), joinType) && join.getOn() == null && isOf(join.getAttribute(), attribute)) {
+                    // Cast allowed because the attribute determines the type of the join
+                    //noinspection unchecked
+                    return (Join<X, Y>) join;
+                }
+            }
+        }
+        return metamodelAttribute != null ? create(parent, metamodelAttribute, joinType) : parent.join(attribute, joinType);
+    }
+
+    /**
+     * Returns the fetch join of the attribute. Unlike {@link From#fetch}, it returns {@link Join} to apply a specification to.
+     */
+    public static <X, Y> Join<X, Y> fetch(From<?, X> parent, String attribute, JoinType joinType) {
+        return fetch(parent, attribute, null, joinType);
+    }
+
+    /**
+     * @see JoinRegistry#fetch(From, String, JoinType)
+     */
+    public static <X, Y> Join<X, Y> fetch(From<?, X> parent, SingularAttribute<? super X, Y> attribute, JoinType joinType) {
+        return fetch(parent, attribute.getName(), attribute, joinType);
+    }
+
+    /**
+     * @see JoinRegistry#fetch(From, String, JoinType)
+     */
+    public static <X, Y> Join<X, Y> fetch(From<?, X> parent, PluralAttribute<? super X, ?, Y> attribute, JoinType joinType) {
+        return fetch(parent, attribute.getName(), attribute, joinType);
+    }
+
+    /**
+     * Returns the fetch join of the attribute, created with the metamodel attribute if it is not null.
+     */
+    static <X, Y> Join<X, Y> fetch(From<?, X> parent, String attribute, Attribute<?, ?> metamodelAttribute, JoinType joinType) {
+        if (parent.getFetches() != null) {
+            for (var fetch : parent.getFetches()) {
+                if (fetch.getJoinType() == joinType && isOf(fetch.getAttribute(), attribute) && !(fetch instanceof Join && ((Join<?, ?>) fetch).getOn() != null)) {
+                    // Cast allowed because Hibernate and EclipseLink return an instance of Join as per https://thorben-janssen.com/hibernate-tip-left-join-fetch-join-criteriaquery
+                    //noinspection unchecked
+                    return (Join<X, Y>) fetch;
+                }
+            }
+        }
+        if (metamodelAttribute instanceof SingularAttribute) {
+            // Cast allowed because the caller passes the attribute of the type of the parent
+            //noinspection unchecked
+            return (Join<X, Y>) parent.fetch((SingularAttribute<? super X, Y>) metamodelAttribute, joinType);
+        } else if (metamodelAttribute != null) {
+            // Cast allowed because the caller passes the attribute of the type of the parent
+            //noinspection unchecked
+            return (Join<X, Y>) parent.fetch((PluralAttribute<? super X, ?, Y>) metamodelAttribute, joinType);
+        }
+        //noinspection unchecked
+        return (Join<X, Y>) parent.<X, Y>fetch(attribute, joinType);
+    }
+
+    /**
+     * Creates the join with the overload of {@link From#join} of the type of the metamodel attribute, since there is none for {@link PluralAttribute}.
+     * The casts are allowed because the caller passes the attribute of the type of the parent.
+     */
+    private static <X, Y> Join<X, Y> create(From<?, X> parent, Attribute<?, ?> metamodelAttribute, JoinType joinType) {
+        if (metamodelAttribute instanceof SingularAttribute) {
+            //noinspection unchecked
+            return parent.join((SingularAttribute<? super X, Y>) metamodelAttribute, joinType);
+        }
+        switch (((PluralAttribute<?, ?, ?>) metamodelAttribute).getCollectionType()) {
+            case SET:
+                //noinspection unchecked
+                return parent.join((SetAttribute<? super X, Y>) metamodelAttribute, joinType);
+            case LIST:
+                //noinspection unchecked
+                return parent.join((ListAttribute<? super X, Y>) metamodelAttribute, joinType);
+            case MAP:
+                //noinspection unchecked
+                return parent.join((MapAttribute<? super X, ?, Y>) metamodelAttribute, joinType);
+            default:
+                //noinspection unchecked
+                return parent.join((CollectionAttribute<? super X, Y>) metamodelAttribute, joinType);
+        }
+    }
+
+    /**
+     * Returns whether the join of the type may be returned for the requested type, i.e. the types are the same, or a left join is requested
+     * <br>
+     * while the joins are shared, e.g. by the facets of {@link FacetCounter}, and the join is an inner one.
+     */
+    private static boolean isShareable(JoinType type, JoinType requestedType) {
+        return type == requestedType || requestedType == JoinType.LEFT && type == JoinType.INNER && RenderContext.currentJoinsShared();
+    }
+
+    private static boolean isOf(Attribute<?, ?> joinAttribute, String attribute) {
+        return joinAttribute != null && Objects.equals(joinAttribute.getName(), attribute);
+    }
+}
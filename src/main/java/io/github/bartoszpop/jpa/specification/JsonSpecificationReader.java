@@ -0,0 +1,344 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.JoinType;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * This class reads the tree of {@link SpecificationNode} from JSON written by {@link JsonSpecificationWriter}.
+ * <p>
+ * It parses the JSON to the maps, the lists, the strings, the booleans and {@link BigDecimal} numbers first, then it reads the nodes of them.
+ *
+ * @author Bartosz Popiela
+ */
+final class JsonSpecificationReader {
+
+    /**
+     * The maximum nesting depth of the objects and the arrays, since a node nests an object and an array of the operands within the document.
+     */
+    private static final int MAX_NESTING = 2 * SpecificationFormat.MAX_DEPTH + 2;
+
+    private final SpecificationRegistry registry;
+
+    private final String json;
+
+    private int position;
+
+    private int nesting;
+
+    JsonSpecificationReader(SpecificationRegistry registry, String json) {
+        this.registry = registry;
+        this.json = json;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the JSON is not a specification of a supported version, or its objects and arrays are nested too deeply
+     */
+    SpecificationNode read() {
+        try {
+            var document = parseValue();
+            skipWhitespace();
+            if (position != json.length()) {
+                throw malformed("end of the JSON");
+            }
+            var version = toNumber(field(toObject(document), "version")).intValueExact();
+            if (version < 1 || version > SpecificationFormat.VERSION) {
+                throw new IllegalArgumentException("The version " + version + " is not supported.");
+            }
+            return toNode(field(toObject(document), "specification"));
+        } catch (StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("The JSON is truncated.", e);
+        } catch (ArithmeticException | DateTimeParseException e) {
+            throw new IllegalArgumentException("The JSON has a malformed number or date.", e);
+        }
+    }
+
+    private SpecificationNode toNode(Object value) {
+        var node = toObject(value);
+        var type = toString(field(node, "type"));
+        switch (type) {
+            case "noOp":
+                return SpecificationNode.NoOp.INSTANCE;
+            case "and":
+                return new SpecificationNode.And(toNodes(field(node, "operands")));
+            case "or":
+                return new SpecificationNode.Or(toNodes(field(node, "operands")));
+            case "not":
+                return new SpecificationNode.Not(toNode(field(node, "operand")));
+            case "get":
+                return new SpecificationNode.Get(toString(field(node, "attribute")), toNode(field(node, "operand")));
+            case "join":
+                return new SpecificationNode.Join(toString(field(node, "attribute")), toJoinType(field(node, "joinType")), toNode(field(node, "operand")));
+            case "fetch":
+                return new SpecificationNode.Fetch(toString(field(node, "attribute")), toJoinType(field(node, "joinType")), toNode(field(node, "operand")));
+            case "exists":
+                return new SpecificationNode.Exists(toString(field(node, "attribute")), toNode(field(node, "operand")));
+            case "comparison":
+                return new SpecificationNode.Comparison(toOperator(field(node, "operator")), toValue(field(node, "value")));
+            case "in":
+                return new SpecificationNode.In(toValues(field(node, "values")), toStrategy(node.get("strategy")));
+            case "leaf":
+                return registry.create(toString(field(node, "name")), toValues(field(node, "arguments")));
+            default:
+                throw new IllegalArgumentException("The node type " + type + " is not supported.");
+        }
+    }
+
+    private List<SpecificationNode> toNodes(Object value) {
+        var values = toArray(value);
+        var nodes = new ArrayList<SpecificationNode>(values.size());
+        for (var element : values) {
+            nodes.add(toNode(element));
+        }
+        return nodes;
+    }
+
+    private InStrategy toStrategy(Object value) {
+        var strategy = InStrategy.direct();
+        if (value == null) {
+            return strategy;
+        }
+        var fields = toObject(value);
+        if (Boolean.TRUE.equals(fields.get("padded"))) {
+            strategy = strategy.padToPowerOfTwo();
+        }
+        if (fields.containsKey("chunkSize")) {
+            strategy = strategy.chunkSize(toNumber(fields.get("chunkSize")).intValueExact());
+        }
+        if (fields.containsKey("fallback")) {
+            strategy = strategy.fallbackAbove(toNumber(field(fields, "fallbackThreshold")).intValueExact(), registry.getFallback(toString(fields.get("fallback"))));
+        }
+        return strategy;
+    }
+
+    private List<Object> toValues(Object value) {
+        var values = toArray(value);
+        var result = new ArrayList<>(values.size());
+        for (var element : values) {
+            result.add(toValue(element));
+        }
+        return result;
+    }
+
+    private Object toValue(Object value) {
+        if (value == null || value instanceof Boolean || value instanceof String) {
+            return value;
+        } else if (value instanceof List) {
+            return toValues(value);
+        } else if (!(value instanceof Map) || ((Map<?, ?>) value).size() != 1) {
+            throw new IllegalArgumentException("The value " + value + " is not typed.");
+        }
+        var entry = ((Map<?, ?>) value).entrySet().iterator().next();
+        var type = (String) entry.getKey();
+        switch (type) {
+            case "int":
+                return toNumber(entry.getValue()).intValueExact();
+            case "long":
+                return toNumber(entry.getValue()).longValueExact();
+            case "double":
+                return entry.getValue() instanceof String ? Double.valueOf((String) entry.getValue()) : toNumber(entry.getValue()).doubleValue();
+            case "decimal":
+                return toNumber(entry.getValue());
+            case "date":
+                return LocalDate.parse(toString(entry.getValue()));
+            case "dateTime":
+                return LocalDateTime.parse(toString(entry.getValue()));
+            case "instant":
+                return Instant.parse(toString(entry.getValue()));
+            case "uuid":
+                return UUID.fromString(toString(entry.getValue()));
+            case "specification":
+                return CompositeSpecification.fromNode(toNode(entry.getValue()));
+            default:
+                throw new IllegalArgumentException("The value type " + type + " is not supported.");
+        }
+    }
+
+    private static JoinType toJoinType(Object value) {
+        return JoinType.valueOf(toString(value));
+    }
+
+    private static SpecificationNode.Comparison.Operator toOperator(Object value) {
+        return SpecificationNode.Comparison.Operator.valueOf(toString(value));
+    }
+
+    private static Object field(Map<String, Object> object, String name) {
+        if (!object.containsKey(name)) {
+            throw new IllegalArgumentException("The field " + name + " is missing in " + object + ".");
+        }
+        return object.get(name);
+    }
+
+    private static Map<String, Object> toObject(Object value) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Expected an object but got " + value + ".");
+        }
+        // Cast allowed because the parsed objects have the keys of String
+        //noinspection unchecked
+        return (Map<String, Object>) value;
+    }
+
+    private static List<?> toArray(Object value) {
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("Expected an array but got " + value + ".");
+        }
+        return (List<?>) value;
+    }
+
+    private static String toString(Object value) {
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("Expected a string but got " + value + ".");
+        }
+        return (String) value;
+    }
+
+    private static BigDecimal toNumber(Object value) {
+        if (!(value instanceof BigDecimal)) {
+            throw new IllegalArgumentException("Expected a number but got " + value + ".");
+        }
+        return (BigDecimal) value;
+    }
+
+    private Object parseValue() {
+        skipWhitespace();
+        var character = json.charAt(position);
+        switch (character) {
+            case '{':
+            case '[':
+                if (++nesting > MAX_NESTING) {
+                    throw new IllegalArgumentException("The JSON is nested deeper than " + MAX_NESTING + " levels.");
+                }
+                var value = character == '{' ? parseObject() : parseArray();
+                nesting--;
+                return value;
+            case '"':
+                return parseString();
+            case 't':
+                return parseLiteral("true", Boolean.TRUE);
+            case 'f':
+                return parseLiteral("false", Boolean.FALSE);
+            case 'n':
+                return parseLiteral("null", null);
+            default:
+                return parseNumber();
+        }
+    }
+
+    private Map<String, Object> parseObject() {
+        var object = new HashMap<String, Object>();
+        position++;
+        skipWhitespace();
+        if (json.charAt(position) == '}') {
+            position++;
+            return object;
+        }
+        do {
+            skipWhitespace();
+            if (json.charAt(position) != '"') {
+                throw malformed("name");
+            }
+            var name = parseString();
+            skipWhitespace();
+            if (json.charAt(position++) != ':') {
+                throw malformed("':'");
+            }
+            object.put(name, parseValue());
+            skipWhitespace();
+        } while (json.charAt(position++) == ',');
+        if (json.charAt(position - 1) != '}') {
+            throw malformed("'}'");
+        }
+        return object;
+    }
+
+    private List<Object> parseArray() {
+        var array = new ArrayList<>();
+        position++;
+        skipWhitespace();
+        if (json.charAt(position) == ']') {
+            position++;
+            return array;
+        }
+        do {
+            array.add(parseValue());
+            skipWhitespace();
+        } while (json.charAt(position++) == ',');
+        if (json.charAt(position - 1) != ']') {
+            throw malformed("']'");
+        }
+        return array;
+    }
+
+    private String parseString() {
+        var string = new StringBuilder();
+        position++;
+        for (var character = json.charAt(position++); character != '"'; character = json.charAt(position++)) {
+            if (character != '\\') {
+                string.append(character);
+                continue;
+            }
+            var escaped = json.charAt(position++);
+            switch (escaped) {
+                case 'b':
+                    string.append('\b');
+                    break;
+                case 'f':
+                    string.append('\f');
+                    break;
+                case 'n':
+                    string.append('\n');
+                    break;
+                case 'r':
+                    string.append('\r');
+                    break;
+                case 't':
+                    string.append('\t');
+                    break;
+                case 'u':
+                    string.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                    position += 4;
+                    break;
+                default:
+                    string.append(escaped);
+            }
+        }
+        return string.toString();
+    }
+
+    private Object parseLiteral(String literal, Object value) {
+        if (!json.startsWith(literal, position)) {
+            throw malformed(literal);
+        }
+        position += literal.length();
+        return value;
+    }
+
+    private BigDecimal parseNumber() {
+        var start = position;
+        while (position < json.length() && "+-0123456789.eE".indexOf(json.charAt(position)) >= 0) {
+            position++;
+        }
+        if (start == position) {
+            throw malformed("value");
+        }
+        return new BigDecimal(json.substring(start, position));
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException malformed(String expected) {
+        return new IllegalArgumentException("Expected " + expected + " at " + position + " of the JSON.");
+    }
+}
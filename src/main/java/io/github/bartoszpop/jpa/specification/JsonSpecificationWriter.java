@@ -0,0 +1,224 @@
+package io.github.bartoszpop.jpa.specification;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This class writes the tree of {@link SpecificationNode} as JSON, e.g.
+ * <pre>
+ * {"version":1,"specification":{"type":"get","attribute":"dateOfBirth","operand":{"type":"comparison","operator":"LESS_THAN","value":{"date":"1990-01-01"}}}}
+ * </pre>
+ * A string, a boolean and null are written as they are, a list as an array, any other value as an object of its type and its text, so it is read back as the same type.
+ *
+ * @author Bartosz Popiela
+ */
+final class JsonSpecificationWriter implements SpecificationVisitor<Void> {
+
+    private final SpecificationRegistry registry;
+
+    private final StringBuilder json = new StringBuilder();
+
+    JsonSpecificationWriter(SpecificationRegistry registry) {
+        this.registry = registry;
+    }
+
+    String write(SpecificationNode node) {
+        json.append("{\"version\":").append(SpecificationFormat.VERSION).append(",\"specification\":");
+        node.accept(this);
+        return json.append('}').toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the leaf has no name
+     */
+    @Override
+    public Void visitLeaf(SpecificationNode.Leaf leaf) {
+        if (leaf.getName() == null) {
+            throw new IllegalArgumentException("The specification of " + leaf.getPredicateBuilder() + " has no name, so it cannot be encoded.");
+        }
+        json.append("{\"type\":\"leaf\",\"name\":");
+        writeString(leaf.getName());
+        json.append(",\"arguments\":");
+        writeValues(leaf.getArguments());
+        json.append('}');
+        return null;
+    }
+
+    @Override
+    public Void visitNoOp(SpecificationNode.NoOp noOp) {
+        json.append("{\"type\":\"noOp\"}");
+        return null;
+    }
+
+    @Override
+    public Void visitAnd(SpecificationNode.And and) {
+        return writeJunction("and", and.getOperands());
+    }
+
+    @Override
+    public Void visitOr(SpecificationNode.Or or) {
+        return writeJunction("or", or.getOperands());
+    }
+
+    @Override
+    public Void visitNot(SpecificationNode.Not not) {
+        json.append("{\"type\":\"not\"");
+        return writeOperand(not.getOperand());
+    }
+
+    @Override
+    public Void visitGet(SpecificationNode.Get get) {
+        json.append("{\"type\":\"get\",\"attribute\":");
+        writeString(get.getAttribute());
+        return writeOperand(get.getOperand());
+    }
+
+    @Override
+    public Void visitJoin(SpecificationNode.Join join) {
+        json.append("{\"type\":\"join\",\"attribute\":");
+        writeString(join.getAttribute());
+        json.append(",\"joinType\":\"").append(join.getJoinType()).append('"');
+        return writeOperand(join.getOperand());
+    }
+
+    @Override
+    public Void visitFetch(SpecificationNode.Fetch fetch) {
+        json.append("{\"type\":\"fetch\",\"attribute\":");
+        writeString(fetch.getAttribute());
+        json.append(",\"joinType\":\"").append(fetch.getJoinType()).append('"');
+        return writeOperand(fetch.getOperand());
+    }
+
+    @Override
+    public Void visitExists(SpecificationNode.Exists exists) {
+        json.append("{\"type\":\"exists\",\"attribute\":");
+        writeString(exists.getAttribute());
+        return writeOperand(exists.getOperand());
+    }
+
+    @Override
+    public Void visitComparison(SpecificationNode.Comparison comparison) {
+        json.append("{\"type\":\"comparison\",\"operator\":\"").append(comparison.getOperator()).append("\",\"value\":");
+        writeValue(comparison.getValue());
+        json.append('}');
+        return null;
+    }
+
+    /**
+     * Writes the strategy unless it is {@link InStrategy#direct()}.
+     */
+    @Override
+    public Void visitIn(SpecificationNode.In in) {
+        json.append("{\"type\":\"in\",\"values\":");
+        writeValues(in.getValues());
+        var strategy = in.getStrategy();
+        if (!strategy.equals(InStrategy.direct())) {
+            json.append(",\"strategy\":{\"padded\":").append(strategy.isPadded());
+            if (strategy.getChunkSize() != Integer.MAX_VALUE) {
+                json.append(",\"chunkSize\":").append(strategy.getChunkSize());
+            }
+            if (strategy.getFallback() != null) {
+                json.append(",\"fallbackThreshold\":").append(strategy.getFallbackThreshold()).append(",\"fallback\":");
+                writeString(registry.getFallbackName(strategy.getFallback()));
+            }
+            json.append('}');
+        }
+        json.append('}');
+        return null;
+    }
+
+    private Void writeJunction(String type, List<SpecificationNode> operands) {
+        json.append("{\"type\":\"").append(type).append("\",\"operands\":[");
+        for (var i = 0; i < operands.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            operands.get(i).accept(this);
+        }
+        json.append("]}");
+        return null;
+    }
+
+    private Void writeOperand(SpecificationNode operand) {
+        json.append(",\"operand\":");
+        operand.accept(this);
+        json.append('}');
+        return null;
+    }
+
+    private void writeValues(Collection<?> values) {
+        json.append('[');
+        var first = true;
+        for (var value : values) {
+            if (!first) {
+                json.append(',');
+            }
+            writeValue(value);
+            first = false;
+        }
+        json.append(']');
+    }
+
+    /**
+     * A double that is not finite is written as a string, since JSON has no such number.
+     *
+     * @throws IllegalArgumentException if the type of the value is not supported
+     */
+    private void writeValue(Object value) {
+        if (value == null || value instanceof Boolean) {
+            json.append(value);
+        } else if (value instanceof String) {
+            writeString((String) value);
+        } else if (value instanceof Integer) {
+            json.append("{\"int\":").append(value).append('}');
+        } else if (value instanceof Long) {
+            json.append("{\"long\":").append(value).append('}');
+        } else if (value instanceof Double) {
+            json.append("{\"double\":");
+            if (Double.isFinite((Double) value)) {
+                json.append(value);
+            } else {
+                writeString(value.toString());
+            }
+            json.append('}');
+        } else if (value instanceof BigDecimal) {
+            json.append("{\"decimal\":").append(value).append('}');
+        } else if (value instanceof LocalDate) {
+            json.append("{\"date\":\"").append(value).append("\"}");
+        } else if (value instanceof LocalDateTime) {
+            json.append("{\"dateTime\":\"").append(value).append("\"}");
+        } else if (value instanceof Instant) {
+            json.append("{\"instant\":\"").append(value).append("\"}");
+        } else if (value instanceof UUID) {
+            json.append("{\"uuid\":\"").append(value).append("\"}");
+        } else if (value instanceof Collection) {
+            writeValues((Collection<?>) value);
+        } else if (value instanceof CompositeSpecification) {
+            json.append("{\"specification\":");
+            ((CompositeSpecification<?, ?>) value).getSimplifiedNode().accept(this);
+            json.append('}');
+        } else {
+            throw new IllegalArgumentException("The value of " + value.getClass().getName() + " cannot be encoded.");
+        }
+    }
+
+    private void writeString(String string) {
+        json.append('"');
+        for (var i = 0; i < string.length(); i++) {
+            var character = string.charAt(i);
+            if (character == '"' || character == '\\') {
+                json.append('\\').append(character);
+            } else if (character < 0x20) {
+                json.append(String.format("\\u%04x", (int) character));
+            } else {
+                json.append(character);
+            }
+        }
+        json.append('"');
+    }
+}
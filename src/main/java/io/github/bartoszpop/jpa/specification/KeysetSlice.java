@@ -0,0 +1,37 @@
+package io.github.bartoszpop.jpa.specification;
+
+import java.util.List;
+
+/**
+ * This class is a slice of the entities selected by {@link CompositeSpecificationExecutor#findSlice}.
+ * <p>
+ * The continuation token is the values of the sort properties of the last entity, passed to {@link CompositeSpecificationExecutor#findSlice}
+ * <br>
+ * to select the next slice, or null if there is no next slice.
+ *
+ * @param <T> the type of the entity
+ * @author Bartosz Popiela
+ */
+public final class KeysetSlice<T> {
+
+    private final List<T> content;
+
+    private final List<Object> continuationToken;
+
+    KeysetSlice(List<T> content, List<Object> continuationToken) {
+        this.content = content;
+        this.continuationToken = continuationToken;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public boolean hasNext() {
+        return continuationToken != null;
+    }
+
+    public List<Object> getContinuationToken() {
+        return continuationToken;
+    }
+}
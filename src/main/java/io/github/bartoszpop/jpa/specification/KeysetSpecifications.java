@@ -0,0 +1,68 @@
+package io.github.bartoszpop.jpa.specification;
+
+import io.github.bartoszpop.jpa.specification.SpecificationNode.Comparison.Operator;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.criteria.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class provides specifications for keyset pagination, i.e. a page is selected after the last row of the previous page rather than at an offset,
+ * <br>
+ * so the database seeks the index of the sort properties and the page N costs as much as the first one.
+ * <p>
+ * The sort properties must determine the order of the rows, e.g. the last one is the identifier, and their values must not be null.
+ * <br>
+ * See {@link CompositeSpecificationExecutor#findSlice} for the slices with the continuation token.
+ *
+ * @author Bartosz Popiela
+ */
+public final class KeysetSpecifications {
+    private KeysetSpecifications() {
+    }
+
+    /**
+     * Creates a specification satisfied by the rows after the last row of the sort properties, i.e. the row-value comparison
+     * <pre>{@code
+     * (a > :a) or (a = :a and b > :b) or (a = :a and b = :b and c > :c)
+     * }</pre>
+     * where a descending property is compared with {@code <}. A property may be nested, e.g. {@code department.name}.
+     *
+     * @throws IllegalArgumentException if the number of the values differs from the number of the sort properties, a value is null or a property ignores case
+     */
+    public static <T, S extends Path<T>> CompositeSpecification<T, S> after(Sort sort, List<?> lastRowValues) {
+        var orders = sort.toList();
+        if (orders.isEmpty() || orders.size() != lastRowValues.size()) {
+            throw new IllegalArgumentException("The number of the values must be equal to the number of the sort properties.");
+        }
+        var operands = new ArrayList<SpecificationNode>(orders.size());
+        var equalities = new ArrayList<SpecificationNode>(orders.size());
+        for (var i = 0; i < orders.size(); i++) {
+            var order = orders.get(i);
+            var value = lastRowValues.get(i);
+            if (value == null) {
+                throw new IllegalArgumentException("The value of " + order.getProperty() + " must not be null.");
+            } else if (order.isIgnoreCase()) {
+                throw new IllegalArgumentException("The property " + order.getProperty() + " must not ignore case.");
+            }
+            var seek = new ArrayList<>(equalities);
+            seek.add(get(order.getProperty(), new SpecificationNode.Comparison(order.isAscending() ? Operator.GREATER_THAN : Operator.LESS_THAN, value)));
+            operands.add(seek.size() == 1 ? seek.get(0) : new SpecificationNode.And(seek));
+            equalities.add(get(order.getProperty(), new SpecificationNode.Comparison(Operator.EQUAL, value)));
+        }
+        return CompositeSpecification.fromNode(operands.size() == 1 ? operands.get(0) : new SpecificationNode.Or(operands));
+    }
+
+    /**
+     * Returns the node that gets the property, or the nested attributes of the property separated with dots, and applies the operand to it.
+     */
+    private static SpecificationNode get(String property, SpecificationNode operand) {
+        var attributes = property.split("\\.");
+        var node = operand;
+        for (var i = attributes.length - 1; i >= 0; i--) {
+            node = new SpecificationNode.Get(attributes[i], node);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.JoinType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class replaces the joins and the fetch joins of the tree with left joins, so the tree restricts the joined rows rather than the roots.
+ * <p>
+ * {@link FacetCounter} renders the facets in the select clause of the same query, thus an inner join of a facet must not drop the roots the other facets count.
+ * <br>
+ * The joins within {@link SpecificationNode.Exists} are left as they are, since they apply to the subquery.
+ * <br>
+ * The visitor returns the visited node itself if it contains no other join, as {@link FetchEliminator} does.
+ *
+ * @author Bartosz Popiela
+ */
+final class LeftJoinConverter implements SpecificationVisitor<SpecificationNode> {
+
+    static final LeftJoinConverter INSTANCE = new LeftJoinConverter();
+
+    private LeftJoinConverter() {
+    }
+
+    @Override
+    public SpecificationNode visitLeaf(SpecificationNode.Leaf leaf) {
+        return leaf;
+    }
+
+    @Override
+    public SpecificationNode visitNoOp(SpecificationNode.NoOp noOp) {
+        return noOp;
+    }
+
+    @Override
+    public SpecificationNode visitAnd(SpecificationNode.And and) {
+        var operands = convert(and.getOperands());
+        return operands != and.getOperands() ? new SpecificationNode.And(operands) : and;
+    }
+
+    @Override
+    public SpecificationNode visitOr(SpecificationNode.Or or) {
+        var operands = convert(or.getOperands());
+        return operands != or.getOperands() ? new SpecificationNode.Or(operands) : or;
+    }
+
+    @Override
+    public SpecificationNode visitNot(SpecificationNode.Not not) {
+        var operand = not.getOperand().accept(this);
+        return operand != not.getOperand() ? new SpecificationNode.Not(operand) : not;
+    }
+
+    @Override
+    public SpecificationNode visitGet(SpecificationNode.Get get) {
+        var operand = get.getOperand().accept(this);
+        return operand != get.getOperand() ? get.withOperand(operand) : get;
+    }
+
+    @Override
+    public SpecificationNode visitJoin(SpecificationNode.Join join) {
+        var operand = join.getOperand().accept(this);
+        if (join.getJoinType() != JoinType.LEFT) {
+            return new SpecificationNode.Join(join.getAttribute(), join.getMetamodelAttribute(), JoinType.LEFT, operand);
+        }
+        return operand != join.getOperand() ? join.withOperand(operand) : join;
+    }
+
+    @Override
+    public SpecificationNode visitFetch(SpecificationNode.Fetch fetch) {
+        return new SpecificationNode.Join(fetch.getAttribute(), fetch.getMetamodelAttribute(), JoinType.LEFT, fetch.getOperand().accept(this));
+    }
+
+    @Override
+    public SpecificationNode visitExists(SpecificationNode.Exists exists) {
+        return exists;
+    }
+
+    @Override
+    public SpecificationNode visitComparison(SpecificationNode.Comparison comparison) {
+        return comparison;
+    }
+
+    @Override
+    public SpecificationNode visitIn(SpecificationNode.In in) {
+        return in;
+    }
+
+    /**
+     * Returns the operands themselves if none of them is converted.
+     */
+    private List<SpecificationNode> convert(List<SpecificationNode> operands) {
+        var convertedOperands = new ArrayList<SpecificationNode>(operands.size());
+        var converted = false;
+        for (var operand : operands) {
+            var convertedOperand = operand.accept(this);
+            converted |= convertedOperand != operand;
+            convertedOperands.add(convertedOperand);
+        }
+        return converted ? convertedOperands : operands;
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.bartoszpop.jpa.specification;
+
+/**
+ * This class reports the measurements of {@link SpecificationMetrics} as the timers and the distribution summaries of a dimensional meter registry,
+ * <br>
+ * tagged with the name of the specification, e.g. with Micrometer:
+ * <pre>{@code
+ * SpecificationInstrumentation.setMetrics(new MeterSpecificationMetrics(new MeterSpecificationMetrics.Meters() {
+ *     public void recordTime(String meterName, String specificationName, long nanos) {
+ *         Timer.builder(meterName).tag(MeterSpecificationMetrics.TAG, specificationName).register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+ *     }
+ *
+ *     public void recordAmount(String meterName, String specificationName, double amount) {
+ *         DistributionSummary.builder(meterName).tag(MeterSpecificationMetrics.TAG, specificationName).register(meterRegistry).record(amount);
+ *     }
+ * }));
+ * }</pre>
+ * The meters are
+ * <ul>
+ *     <li>{@value #BUILD_TIME}, the timer of the time the predicate took to build,</li>
+ *     <li>{@value #NODES}, the summary of the number of the nodes rendered,</li>
+ *     <li>{@value #JOINS}, the summary of the number of the joins and the fetches rendered,</li>
+ *     <li>{@value #QUERY_TIME}, the timer of the latency of the queries,</li>
+ *     <li>{@value #ROWS}, the summary of the number of the rows returned.</li>
+ * </ul>
+ *
+ * @author Bartosz Popiela
+ */
+public final class MeterSpecificationMetrics implements SpecificationMetrics {
+
+    public static final String BUILD_TIME = "specification.build";
+
+    public static final String NODES = "specification.nodes";
+
+    public static final String JOINS = "specification.joins";
+
+    public static final String QUERY_TIME = "specification.query";
+
+    public static final String ROWS = "specification.rows";
+
+    public static final String TAG = "specification";
+
+    private final Meters meters;
+
+    public MeterSpecificationMetrics(Meters meters) {
+        this.meters = meters;
+    }
+
+    @Override
+    public void rendered(String name, long buildNanos, int nodeCount, int joinCount) {
+        meters.recordTime(BUILD_TIME, name, buildNanos);
+        meters.recordAmount(NODES, name, nodeCount);
+        meters.recordAmount(JOINS, name, joinCount);
+    }
+
+    @Override
+    public void executed(String name, long latencyNanos, long rowCount) {
+        meters.recordTime(QUERY_TIME, name, latencyNanos);
+        meters.recordAmount(ROWS, name, rowCount);
+    }
+
+    /**
+     * This interface records to the meters of the registry, created on the first use, tagged with {@link MeterSpecificationMetrics#TAG}.
+     */
+    public interface Meters {
+
+        void recordTime(String meterName, String specificationName, long nanos);
+
+        void recordAmount(String meterName, String specificationName, double amount);
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.bartoszpop.jpa.specification;
+
+/**
+ * This class counts the nodes of the tree of {@link SpecificationNode} and the joins among them, i.e. {@link SpecificationNode.Join},
+ * <br>
+ * {@link SpecificationNode.Fetch} and {@link SpecificationNode.Exists}, for {@link SpecificationMetrics}.
+ * <p>
+ * An instance counts a single tree, thus it is not thread-safe.
+ *
+ * @author Bartosz Popiela
+ */
+final class NodeCounter implements SpecificationVisitor<Void> {
+
+    private int nodeCount;
+
+    private int joinCount;
+
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+    int getJoinCount() {
+        return joinCount;
+    }
+
+    @Override
+    public Void visitLeaf(SpecificationNode.Leaf leaf) {
+        nodeCount++;
+        return null;
+    }
+
+    @Override
+    public Void visitNoOp(SpecificationNode.NoOp noOp) {
+        nodeCount++;
+        return null;
+    }
+
+    @Override
+    public Void visitAnd(SpecificationNode.And and) {
+        nodeCount++;
+        and.getOperands().forEach(operand -> operand.accept(this));
+        return null;
+    }
+
+    @Override
+    public Void visitOr(SpecificationNode.Or or) {
+        nodeCount++;
+        or.getOperands().forEach(operand -> operand.accept(this));
+        return null;
+    }
+
+    @Override
+    public Void visitNot(SpecificationNode.Not not) {
+        nodeCount++;
+        return not.getOperand().accept(this);
+    }
+
+    @Override
+    public Void visitGet(SpecificationNode.Get get) {
+        nodeCount++;
+        return get.getOperand().accept(this);
+    }
+
+    @Override
+    public Void visitJoin(SpecificationNode.Join join) {
+        nodeCount++;
+        joinCount++;
+        return join.getOperand().accept(this);
+    }
+
+    @Override
+    public Void visitFetch(SpecificationNode.Fetch fetch) {
+        nodeCount++;
+        joinCount++;
+        return fetch.getOperand().accept(this);
+    }
+
+    @Override
+    public Void visitExists(SpecificationNode.Exists exists) {
+        nodeCount++;
+        joinCount++;
+        return exists.getOperand().accept(this);
+    }
+
+    @Override
+    public Void visitComparison(SpecificationNode.Comparison comparison) {
+        nodeCount++;
+        return null;
+    }
+
+    @Override
+    public Void visitIn(SpecificationNode.In in) {
+        nodeCount++;
+        return null;
+    }
+}
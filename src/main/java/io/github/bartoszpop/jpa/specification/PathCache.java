@@ -0,0 +1,41 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.Path;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * This class returns the path of an attribute already resolved for the same parent rather than resolving it again,
+ * <br>
+ * e.g. {@code get("firstName", equal("John")).or(get("firstName", equal("Jane")))} resolves {@code firstName} of the root once.
+ * <p>
+ * The parents are compared by identity, thus the paths are shared within a query only, since {@link JoinRegistry} returns the same join for the query.
+ * <br>
+ * The path of the metamodel attribute is resolved with {@link Path#get(SingularAttribute)}, so the JPA provider does not look it up by the name.
+ * <p>
+ * An instance is created for rendering a single query, thus it is not thread-safe.
+ *
+ * @author Bartosz Popiela
+ */
+final class PathCache {
+
+    private Map<Path<?>, Map<String, Path<?>>> paths;
+
+    Path<?> get(Path<?> parent, SpecificationNode.Get get) {
+        if (paths == null) {
+            paths = new IdentityHashMap<>();
+        }
+        return paths.computeIfAbsent(parent, key -> new HashMap<>()).computeIfAbsent(get.getAttribute(), attribute -> resolve(parent, get));
+    }
+
+    private static Path<?> resolve(Path<?> parent, SpecificationNode.Get get) {
+        if (get.getMetamodelAttribute() instanceof SingularAttribute) {
+            // Cast allowed because the specification of the metamodel attribute is applicable to the paths of its declaring type only
+            //noinspection unchecked
+            return ((Path<Object>) parent).get((SingularAttribute<Object, ?>) get.getMetamodelAttribute());
+        }
+        return parent.get(get.getAttribute());
+    }
+}
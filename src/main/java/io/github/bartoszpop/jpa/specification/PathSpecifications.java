@@ -0,0 +1,36 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.Path;
+import javax.persistence.metamodel.SingularAttribute;
+
+/**
+ * This class provides predefined specifications applicable to instances of {@link Path}.
+ *
+ * @author Bartosz Popiela
+ */
+public final class PathSpecifications {
+    private PathSpecifications() {
+    }
+
+    /**
+     * Creates a specification that gets the attribute and applies the specification to it, e.g. {@code get("firstName", equal("John"))}.
+     * <p>
+     * Unlike {@link PredicateBuilder} calling {@link Path#get(String)} by itself, the attribute is a part of the tree,
+     * <br>
+     * thus {@link CompositeSpecificationExecutor} may cache the query of the specification.
+     */
+    public static <T, Y, S extends Path<T>> CompositeSpecification<T, S> get(String attribute, CompositeSpecification<?, ? super Path<Y>> specification) {
+        return CompositeSpecification.fromNode(new SpecificationNode.Get(attribute, specification.getNode()));
+    }
+
+    /**
+     * Creates a specification that gets the attribute of the static metamodel and applies the specification to it, e.g. {@code get(Employee_.firstName, equal("John"))},
+     * <br>
+     * so a misspelled attribute or a specification of another type does not compile. The path is resolved with {@link Path#get(SingularAttribute)}, not by the name.
+     * <p>
+     * The specification is equal to the one created with the name of the attribute.
+     */
+    public static <T, Y, S extends Path<T>> CompositeSpecification<T, S> get(SingularAttribute<? super T, Y> attribute, CompositeSpecification<?, ? super Path<Y>> specification) {
+        return CompositeSpecification.fromNode(new SpecificationNode.Get(attribute.getName(), attribute, specification.getNode()));
+    }
+}
@@ -0,0 +1,257 @@
+package io.github.bartoszpop.jpa.specification;
+
+import io.github.bartoszpop.jpa.specification.SpecificationNode.Comparison.Operator;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This class renders the tree of {@link SpecificationNode} to {@link Predicate} for the target.
+ * <p>
+ * It expects the tree to be simplified by {@link SpecificationSimplifier} and returns null if the visited node does not restrict the query,
+ * <br>
+ * e.g. {@link SpecificationNode.NoOp} or {@link SpecificationNode.Fetch} without a predicate, so it does not render {@code 1=1}.
+ * <p>
+ * A join of a collection makes the query distinct, since otherwise a root is selected once per element of the collection,
+ * <br>
+ * unless the join is rendered in a subquery.
+ * <p>
+ * If {@link QueryParameters} are not null, the values of the comparisons are replaced with parameters, so the query may be reused with other values.
+ * <p>
+ * The paths of the attributes are resolved once per parent, see {@link PathCache}.
+ *
+ * @author Bartosz Popiela
+ */
+final class PredicateRenderer implements SpecificationVisitor<Predicate> {
+
+    private final Object target;
+
+    private final CriteriaQuery<?> query;
+
+    private final CriteriaBuilder criteriaBuilder;
+
+    private final QueryParameters parameters;
+
+    private final PathCache paths;
+
+    private final boolean subquery;
+
+    PredicateRenderer(Object target, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder, QueryParameters parameters, PathCache paths) {
+        this(target, query, criteriaBuilder, parameters, paths, false);
+    }
+
+    private PredicateRenderer(Object target, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder, QueryParameters parameters, PathCache paths, boolean subquery) {
+        this.target = target;
+        this.query = query;
+        this.criteriaBuilder = criteriaBuilder;
+        this.parameters = parameters;
+        this.paths = paths;
+        this.subquery = subquery;
+    }
+
+    @Override
+    public Predicate visitLeaf(SpecificationNode.Leaf leaf) {
+        // Cast allowed because CompositeSpecification passes a target of the type the predicate builder is applicable to
+        //noinspection unchecked
+        return ((PredicateBuilder<Object>) leaf.getPredicateBuilder()).toPredicate(target, query, criteriaBuilder);
+    }
+
+    @Override
+    public Predicate visitNoOp(SpecificationNode.NoOp noOp) {
+        return null;
+    }
+
+    @Override
+    public Predicate visitAnd(SpecificationNode.And and) {
+        var predicates = toPredicates(and.getOperands());
+        if (predicates.size() == 0) {
+            return null;
+        } else if (predicates.size() == 1) {
+            return predicates.get(0);
+        } else if (predicates.size() == 2) {
+            return criteriaBuilder.and(predicates.get(0), predicates.get(1));
+        }
+        return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+    }
+
+    @Override
+    public Predicate visitOr(SpecificationNode.Or or) {
+        var predicates = toPredicates(or.getOperands());
+        if (predicates.size() < or.getOperands().size()) {
+            // An operand does not restrict the query, e.g. joins without a predicate, thus neither does the disjunction
+            return null;
+        } else if (predicates.size() == 1) {
+            return predicates.get(0);
+        } else if (predicates.size() == 2) {
+            return criteriaBuilder.or(predicates.get(0), predicates.get(1));
+        }
+        return criteriaBuilder.or(predicates.toArray(new Predicate[0]));
+    }
+
+    @Override
+    public Predicate visitNot(SpecificationNode.Not not) {
+        var predicate = not.getOperand().accept(this);
+        return predicate != null ? criteriaBuilder.not(predicate) : criteriaBuilder.or();
+    }
+
+    @Override
+    public Predicate visitGet(SpecificationNode.Get get) {
+        return get.getOperand().accept(new PredicateRenderer(paths.get((Path<?>) target, get), query, criteriaBuilder, parameters, paths, subquery));
+    }
+
+    @Override
+    public Predicate visitJoin(SpecificationNode.Join join) {
+        var from = (From<?, ?>) target;
+        return join.getOperand().accept(forJoin(JoinRegistry.join(from, join.getAttribute(), join.getMetamodelAttribute(), join.getJoinType())));
+    }
+
+    @Override
+    public Predicate visitFetch(SpecificationNode.Fetch fetch) {
+        var from = (From<?, ?>) target;
+        return fetch.getOperand().accept(forJoin(JoinRegistry.fetch(from, fetch.getAttribute(), fetch.getMetamodelAttribute(), fetch.getJoinType())));
+    }
+
+    @Override
+    public Predicate visitExists(SpecificationNode.Exists exists) {
+        var subquery = query.subquery(Object.class);
+        var correlatedFrom = target instanceof Root ? subquery.correlate((Root<?>) target) : subquery.correlate((Join<?, ?>) target);
+        var join = JoinRegistry.join(correlatedFrom, exists.getAttribute(), exists.getMetamodelAttribute(), JoinType.INNER);
+        // Cast allowed because the subquery selects the joined element
+        //noinspection unchecked
+        subquery.select((Expression<Object>) (Expression<?>) join);
+        var predicate = exists.getOperand().accept(new PredicateRenderer(join, query, criteriaBuilder, parameters, paths, true));
+        if (predicate != null) {
+            subquery.where(predicate);
+        }
+        return criteriaBuilder.exists(subquery);
+    }
+
+    @Override
+    public Predicate visitComparison(SpecificationNode.Comparison comparison) {
+        if (parameters != null) {
+            return compare(comparison.getOperator(), parameters.create(valueType(comparison.getValue()), comparison.getValue()));
+        }
+        var value = comparison.getValue();
+        switch (comparison.getOperator()) {
+            case EQUAL:
+                return criteriaBuilder.equal((Expression<?>) target, value);
+            case NOT_EQUAL:
+                return criteriaBuilder.notEqual((Expression<?>) target, value);
+            case GREATER_THAN:
+                return criteriaBuilder.greaterThan(comparableTarget(), comparableValue(value));
+            case GREATER_THAN_OR_EQUAL_TO:
+                return criteriaBuilder.greaterThanOrEqualTo(comparableTarget(), comparableValue(value));
+            case LESS_THAN:
+                return criteriaBuilder.lessThan(comparableTarget(), comparableValue(value));
+            case LESS_THAN_OR_EQUAL_TO:
+                return criteriaBuilder.lessThanOrEqualTo(comparableTarget(), comparableValue(value));
+            default:
+                throw new IllegalArgumentException("Unsupported operator " + comparison.getOperator() + ".");
+        }
+    }
+
+    @Override
+    public Predicate visitIn(SpecificationNode.In in) {
+        var strategy = in.getStrategy();
+        if (strategy.isFallback(in.getValues())) {
+            return strategy.getFallback().toPredicate((Expression<?>) target, in.getValues(), query, criteriaBuilder);
+        }
+        var chunks = strategy.toChunks(in.getValues());
+        if (chunks.size() == 1) {
+            return in(chunks.get(0));
+        } else if (chunks.size() == 2) {
+            return criteriaBuilder.or(in(chunks.get(0)), in(chunks.get(1)));
+        }
+        var predicates = new Predicate[chunks.size()];
+        for (var i = 0; i < predicates.length; i++) {
+            predicates[i] = in(chunks.get(i));
+        }
+        return criteriaBuilder.or(predicates);
+    }
+
+    private Predicate in(Collection<?> values) {
+        if (parameters != null && !values.isEmpty()) {
+            // Cast allowed because the parameter is bound to a collection
+            //noinspection unchecked
+            return ((Expression<?>) target).in((Expression<Collection<?>>) (Expression<?>) parameters.create(Collection.class, values));
+        }
+        return ((Expression<?>) target).in(values);
+    }
+
+    private Predicate compare(Operator operator, Expression<?> value) {
+        // Cast allowed because the parameter is of the type of a target
+        //noinspection unchecked
+        var comparableValue = (Expression<Comparable<Object>>) value;
+        switch (operator) {
+            case EQUAL:
+                return criteriaBuilder.equal((Expression<?>) target, value);
+            case NOT_EQUAL:
+                return criteriaBuilder.notEqual((Expression<?>) target, value);
+            case GREATER_THAN:
+                return criteriaBuilder.greaterThan(comparableTarget(), comparableValue);
+            case GREATER_THAN_OR_EQUAL_TO:
+                return criteriaBuilder.greaterThanOrEqualTo(comparableTarget(), comparableValue);
+            case LESS_THAN:
+                return criteriaBuilder.lessThan(comparableTarget(), comparableValue);
+            case LESS_THAN_OR_EQUAL_TO:
+                return criteriaBuilder.lessThanOrEqualTo(comparableTarget(), comparableValue);
+            default:
+                throw new IllegalArgumentException("Unsupported operator " + operator + ".");
+        }
+    }
+
+    /**
+     * Returns the type of a target, or the type of the value if a target does not tell, so the parameter is bound as the target is.
+     */
+    private Class<?> valueType(Object value) {
+        var targetType = ((Expression<?>) target).getJavaType();
+        if (targetType != null && targetType != Object.class) {
+            return targetType;
+        }
+        return value != null ? value.getClass() : Object.class;
+    }
+
+    private PredicateRenderer forJoin(Join<?, ?> join) {
+        if (!subquery && join.getAttribute() != null && join.getAttribute().isCollection()) {
+            query.distinct(true);
+        }
+        return new PredicateRenderer(join, query, criteriaBuilder, parameters, paths, subquery);
+    }
+
+    /**
+     * Renders the operands in order and omits the operands that do not restrict the query.
+     */
+    private List<Predicate> toPredicates(List<SpecificationNode> operands) {
+        var predicates = new ArrayList<Predicate>(operands.size());
+        for (var operand : operands) {
+            var predicate = operand.accept(this);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        return predicates;
+    }
+
+    private static Comparable<Object> comparableValue(Object value) {
+        // Cast allowed because the comparison factories restrict a value to Comparable
+        //noinspection unchecked
+        return (Comparable<Object>) value;
+    }
+
+    private Expression<Comparable<Object>> comparableTarget() {
+        // Cast allowed because the comparison factories restrict a target to Expression of Comparable
+        //noinspection unchecked
+        return (Expression<Comparable<Object>>) target;
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.CriteriaQuery;
+
+/**
+ * This enum is the kind of the query a specification is rendered for, as determined by the result type of {@link CriteriaQuery}.
+ * <p>
+ * {@link CompositeSpecification} renders the fetch joins of {@link FromSpecifications#fetch} as joins unless the query selects the roots,
+ * <br>
+ * since the JPA provider rejects a fetch join whose owner is not selected. The count query of {@link CompositeSpecificationExecutor} also omits the left joins without a predicate.
+ * <p>
+ * {@link PredicateBuilder} may call {@link QueryKind#of} itself, e.g. to fetch only if the query selects the roots.
+ *
+ * @author Bartosz Popiela
+ */
+public enum QueryKind {
+
+    /**
+     * The query selects the roots, e.g. {@code JpaSpecificationExecutor.findAll}.
+     */
+    ROW,
+
+    /**
+     * The query counts the roots, e.g. {@link CompositeSpecificationExecutor#count}.
+     */
+    COUNT,
+
+    /**
+     * The query selects anything else, e.g. the identifiers of a page selected by {@link CompositeSpecificationExecutor}.
+     */
+    ID;
+
+    /**
+     * Returns {@link QueryKind#COUNT} only for the count query of {@link CompositeSpecificationExecutor}, which marks it when it renders the specification.
+     * <br>
+     * The selection of a query is set after the specification is rendered, e.g. by {@code JpaSpecificationExecutor.count}, and a {@link Long} result type
+     * <br>
+     * does not tell a count from {@code select e.id} or a sum, thus such a query is {@link QueryKind#ID} and keeps its left joins.
+     * <p>
+     * Returns {@link QueryKind#ROW} if the result type or the roots are unknown, so nothing is omitted.
+     */
+    public static QueryKind of(CriteriaQuery<?> query) {
+        if (RenderContext.currentCounting()) {
+            return COUNT;
+        }
+        var resultType = query.getResultType();
+        if (resultType == null || query.getRoots() == null) {
+            return ROW;
+        }
+        for (var root : query.getRoots()) {
+            if (resultType.isAssignableFrom(root.getJavaType())) {
+                return ROW;
+            }
+        }
+        return ID;
+    }
+}
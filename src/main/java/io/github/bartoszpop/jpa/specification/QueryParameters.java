@@ -0,0 +1,56 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.ParameterExpression;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class creates {@link ParameterExpression} in place of the values of a specification and remembers them along with the values in order of creation.
+ * <p>
+ * The parameters are named {@code p0}, {@code p1}, etc., so the same tree is always rendered to the same query.
+ *
+ * @author Bartosz Popiela
+ */
+final class QueryParameters {
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = Map.of(
+            boolean.class, Boolean.class,
+            byte.class, Byte.class,
+            char.class, Character.class,
+            short.class, Short.class,
+            int.class, Integer.class,
+            long.class, Long.class,
+            float.class, Float.class,
+            double.class, Double.class
+    );
+
+    private final CriteriaBuilder criteriaBuilder;
+
+    private final List<ParameterExpression<?>> parameters = new ArrayList<>();
+
+    private final List<Object> values = new ArrayList<>();
+
+    QueryParameters(CriteriaBuilder criteriaBuilder) {
+        this.criteriaBuilder = criteriaBuilder;
+    }
+
+    <Y> ParameterExpression<Y> create(Class<Y> type, Object value) {
+        // Cast allowed because the wrapper of a primitive type represents the same values
+        //noinspection unchecked
+        var wrapperType = (Class<Y>) WRAPPERS.getOrDefault(type, type);
+        var parameter = criteriaBuilder.parameter(wrapperType, "p" + parameters.size());
+        parameters.add(parameter);
+        values.add(value);
+        return parameter;
+    }
+
+    List<ParameterExpression<?>> getParameters() {
+        return parameters;
+    }
+
+    List<Object> getValues() {
+        return values;
+    }
+}
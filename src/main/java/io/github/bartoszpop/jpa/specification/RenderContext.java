@@ -0,0 +1,84 @@
+package io.github.bartoszpop.jpa.specification;
+
+import java.util.function.Supplier;
+
+/**
+ * This class holds the state of rendering a specification for the current thread, so {@link CompositeSpecification#asBuilder()}
+ * <br>
+ * called by {@link PredicateBuilder} within the specification renders its tree the same way as the enclosing one.
+ *
+ * @author Bartosz Popiela
+ */
+final class RenderContext {
+
+    private static final ThreadLocal<RenderContext> CURRENT = new ThreadLocal<>();
+
+    private final QueryParameters parameters;
+
+    private final PathCache paths = new PathCache();
+
+    private boolean joinsShared;
+
+    private boolean counting;
+
+    RenderContext(QueryParameters parameters) {
+        this.parameters = parameters;
+    }
+
+    /**
+     * Returns the parameters of the query being rendered, or null if the values are rendered as literals.
+     */
+    static QueryParameters currentParameters() {
+        var context = CURRENT.get();
+        return context != null ? context.parameters : null;
+    }
+
+    /**
+     * Returns the paths of the query being rendered, so the specifications rendered within the enclosing one share them, or new paths if there is no context.
+     */
+    static PathCache currentPaths() {
+        var context = CURRENT.get();
+        return context != null ? context.paths : new PathCache();
+    }
+
+    /**
+     * Returns whether a left join reuses an inner join of the same attribute, e.g. a facet reuses the join of the specification, see {@link FacetCounter}.
+     */
+    static boolean currentJoinsShared() {
+        var context = CURRENT.get();
+        return context != null && context.joinsShared;
+    }
+
+    void setJoinsShared(boolean joinsShared) {
+        this.joinsShared = joinsShared;
+    }
+
+    /**
+     * Returns whether the query being rendered is the count query of {@link CompositeSpecificationExecutor}, see {@link QueryKind#of}.
+     */
+    static boolean currentCounting() {
+        var context = CURRENT.get();
+        return context != null && context.counting;
+    }
+
+    void setCounting(boolean counting) {
+        this.counting = counting;
+    }
+
+    /**
+     * Renders with this context and restores the enclosing one afterwards.
+     */
+    <R> R render(Supplier<R> renderer) {
+        var enclosingContext = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return renderer.get();
+        } finally {
+            if (enclosingContext != null) {
+                CURRENT.set(enclosingContext);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.bartoszpop.jpa.specification;
+
+import java.util.List;
+
+/**
+ * This class encodes {@link CompositeSpecification} to the compact binary format of {@link SpecificationFormat} or to JSON and decodes it back,
+ * <br>
+ * e.g. to store the filters saved by the users or to pass a specification to another service.
+ * <p>
+ * The tree is encoded as it is simplified, see {@link CompositeSpecification#equals}, thus a decoded specification is equal to the encoded one.
+ * <br>
+ * A specification that has {@link PredicateBuilder} must be named, see {@link CompositeSpecification#of(String, List, PredicateBuilder)},
+ * <br>
+ * then its name and arguments are encoded and the factory of {@link SpecificationRegistry} recreates it. So does the fallback of {@link InStrategy}.
+ * <p>
+ * A value of a comparison, an {@code in} or an argument may be null, {@link Boolean}, {@link Integer}, {@link Long}, {@link Double}, {@link String},
+ * <br>
+ * {@link java.math.BigDecimal}, {@link java.time.LocalDate}, {@link java.time.LocalDateTime}, {@link java.time.Instant}, {@link java.util.UUID},
+ * <br>
+ * a {@link java.util.Collection} of these values, decoded as {@link List}, or {@link CompositeSpecification}.
+ * <p>
+ * An instance is thread-safe.
+ *
+ * @author Bartosz Popiela
+ */
+public final class SpecificationCodec {
+
+    private final SpecificationRegistry registry;
+
+    public SpecificationCodec(SpecificationRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the specification has {@link PredicateBuilder} without a name, a value of an unsupported type or a fallback not registered
+     */
+    public byte[] encode(CompositeSpecification<?, ?> specification) {
+        return new BinarySpecificationWriter(registry).write(specification.getSimplifiedNode());
+    }
+
+    /**
+     * Decodes the specification. The caller is responsible for the type arguments to be the ones of the encoded specification.
+     *
+     * @throws IllegalArgumentException if the bytes are not a specification of a supported version, or a factory or a fallback is not registered
+     */
+    public <T, S> CompositeSpecification<T, S> decode(byte[] bytes) {
+        return CompositeSpecification.fromNode(new BinarySpecificationReader(registry, bytes).read());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the specification has {@link PredicateBuilder} without a name, a value of an unsupported type or a fallback not registered
+     */
+    public String toJson(CompositeSpecification<?, ?> specification) {
+        return new JsonSpecificationWriter(registry).write(specification.getSimplifiedNode());
+    }
+
+    /**
+     * Decodes the specification. The caller is responsible for the type arguments to be the ones of the encoded specification.
+     *
+     * @throws IllegalArgumentException if the JSON is not a specification of a supported version, or a factory or a fallback is not registered
+     */
+    public <T, S> CompositeSpecification<T, S> fromJson(String json) {
+        return CompositeSpecification.fromNode(new JsonSpecificationReader(registry, json).read());
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.bartoszpop.jpa.specification;
+
+/**
+ * This class defines the tags of the binary format of {@link SpecificationCodec}.
+ * <p>
+ * An encoded specification is the magic byte, the version and the root node. A node is its tag followed by its fields, a value is its tag followed by its fields.
+ * <br>
+ * A count or a length is an unsigned variable-length integer, a signed number is zigzag encoded, so small numbers take a byte.
+ * <br>
+ * A string is written once, then it is referenced by its index, e.g. the attribute of many comparisons, see {@link BinarySpecificationWriter}.
+ * <p>
+ * A new version may add the tags, but it must not change the meaning of the existing ones, so a specification of a previous version is decoded.
+ *
+ * @author Bartosz Popiela
+ */
+final class SpecificationFormat {
+
+    static final byte MAGIC = (byte) 0xC5;
+
+    static final byte VERSION = 1;
+
+    static final byte NO_OP = 0;
+    static final byte AND = 1;
+    static final byte OR = 2;
+    static final byte NOT = 3;
+    static final byte GET = 4;
+    static final byte JOIN = 5;
+    static final byte FETCH = 6;
+    static final byte EXISTS = 7;
+    static final byte COMPARISON = 8;
+    static final byte IN = 9;
+    static final byte LEAF = 10;
+
+    static final byte NULL = 0;
+    static final byte FALSE = 1;
+    static final byte TRUE = 2;
+    static final byte INTEGER = 3;
+    static final byte LONG = 4;
+    static final byte DOUBLE = 5;
+    static final byte STRING = 6;
+    static final byte BIG_DECIMAL = 7;
+    static final byte LOCAL_DATE = 8;
+    static final byte LOCAL_DATE_TIME = 9;
+    static final byte INSTANT = 10;
+    static final byte UUID = 11;
+    static final byte LIST = 12;
+    static final byte SPECIFICATION = 13;
+
+    /**
+     * The maximum nesting depth of the nodes and the values of a decoded specification, since they are read recursively.
+     */
+    static final int MAX_DEPTH = 1000;
+
+    static final int PADDED = 1;
+    static final int CHUNKED = 2;
+    static final int FALLBACK = 4;
+
+    private SpecificationFormat() {
+    }
+}
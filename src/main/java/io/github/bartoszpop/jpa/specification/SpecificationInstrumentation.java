@@ -0,0 +1,52 @@
+package io.github.bartoszpop.jpa.specification;
+
+/**
+ * This class holds {@link SpecificationMetrics} the specifications report to, e.g.
+ * <pre>{@code
+ * SpecificationInstrumentation.setMetrics(new SpecificationStatistics(10));
+ * }</pre>
+ * The metrics are global, since {@link CompositeSpecification#toPredicate} is called by Spring Data repositories as well.
+ * <p>
+ * By default, the metrics are disabled and the specifications neither measure nor allocate anything for them.
+ *
+ * @author Bartosz Popiela
+ */
+public final class SpecificationInstrumentation {
+
+    /**
+     * This is the metrics that ignore the measurements. The specifications compare the installed metrics with it to skip measuring.
+     */
+    static final SpecificationMetrics NO_OP = new SpecificationMetrics() {
+        @Override
+        public void rendered(String name, long buildNanos, int nodeCount, int joinCount) {
+        }
+
+        @Override
+        public void executed(String name, long latencyNanos, long rowCount) {
+        }
+    };
+
+    private static volatile SpecificationMetrics metrics = NO_OP;
+
+    private SpecificationInstrumentation() {
+    }
+
+    /**
+     * Installs the metrics, or disables the metrics if null.
+     */
+    public static void setMetrics(SpecificationMetrics metrics) {
+        SpecificationInstrumentation.metrics = metrics != null ? metrics : NO_OP;
+    }
+
+    public static SpecificationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the installed metrics if the specification of the name is to be measured, null otherwise.
+     */
+    static SpecificationMetrics metricsOf(String name) {
+        var metrics = SpecificationInstrumentation.metrics;
+        return name != null && metrics != NO_OP ? metrics : null;
+    }
+}
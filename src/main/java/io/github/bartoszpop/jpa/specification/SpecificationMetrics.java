@@ -0,0 +1,46 @@
+package io.github.bartoszpop.jpa.specification;
+
+/**
+ * This interface receives the measurements of the named specifications, see {@link CompositeSpecification#getName()}.
+ * <p>
+ * {@link CompositeSpecification#toPredicate} reports the time the predicate took to build, the number of the nodes rendered
+ * <br>
+ * and the number of {@link SpecificationNode.Join}, {@link SpecificationNode.Fetch} and {@link SpecificationNode.Exists} among them.
+ * <br>
+ * The joins created by {@link PredicateBuilder} by itself are not counted, since it is opaque.
+ * <p>
+ * {@link CompositeSpecificationExecutor} reports the latency of a query and the number of the rows it returned,
+ * <br>
+ * except for {@link CompositeSpecificationExecutor#stream}, since its rows are read after it returns.
+ * <p>
+ * The metrics are installed with {@link SpecificationInstrumentation#setMetrics}. An implementation must be thread-safe and should not block.
+ *
+ * @author Bartosz Popiela
+ * @see MeterSpecificationMetrics
+ * @see SpecificationStatistics
+ */
+public interface SpecificationMetrics {
+
+    void rendered(String name, long buildNanos, int nodeCount, int joinCount);
+
+    void executed(String name, long latencyNanos, long rowCount);
+
+    /**
+     * Returns the metrics that report to this metrics, then to the other one.
+     */
+    default SpecificationMetrics andThen(SpecificationMetrics other) {
+        return new SpecificationMetrics() {
+            @Override
+            public void rendered(String name, long buildNanos, int nodeCount, int joinCount) {
+                SpecificationMetrics.this.rendered(name, buildNanos, nodeCount, joinCount);
+                other.rendered(name, buildNanos, nodeCount, joinCount);
+            }
+
+            @Override
+            public void executed(String name, long latencyNanos, long rowCount) {
+                SpecificationMetrics.this.executed(name, latencyNanos, rowCount);
+                other.executed(name, latencyNanos, rowCount);
+            }
+        };
+    }
+}
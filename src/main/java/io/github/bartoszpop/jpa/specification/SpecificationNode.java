@@ -0,0 +1,581 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.metamodel.Attribute;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class is a node of the tree {@link CompositeSpecification} is composed of.
+ * <p>
+ * The tree is built by {@link CompositeSpecification#and}, {@link CompositeSpecification#or}, {@link CompositeSpecification#not},
+ * {@link CompositeSpecification#noOp} and the predefined specifications, e.g. {@link ExpressionSpecifications}, {@link PathSpecifications} and {@link FromSpecifications},
+ * <br>
+ * whereas {@link Leaf} wraps {@link PredicateBuilder} passed to {@link CompositeSpecification#of}.
+ * <p>
+ * The subclasses are nested and the constructor is private, so {@link SpecificationVisitor} covers all the node types.
+ * <p>
+ * The nodes are equal if they are of the same type, the same operator, attribute or values and the equal operands in the same order.
+ * <br>
+ * {@link Leaf} is equal to another one if they have the same name and arguments, or the same {@link PredicateBuilder} if they have no name.
+ * <br>
+ * The metamodel attribute of {@link Get}, {@link Join}, {@link Fetch} and {@link Exists} is not compared, since the name identifies the attribute.
+ *
+ * @author Bartosz Popiela
+ */
+public abstract class SpecificationNode {
+
+    private SpecificationNode() {
+    }
+
+    public abstract <R> R accept(SpecificationVisitor<R> visitor);
+
+    /**
+     * This node delegates to {@link PredicateBuilder} which is opaque to {@link SpecificationVisitor}.
+     */
+    public static final class Leaf extends SpecificationNode {
+
+        private final PredicateBuilder<?> predicateBuilder;
+
+        private final String name;
+
+        private final List<?> arguments;
+
+        Leaf(PredicateBuilder<?> predicateBuilder) {
+            this(predicateBuilder, null, List.of());
+        }
+
+        /**
+         * Creates a leaf identified by the name and the arguments rather than by {@link PredicateBuilder}. The arguments may be null.
+         */
+        Leaf(PredicateBuilder<?> predicateBuilder, String name, List<?> arguments) {
+            this.predicateBuilder = predicateBuilder;
+            this.name = name;
+            this.arguments = Collections.unmodifiableList(new ArrayList<>(arguments));
+        }
+
+        public PredicateBuilder<?> getPredicateBuilder() {
+            return predicateBuilder;
+        }
+
+        /**
+         * Returns the name of the factory of the leaf, or null if the leaf is identified by {@link PredicateBuilder} only.
+         */
+        public String getName() {
+            return name;
+        }
+
+        public List<?> getArguments() {
+            return arguments;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Leaf)) return false;
+            Leaf that = (Leaf) o;
+            return name != null ? name.equals(that.name) && arguments.equals(that.arguments) : that.name == null && predicateBuilder == that.predicateBuilder;
+        }
+
+        @Override
+        public int hashCode() {
+            return name != null ? Objects.hash(name, arguments) : System.identityHashCode(predicateBuilder);
+        }
+
+        @Override
+        public <R> R accept(SpecificationVisitor<R> visitor) {
+            return visitor.visitLeaf(this);
+        }
+    }
+
+    /**
+     * This node is satisfied by any target, i.e. it is the identity of {@link And}.
+     * <p>
+     * It does not restrict the query, i.e. {@link CompositeSpecification#toPredicate} returns null if a specification is simplified to this node.
+     */
+    public static final class NoOp extends SpecificationNode {
+
+        static final NoOp INSTANCE = new NoOp();
+
+        private NoOp() {
+        }
+
+        @Override
+        public <R> R accept(SpecificationVisitor<R> visitor) {
+            return visitor.visitNoOp(this);
+        }
+    }
+
+    /**
+     * This node is a conjunction of the operands. An operand may be a conjunction itself if it has been composed separately.
+     */
+    public static final class And extends SpecificationNode {
+
+        private final List<SpecificationNode> operands;
+
+        /**
+         * This is the hash code computed once, so the hash code of a deep tree is computed from the hash codes of the operands without recursion.
+         */
+        private final int hashCode;
+
+        And(List<SpecificationNode> operands) {
+            this.operands = List.copyOf(operands);
+            this.hashCode = 31 * And.class.hashCode() + this.operands.hashCode();
+        }
+
+        public List<SpecificationNode> getOperands() {
+            return operands;
+        }
+
+        @Override
+        public <R> R accept(SpecificationVisitor<R> visitor) {
+            return visitor.visitAnd(this);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof And && hashCode == ((And) o).hashCode && operands.equals(((And) o).operands);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * This node is a disjunction of the operands. An operand may be a disjunction itself if it has been composed separately.
+     */
+    public static final class Or extends SpecificationNode {
+
+        private final List<SpecificationNode> operands;
+
+        /**
+         * This is the hash code computed once, so the hash code of a deep tree is computed from the hash codes of the operands without recursion.
+         */
+        private final int hashCode;
+
+        Or(List<SpecificationNode> operands) {
+            this.operands = List.copyOf(operands);
+            this.hashCode = 31 * Or.class.hashCode() + this.operands.hashCode();
+        }
+
+        public List<SpecificationNode> getOperands() {
+            return operands;
+        }
+
+        @Override
+        public <R> R accept(SpecificationVisitor<R> visitor) {
+            return visitor.visitOr(this);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Or && hashCode == ((Or) o).hashCode && operands.equals(((Or) o).operands);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    public static final class Not extends SpecificationNode {
+
+        private final SpecificationNode operand;
+
+        Not(SpecificationNode operand) {
+            this.operand = operand;
+        }
+
+        public SpecificationNode getOperand() {
+            return operand;
+        }
+
+        @Override
+        public <R> R accept(SpecificationVisitor<R> visitor) {
+            return visitor.visitNot(this);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Not && operand.equals(((Not) o).operand);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Not.class.hashCode() + operand.hashCode();
+        }
+    }
+
+    /**
+     * This node gets the attribute of a target, i.e. {@link javax.persistence.criteria.Path#get(String)}, and applies the operand to the attribute.
+     * <br>
+     * If the node has the metamodel attribute, it is passed to {@link javax.persistence.criteria.Path#get(javax.persistence.metamodel.SingularAttribute)} instead of the name.
+     */
+    public static final class Get extends SpecificationNode {
+
+        private final String attribute;
+
+        private final Attribute<?, ?> metamodelAttribute;
+
+        private final SpecificationNode operand;
+
+        Get(String attribute, SpecificationNode operand) {
+            this(attribute, null, operand);
+        }
+
+        Get(String attribute, Attribute<?, ?> metamodelAttribute, SpecificationNode operand) {
+            this.attribute = attribute;
+            this.metamodelAttribute = metamodelAttribute;
+            this.operand = operand;
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+
+        /**
+         * Returns the attribute of the static metamodel, or null if the node is created with the name of the attribute.
+         */
+        public Attribute<?, ?> getMetamodelAttribute() {
+            return metamodelAttribute;
+        }
+
+        /**
+         * Returns the node of the same attribute applied to the operand.
+         */
+        Get withOperand(SpecificationNode operand) {
+            return new Get(attribute, metamodelAttribute, operand);
+        }
+
+        public SpecificationNode getOperand() {
+            return operand;
+        }
+
+        @Override
+        public <R> R accept(SpecificationVisitor<R> visitor) {
+            return visitor.visitGet(this);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Get)) return false;
+            Get that = (Get) o;
+            return attribute.equals(that.attribute) && operand.equals(that.operand);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(Get.class, attribute, operand);
+        }
+    }
+
+    /**
+     * This node joins the attribute of a target and applies the operand to the join.
+     */
+    public static final class Join extends SpecificationNode {
+
+        private final String attribute;
+
+        private final Attribute<?, ?> metamodelAttribute;
+
+        private final JoinType joinType;
+
+        private final SpecificationNode operand;
+
+        Join(String attribute, JoinType joinType, SpecificationNode operand) {
+            this(attribute, null, joinType, operand);
+        }
+
+        Join(String attribute, Attribute<?, ?> metamodelAttribute, JoinType joinType, SpecificationNode operand) {
+            this.attribute = attribute;
+            this.metamodelAttribute = metamodelAttribute;
+            this.joinType = joinType;
+            this.operand = operand;
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+
+        /**
+         * @see Get#getMetamodelAttribute()
+         */
+        public Attribute<?, ?> getMetamodelAttribute() {
+            return metamodelAttribute;
+        }
+
+        /**
+         * Returns the node of the same attribute and {@link JoinType} applied to the operand.
+         */
+        Join withOperand(SpecificationNode operand) {
+            return new Join(attribute, metamodelAttribute, joinType, operand);
+        }
+
+        public JoinType getJoinType() {
+            return joinType;
+        }
+
+        public SpecificationNode getOperand() {
+            return operand;
+        }
+
+        @Override
+        public <R> R accept(SpecificationVisitor<R> visitor) {
+            return visitor.visitJoin(this);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Join)) return false;
+            Join that = (Join) o;
+            return attribute.equals(that.attribute) && joinType == that.joinType && operand.equals(that.operand);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(Join.class, attribute, joinType, operand);
+        }
+    }
+
+    /**
+     * This node fetches the attribute of a target and applies the operand to the fetch join.
+     */
+    public static final class Fetch extends SpecificationNode {
+
+        private final String attribute;
+
+        private final Attribute<?, ?> metamodelAttribute;
+
+        private final JoinType joinType;
+
+        private final SpecificationNode operand;
+
+        Fetch(String attribute, JoinType joinType, SpecificationNode operand) {
+            this(attribute, null, joinType, operand);
+        }
+
+        Fetch(String attribute, Attribute<?, ?> metamodelAttribute, JoinType joinType, SpecificationNode operand) {
+            this.attribute = attribute;
+            this.metamodelAttribute = metamodelAttribute;
+            this.joinType = joinType;
+            this.operand = operand;
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+
+        /**
+         * @see Get#getMetamodelAttribute()
+         */
+        public Attribute<?, ?> getMetamodelAttribute() {
+            return metamodelAttribute;
+        }
+
+        /**
+         * Returns the node of the same attribute and {@link JoinType} applied to the operand.
+         */
+        Fetch withOperand(SpecificationNode operand) {
+            return new Fetch(attribute, metamodelAttribute, joinType, operand);
+        }
+
+        public JoinType getJoinType() {
+            return joinType;
+        }
+
+        public SpecificationNode getOperand() {
+            return operand;
+        }
+
+        @Override
+        public <R> R accept(SpecificationVisitor<R> visitor) {
+            return visitor.visitFetch(this);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Fetch)) return false;
+            Fetch that = (Fetch) o;
+            return attribute.equals(that.attribute) && joinType == that.joinType && operand.equals(that.operand);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(Fetch.class, attribute, joinType, operand);
+        }
+    }
+
+    /**
+     * This node tests whether a target has an element of the attribute the operand applies to, i.e. it is a correlated {@code exists} subquery.
+     */
+    public static final class Exists extends SpecificationNode {
+
+        private final String attribute;
+
+        private final Attribute<?, ?> metamodelAttribute;
+
+        private final SpecificationNode operand;
+
+        Exists(String attribute, SpecificationNode operand) {
+            this(attribute, null, operand);
+        }
+
+        Exists(String attribute, Attribute<?, ?> metamodelAttribute, SpecificationNode operand) {
+            this.attribute = attribute;
+            this.metamodelAttribute = metamodelAttribute;
+            this.operand = operand;
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+
+        /**
+         * @see Get#getMetamodelAttribute()
+         */
+        public Attribute<?, ?> getMetamodelAttribute() {
+            return metamodelAttribute;
+        }
+
+        /**
+         * Returns the node of the same attribute applied to the operand.
+         */
+        Exists withOperand(SpecificationNode operand) {
+            return new Exists(attribute, metamodelAttribute, operand);
+        }
+
+        public SpecificationNode getOperand() {
+            return operand;
+        }
+
+        @Override
+        public <R> R accept(SpecificationVisitor<R> visitor) {
+            return visitor.visitExists(this);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Exists)) return false;
+            Exists that = (Exists) o;
+            return attribute.equals(that.attribute) && operand.equals(that.operand);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(Exists.class, attribute, operand);
+        }
+    }
+
+    /**
+     * This node compares a target with the value.
+     */
+    public static final class Comparison extends SpecificationNode {
+
+        private final Operator operator;
+
+        private final Object value;
+
+        Comparison(Operator operator, Object value) {
+            this.operator = operator;
+            this.value = value;
+        }
+
+        public Operator getOperator() {
+            return operator;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public <R> R accept(SpecificationVisitor<R> visitor) {
+            return visitor.visitComparison(this);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Comparison)) return false;
+            Comparison that = (Comparison) o;
+            return operator == that.operator && Objects.equals(value, that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(operator, value);
+        }
+
+        /**
+         * The operators correspond to the methods of {@link CriteriaBuilder} of the same name.
+         */
+        public enum Operator {
+            EQUAL, NOT_EQUAL, GREATER_THAN, GREATER_THAN_OR_EQUAL_TO, LESS_THAN, LESS_THAN_OR_EQUAL_TO
+        }
+    }
+
+    /**
+     * This node tests whether a target is a member of the values. The strategy decides how the values are rendered.
+     */
+    public static final class In extends SpecificationNode {
+
+        private final Collection<?> values;
+
+        private final InStrategy strategy;
+
+        /**
+         * Copies the values, so the node, its canonical key and the key of its cached results do not change if the caller changes the collection.
+         * <br>
+         * A set is copied to a set, since its order does not determine the canonical key, see {@link CanonicalKey}. The values may be null.
+         */
+        In(Collection<?> values, InStrategy strategy) {
+            this.values = values instanceof Set ? Collections.unmodifiableSet(new LinkedHashSet<>(values)) : Collections.unmodifiableList(new ArrayList<>(values));
+            this.strategy = strategy;
+        }
+
+        public Collection<?> getValues() {
+            return values;
+        }
+
+        public InStrategy getStrategy() {
+            return strategy;
+        }
+
+        @Override
+        public <R> R accept(SpecificationVisitor<R> visitor) {
+            return visitor.visitIn(this);
+        }
+
+        /**
+         * The values are equal if they are equal in order, whichever type of {@link Collection} they are.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof In)) return false;
+            In that = (In) o;
+            return values.size() == that.values.size() && new ArrayList<>(values).equals(new ArrayList<>(that.values)) && strategy.equals(that.strategy);
+        }
+
+        @Override
+        public int hashCode() {
+            var hashCode = In.class.hashCode();
+            for (var value : values) {
+                hashCode = 31 * hashCode + Objects.hashCode(value);
+            }
+            return 31 * hashCode + strategy.hashCode();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.bartoszpop.jpa.specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * This class registers the factories of the named specifications, see {@link CompositeSpecification#of(String, List, PredicateBuilder)},
+ * <br>
+ * and the fallbacks of {@link InStrategy} by name, so {@link SpecificationCodec} decodes a specification that has {@link PredicateBuilder}.
+ * <p>
+ * A factory creates the specification of the arguments it was named with, e.g.
+ * <pre>
+ * registry.register("EmployeeSpecifications.bornIn", arguments -> EmployeeSpecifications.bornIn((Integer) arguments.get(0)));
+ * </pre>
+ *
+ * @author Bartosz Popiela
+ */
+public final class SpecificationRegistry {
+
+    private final Map<String, Function<List<?>, ? extends CompositeSpecification<?, ?>>> factories = new ConcurrentHashMap<>();
+
+    private final Map<String, InStrategy.Fallback> fallbacks = new ConcurrentHashMap<>();
+
+    public SpecificationRegistry register(String name, Function<List<?>, ? extends CompositeSpecification<?, ?>> factory) {
+        factories.put(name, factory);
+        return this;
+    }
+
+    /**
+     * Registers the fallback by name. The fallback of an encoded {@link InStrategy} is looked up by {@link Object#equals}.
+     */
+    public SpecificationRegistry registerFallback(String name, InStrategy.Fallback fallback) {
+        fallbacks.put(name, fallback);
+        return this;
+    }
+
+    /**
+     * Returns the node of the specification the factory of the name creates.
+     *
+     * @throws IllegalArgumentException if there is no factory of the name
+     */
+    SpecificationNode create(String name, List<?> arguments) {
+        var factory = factories.get(name);
+        if (factory == null) {
+            throw new IllegalArgumentException("There is no factory of the name " + name + ".");
+        }
+        return factory.apply(arguments).getNode();
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no fallback of the name
+     */
+    InStrategy.Fallback getFallback(String name) {
+        var fallback = fallbacks.get(name);
+        if (fallback == null) {
+            throw new IllegalArgumentException("There is no fallback of the name " + name + ".");
+        }
+        return fallback;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the fallback is not registered
+     */
+    String getFallbackName(InStrategy.Fallback fallback) {
+        for (var entry : fallbacks.entrySet()) {
+            if (entry.getValue().equals(fallback)) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalArgumentException("The fallback " + fallback + " is not registered.");
+    }
+}
@@ -0,0 +1,255 @@
+package io.github.bartoszpop.jpa.specification;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * This class caches the results of the queries of the specifications by {@link CompositeSpecification#getCanonicalKey()}, see {@link CachingSpecificationExecutor}.
+ * <p>
+ * The cache holds up to the maximum number of results for up to the time to live and evicts the least recently used one.
+ * <p>
+ * {@link SpecificationResultCache#invalidate(Object)} drops only the results the changed entity may belong to, i.e. the results of the specifications
+ * <br>
+ * of its class the entity satisfies as per {@link CompositeSpecification#asPredicate()}, and the results of the specifications that read an association,
+ * <br>
+ * e.g. join it, or delegate to {@link PredicateBuilder}, since they may depend on the entity without reading it directly.
+ * <br>
+ * An updated entity must be passed in the previous state as well, since it may have satisfied the specification before.
+ * <p>
+ * A result is not cached if the cache is invalidated while the query runs, so a result older than the invalidation is never returned.
+ *
+ * @author Bartosz Popiela
+ */
+public final class SpecificationResultCache {
+
+    private final Map<String, CacheEntry> entries;
+
+    private final long timeToLiveNanos;
+
+    private final LongSupplier nanoTime;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    public SpecificationResultCache(int maximumSize, Duration timeToLive) {
+        this(maximumSize, timeToLive, System::nanoTime);
+    }
+
+    SpecificationResultCache(int maximumSize, Duration timeToLive, LongSupplier nanoTime) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive.");
+        } else if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("The time to live must be positive.");
+        }
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.nanoTime = nanoTime;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                if (size() > maximumSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the result of the key or the result loaded by the loader. The result is loaded outside the lock, so two threads may load the same result once.
+     */
+    <R> R get(String key, Class<?> domainClass, CompositeSpecification<?, ?> specification, Supplier<R> loader) {
+        var now = nanoTime.getAsLong();
+        synchronized (entries) {
+            var entry = entries.get(key);
+            if (entry != null && now - entry.createdNanos < timeToLiveNanos) {
+                hitCount.incrementAndGet();
+                // Cast allowed because the key determines the type of the result
+                //noinspection unchecked
+                return (R) entry.result;
+            } else if (entry != null) {
+                entries.remove(key);
+                evictionCount.incrementAndGet();
+            }
+        }
+        missCount.incrementAndGet();
+        var invalidations = invalidationCount.get();
+        var result = loader.get();
+        var entry = new CacheEntry(domainClass, specification, result, now);
+        synchronized (entries) {
+            if (invalidations == invalidationCount.get()) {
+                entries.put(key, entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the results of the specifications of the class of the entity it satisfies and the results of the specifications that read more than the attributes of the root.
+     */
+    public void invalidate(Object entity) {
+        synchronized (entries) {
+            invalidationCount.incrementAndGet();
+            entries.values().removeIf(entry -> entry.predicate == null || entry.domainClass.isInstance(entity) && entry.matches(entity));
+        }
+    }
+
+    /**
+     * Drops the results of the specifications of the class and the results of the specifications that read more than the attributes of the root,
+     * <br>
+     * e.g. if the changed entity is not known.
+     */
+    public void invalidate(Class<?> domainClass) {
+        synchronized (entries) {
+            invalidationCount.incrementAndGet();
+            entries.values().removeIf(entry -> entry.predicate == null || domainClass.isAssignableFrom(entry.domainClass));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidationCount.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of the results evicted because of the maximum size or the time to live, apart from the invalidated ones.
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * This class is a cached result along with the predicate of the specification, or null if the specification reads more than the attributes of the root,
+     * <br>
+     * since then the predicate may read the associations of an entity, e.g. initialize a lazy one, and the entity does not tell whether the result depends on it.
+     */
+    private static final class CacheEntry {
+
+        private final Class<?> domainClass;
+
+        private final Predicate<Object> predicate;
+
+        private final Object result;
+
+        private final long createdNanos;
+
+        private CacheEntry(Class<?> domainClass, CompositeSpecification<?, ?> specification, Object result, long createdNanos) {
+            this.domainClass = domainClass;
+            // Cast allowed because the predicate is tested against the entities of the domain class only
+            //noinspection unchecked
+            this.predicate = specification.getSimplifiedNode().accept(RootOnly.INSTANCE) ? (Predicate<Object>) specification.asPredicate() : null;
+            this.result = result;
+            this.createdNanos = createdNanos;
+        }
+
+        /**
+         * Returns true if the predicate fails, e.g. the attribute is not found, so the result is rather dropped than stale.
+         */
+        private boolean matches(Object entity) {
+            try {
+                return predicate.test(entity);
+            } catch (RuntimeException e) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * This class returns whether the visited node reads the attributes of the root only, i.e. it neither reads an association nor delegates to {@link PredicateBuilder}.
+     * <br>
+     * A node of {@link RootOnly#ATTRIBUTE} applies to an attribute of the root, thus it must not get an attribute of the attribute, e.g. of an association.
+     */
+    private static final class RootOnly implements SpecificationVisitor<Boolean> {
+
+        private static final RootOnly INSTANCE = new RootOnly(false);
+
+        private static final RootOnly ATTRIBUTE = new RootOnly(true);
+
+        private final boolean attribute;
+
+        private RootOnly(boolean attribute) {
+            this.attribute = attribute;
+        }
+
+        @Override
+        public Boolean visitLeaf(SpecificationNode.Leaf leaf) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitNoOp(SpecificationNode.NoOp noOp) {
+            return true;
+        }
+
+        @Override
+        public Boolean visitAnd(SpecificationNode.And and) {
+            return and.getOperands().stream().allMatch(operand -> operand.accept(this));
+        }
+
+        @Override
+        public Boolean visitOr(SpecificationNode.Or or) {
+            return or.getOperands().stream().allMatch(operand -> operand.accept(this));
+        }
+
+        @Override
+        public Boolean visitNot(SpecificationNode.Not not) {
+            return not.getOperand().accept(this);
+        }
+
+        @Override
+        public Boolean visitGet(SpecificationNode.Get get) {
+            return !attribute && get.getOperand().accept(ATTRIBUTE);
+        }
+
+        @Override
+        public Boolean visitJoin(SpecificationNode.Join join) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitFetch(SpecificationNode.Fetch fetch) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitExists(SpecificationNode.Exists exists) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitComparison(SpecificationNode.Comparison comparison) {
+            return true;
+        }
+
+        @Override
+        public Boolean visitIn(SpecificationNode.In in) {
+            return true;
+        }
+    }
+}
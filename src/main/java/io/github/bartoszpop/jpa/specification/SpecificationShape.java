@@ -0,0 +1,146 @@
+package io.github.bartoszpop.jpa.specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is the structure of the tree of {@link SpecificationNode}, i.e. the operators, attributes and joins, apart from the values.
+ * <p>
+ * The key is equal for the trees rendered to the same query with {@link QueryParameters}, whereas the values are in order of the parameters.
+ * <br>
+ * The key is null if the tree has {@link SpecificationNode.Leaf}, since {@link PredicateBuilder} is opaque, and so is {@link InStrategy.Fallback}.
+ *
+ * @author Bartosz Popiela
+ */
+final class SpecificationShape {
+
+    private final String key;
+
+    private final List<Object> values;
+
+    private SpecificationShape(String key, List<Object> values) {
+        this.key = key;
+        this.values = values;
+    }
+
+    /**
+     * Creates the shape of the tree simplified by {@link SpecificationSimplifier}.
+     */
+    static SpecificationShape of(SpecificationNode node) {
+        var visitor = new KeyVisitor();
+        return node.accept(visitor) ? new SpecificationShape(visitor.key.toString(), visitor.values) : new SpecificationShape(null, visitor.values);
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    List<Object> getValues() {
+        return values;
+    }
+
+    /**
+     * This class appends the key of the visited node and returns false if the node has {@link SpecificationNode.Leaf}.
+     * The nodes are visited in order of {@link PredicateRenderer}, so the values are in order of the parameters.
+     */
+    private static final class KeyVisitor implements SpecificationVisitor<Boolean> {
+
+        private final StringBuilder key = new StringBuilder();
+
+        private final List<Object> values = new ArrayList<>();
+
+        @Override
+        public Boolean visitLeaf(SpecificationNode.Leaf leaf) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitNoOp(SpecificationNode.NoOp noOp) {
+            key.append("noOp");
+            return true;
+        }
+
+        @Override
+        public Boolean visitAnd(SpecificationNode.And and) {
+            return appendOperands("and", and.getOperands());
+        }
+
+        @Override
+        public Boolean visitOr(SpecificationNode.Or or) {
+            return appendOperands("or", or.getOperands());
+        }
+
+        @Override
+        public Boolean visitNot(SpecificationNode.Not not) {
+            key.append("not(");
+            return append(not.getOperand());
+        }
+
+        @Override
+        public Boolean visitGet(SpecificationNode.Get get) {
+            key.append("get(").append(get.getAttribute()).append(',');
+            return append(get.getOperand());
+        }
+
+        @Override
+        public Boolean visitJoin(SpecificationNode.Join join) {
+            key.append("join(").append(join.getAttribute()).append(',').append(join.getJoinType()).append(',');
+            return append(join.getOperand());
+        }
+
+        @Override
+        public Boolean visitFetch(SpecificationNode.Fetch fetch) {
+            key.append("fetch(").append(fetch.getAttribute()).append(',').append(fetch.getJoinType()).append(',');
+            return append(fetch.getOperand());
+        }
+
+        @Override
+        public Boolean visitExists(SpecificationNode.Exists exists) {
+            key.append("exists(").append(exists.getAttribute()).append(',');
+            return append(exists.getOperand());
+        }
+
+        @Override
+        public Boolean visitComparison(SpecificationNode.Comparison comparison) {
+            key.append(comparison.getOperator());
+            values.add(comparison.getValue());
+            return true;
+        }
+
+        @Override
+        public Boolean visitIn(SpecificationNode.In in) {
+            if (in.getStrategy().isFallback(in.getValues())) {
+                return false;
+            }
+            // An empty collection is not bound, see PredicateRenderer#in
+            if (in.getValues().isEmpty()) {
+                key.append("IN()");
+            } else {
+                var chunks = in.getStrategy().toChunks(in.getValues());
+                key.append("IN").append(chunks.size());
+                values.addAll(chunks);
+            }
+            return true;
+        }
+
+        private Boolean append(SpecificationNode operand) {
+            if (!operand.accept(this)) {
+                return false;
+            }
+            key.append(')');
+            return true;
+        }
+
+        private Boolean appendOperands(String junction, List<SpecificationNode> operands) {
+            key.append(junction).append('(');
+            for (var operand : operands) {
+                if (!operand.accept(this)) {
+                    return false;
+                }
+                key.append(',');
+            }
+            key.append(')');
+            return true;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package io.github.bartoszpop.jpa.specification;
+
+import io.github.bartoszpop.jpa.specification.SpecificationNode.Comparison.Operator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class simplifies the tree of {@link SpecificationNode} before it is rendered to {@link javax.persistence.criteria.Predicate}.
+ * <p>
+ * It flattens nested junctions, eliminates {@link SpecificationNode.NoOp} from conjunctions, folds the junctions with a constant operand,
+ * <br>
+ * collapses double negation and pushes {@link SpecificationNode.Not} down to the leaves, i.e. the result is in negation normal form.
+ * <p>
+ * A constant operand absorbs the other operands only if they have no side effects, i.e. they do not join or delegate to {@link PredicateBuilder},
+ * <br>
+ * thus {@code noOp().or(fetchEmployees())} still fetches the employees.
+ * <p>
+ * The negation of a comparison is the comparison with the complementary operator, e.g. {@code not(lessThan(x))} is {@code greaterThanOrEqualTo(x)}.
+ * This is equivalent in three-valued logic, since both evaluate to unknown if a target is null.
+ *
+ * @author Bartosz Popiela
+ */
+final class SpecificationSimplifier implements SpecificationVisitor<SpecificationNode> {
+
+    static final SpecificationSimplifier INSTANCE = new SpecificationSimplifier();
+
+    /**
+     * This is the identity of {@link SpecificationNode.Or}, i.e. the node no target satisfies.
+     */
+    static final SpecificationNode.Or NONE = new SpecificationNode.Or(List.of());
+
+    private static final Map<Operator, Operator> COMPLEMENTS = new EnumMap<>(Map.of(
+            Operator.EQUAL, Operator.NOT_EQUAL,
+            Operator.NOT_EQUAL, Operator.EQUAL,
+            Operator.GREATER_THAN, Operator.LESS_THAN_OR_EQUAL_TO,
+            Operator.GREATER_THAN_OR_EQUAL_TO, Operator.LESS_THAN,
+            Operator.LESS_THAN, Operator.GREATER_THAN_OR_EQUAL_TO,
+            Operator.LESS_THAN_OR_EQUAL_TO, Operator.GREATER_THAN
+    ));
+
+    private final Negation negation = new Negation();
+
+    private SpecificationSimplifier() {
+    }
+
+    @Override
+    public SpecificationNode visitLeaf(SpecificationNode.Leaf leaf) {
+        return leaf;
+    }
+
+    @Override
+    public SpecificationNode visitNoOp(SpecificationNode.NoOp noOp) {
+        return noOp;
+    }
+
+    @Override
+    public SpecificationNode visitAnd(SpecificationNode.And and) {
+        var operands = new ArrayList<SpecificationNode>();
+        for (var operand : flatten(and.getOperands(), SpecificationNode.And.class)) {
+            var simplifiedOperand = operand.accept(this);
+            if (simplifiedOperand instanceof SpecificationNode.And) {
+                operands.addAll(((SpecificationNode.And) simplifiedOperand).getOperands());
+            } else if (!(simplifiedOperand instanceof SpecificationNode.NoOp)) {
+                operands.add(simplifiedOperand);
+            }
+        }
+        if (operands.stream().anyMatch(SpecificationSimplifier::isNone) && operands.stream().allMatch(SpecificationSimplifier::isPure)) {
+            return NONE;
+        } else if (operands.isEmpty()) {
+            return SpecificationNode.NoOp.INSTANCE;
+        } else if (operands.size() == 1) {
+            return operands.get(0);
+        }
+        return new SpecificationNode.And(operands);
+    }
+
+    @Override
+    public SpecificationNode visitOr(SpecificationNode.Or or) {
+        var operands = new ArrayList<SpecificationNode>();
+        for (var operand : flatten(or.getOperands(), SpecificationNode.Or.class)) {
+            var simplifiedOperand = operand.accept(this);
+            if (simplifiedOperand instanceof SpecificationNode.Or) {
+                operands.addAll(((SpecificationNode.Or) simplifiedOperand).getOperands());
+            } else {
+                operands.add(simplifiedOperand);
+            }
+        }
+        if (operands.contains(SpecificationNode.NoOp.INSTANCE) && operands.stream().allMatch(SpecificationSimplifier::isPure)) {
+            return SpecificationNode.NoOp.INSTANCE;
+        } else if (operands.isEmpty()) {
+            return NONE;
+        } else if (operands.size() == 1) {
+            return operands.get(0);
+        }
+        return new SpecificationNode.Or(operands);
+    }
+
+    @Override
+    public SpecificationNode visitNot(SpecificationNode.Not not) {
+        return not.getOperand().accept(negation);
+    }
+
+    @Override
+    public SpecificationNode visitGet(SpecificationNode.Get get) {
+        return get.withOperand(get.getOperand().accept(this));
+    }
+
+    @Override
+    public SpecificationNode visitJoin(SpecificationNode.Join join) {
+        return join.withOperand(join.getOperand().accept(this));
+    }
+
+    @Override
+    public SpecificationNode visitFetch(SpecificationNode.Fetch fetch) {
+        return fetch.withOperand(fetch.getOperand().accept(this));
+    }
+
+    @Override
+    public SpecificationNode visitExists(SpecificationNode.Exists exists) {
+        return exists.withOperand(exists.getOperand().accept(this));
+    }
+
+    @Override
+    public SpecificationNode visitComparison(SpecificationNode.Comparison comparison) {
+        return comparison;
+    }
+
+    @Override
+    public SpecificationNode visitIn(SpecificationNode.In in) {
+        return in;
+    }
+
+    /**
+     * Returns the operands and the operands of nested junctions of the same type in order. The negation of a junction of the other type
+     * <br>
+     * is a junction of the same type of the negated operands, e.g. {@code not(a or b)} is {@code not(a) and not(b)}, and a double negation is the operand,
+     * <br>
+     * so they are flattened as well. The work stack keeps the stack depth constant, e.g. for {@code not(...(a or b) or c...)} composed with {@link java.util.stream.Stream#reduce}.
+     */
+    private static List<SpecificationNode> flatten(List<SpecificationNode> operands, Class<? extends SpecificationNode> junctionType) {
+        var flattenedOperands = new ArrayList<SpecificationNode>(operands.size());
+        var pending = new ArrayDeque<SpecificationNode>();
+        pushReversed(pending, operands, false);
+        while (!pending.isEmpty()) {
+            var operand = pending.pop();
+            var negatedOperand = operand instanceof SpecificationNode.Not ? ((SpecificationNode.Not) operand).getOperand() : null;
+            if (operand.getClass() == junctionType) {
+                pushReversed(pending, getOperands(operand), false);
+            } else if (negatedOperand instanceof SpecificationNode.Not) {
+                pending.push(((SpecificationNode.Not) negatedOperand).getOperand());
+            } else if (negatedOperand != null && isJunction(negatedOperand) && negatedOperand.getClass() != junctionType) {
+                pushReversed(pending, getOperands(negatedOperand), true);
+            } else {
+                flattenedOperands.add(operand);
+            }
+        }
+        return flattenedOperands;
+    }
+
+    private static void pushReversed(ArrayDeque<SpecificationNode> stack, List<SpecificationNode> nodes, boolean negated) {
+        for (var iterator = nodes.listIterator(nodes.size()); iterator.hasPrevious(); ) {
+            var node = iterator.previous();
+            stack.push(negated ? new SpecificationNode.Not(node) : node);
+        }
+    }
+
+    private static boolean isJunction(SpecificationNode node) {
+        return node instanceof SpecificationNode.And || node instanceof SpecificationNode.Or;
+    }
+
+    private static List<SpecificationNode> getOperands(SpecificationNode junction) {
+        return junction instanceof SpecificationNode.And ? ((SpecificationNode.And) junction).getOperands() : ((SpecificationNode.Or) junction).getOperands();
+    }
+
+    static boolean isNone(SpecificationNode node) {
+        return node instanceof SpecificationNode.Or && ((SpecificationNode.Or) node).getOperands().isEmpty();
+    }
+
+    /**
+     * Returns whether the node neither joins nor delegates to {@link PredicateBuilder}, so it may be eliminated.
+     */
+    private static boolean isPure(SpecificationNode node) {
+        if (node instanceof SpecificationNode.And) {
+            return ((SpecificationNode.And) node).getOperands().stream().allMatch(SpecificationSimplifier::isPure);
+        } else if (node instanceof SpecificationNode.Or) {
+            return ((SpecificationNode.Or) node).getOperands().stream().allMatch(SpecificationSimplifier::isPure);
+        } else if (node instanceof SpecificationNode.Not) {
+            return isPure(((SpecificationNode.Not) node).getOperand());
+        } else if (node instanceof SpecificationNode.Get) {
+            return isPure(((SpecificationNode.Get) node).getOperand());
+        } else if (node instanceof SpecificationNode.Exists) {
+            return isPure(((SpecificationNode.Exists) node).getOperand());
+        }
+        return node instanceof SpecificationNode.NoOp || node instanceof SpecificationNode.Comparison || node instanceof SpecificationNode.In;
+    }
+
+    /**
+     * This class simplifies the negation of the visited node.
+     */
+    private final class Negation implements SpecificationVisitor<SpecificationNode> {
+
+        @Override
+        public SpecificationNode visitLeaf(SpecificationNode.Leaf leaf) {
+            return new SpecificationNode.Not(leaf);
+        }
+
+        @Override
+        public SpecificationNode visitNoOp(SpecificationNode.NoOp noOp) {
+            return NONE;
+        }
+
+        @Override
+        public SpecificationNode visitAnd(SpecificationNode.And and) {
+            var negatedOperands = new ArrayList<SpecificationNode>(and.getOperands().size());
+            for (var operand : and.getOperands()) {
+                negatedOperands.add(new SpecificationNode.Not(operand));
+            }
+            return new SpecificationNode.Or(negatedOperands).accept(SpecificationSimplifier.this);
+        }
+
+        @Override
+        public SpecificationNode visitOr(SpecificationNode.Or or) {
+            var negatedOperands = new ArrayList<SpecificationNode>(or.getOperands().size());
+            for (var operand : or.getOperands()) {
+                negatedOperands.add(new SpecificationNode.Not(operand));
+            }
+            return new SpecificationNode.And(negatedOperands).accept(SpecificationSimplifier.this);
+        }
+
+        @Override
+        public SpecificationNode visitNot(SpecificationNode.Not not) {
+            return not.getOperand().accept(SpecificationSimplifier.this);
+        }
+
+        @Override
+        public SpecificationNode visitGet(SpecificationNode.Get get) {
+            return get.withOperand(get.getOperand().accept(this));
+        }
+
+        @Override
+        public SpecificationNode visitJoin(SpecificationNode.Join join) {
+            return join.withOperand(join.getOperand().accept(this));
+        }
+
+        @Override
+        public SpecificationNode visitFetch(SpecificationNode.Fetch fetch) {
+            return fetch.withOperand(fetch.getOperand().accept(this));
+        }
+
+        @Override
+        public SpecificationNode visitExists(SpecificationNode.Exists exists) {
+            return new SpecificationNode.Not(exists.accept(SpecificationSimplifier.this));
+        }
+
+        @Override
+        public SpecificationNode visitComparison(SpecificationNode.Comparison comparison) {
+            return new SpecificationNode.Comparison(COMPLEMENTS.get(comparison.getOperator()), comparison.getValue());
+        }
+
+        @Override
+        public SpecificationNode visitIn(SpecificationNode.In in) {
+            return new SpecificationNode.Not(in);
+        }
+    }
+}
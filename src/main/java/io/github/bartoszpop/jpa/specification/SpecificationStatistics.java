@@ -0,0 +1,166 @@
+package io.github.bartoszpop.jpa.specification;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class aggregates the measurements of {@link SpecificationMetrics} per name of the specification and lists the top slowest ones over JMX, e.g.
+ * <pre>{@code
+ * var statistics = new SpecificationStatistics(10);
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(statistics, new ObjectName(SpecificationStatistics.OBJECT_NAME));
+ * SpecificationInstrumentation.setMetrics(statistics);
+ * }</pre>
+ * The specifications are ranked by the mean query latency, then by the mean time the predicate took to build,
+ * <br>
+ * since the specifications passed to the Spring Data repositories are rendered, but their queries are not measured.
+ * <p>
+ * A name is kept until {@link SpecificationStatistics#reset()}, thus the names should be a fixed set, e.g. not contain the values of the filters.
+ *
+ * @author Bartosz Popiela
+ */
+public final class SpecificationStatistics implements SpecificationMetrics, SpecificationStatisticsMBean {
+
+    public static final String OBJECT_NAME = "io.github.bartoszpop.jpa.specification:type=SpecificationStatistics";
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final Map<String, Aggregate> aggregates = new ConcurrentHashMap<>();
+
+    private volatile int topCount;
+
+    public SpecificationStatistics(int topCount) {
+        setTopCount(topCount);
+    }
+
+    @Override
+    public void rendered(String name, long buildNanos, int nodeCount, int joinCount) {
+        var aggregate = aggregates.computeIfAbsent(name, key -> new Aggregate());
+        aggregate.renderCount.increment();
+        aggregate.buildNanos.add(buildNanos);
+        aggregate.nodeCount.add(nodeCount);
+        aggregate.joinCount.add(joinCount);
+    }
+
+    @Override
+    public void executed(String name, long latencyNanos, long rowCount) {
+        var aggregate = aggregates.computeIfAbsent(name, key -> new Aggregate());
+        aggregate.queryCount.increment();
+        aggregate.latencyNanos.add(latencyNanos);
+        aggregate.maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+        aggregate.rowCount.add(rowCount);
+    }
+
+    @Override
+    public String[] getSlowestSpecifications() {
+        var snapshots = new ArrayList<Snapshot>(aggregates.size());
+        aggregates.forEach((name, aggregate) -> snapshots.add(new Snapshot(name, aggregate)));
+        snapshots.sort(Comparator.comparingDouble(Snapshot::meanLatencyNanos).thenComparingDouble(Snapshot::meanBuildNanos).reversed());
+        return snapshots.stream().limit(topCount).map(Snapshot::toString).toArray(String[]::new);
+    }
+
+    @Override
+    public int getTopCount() {
+        return topCount;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the top count is not positive
+     */
+    @Override
+    public void setTopCount(int topCount) {
+        if (topCount <= 0) {
+            throw new IllegalArgumentException("The top count must be positive.");
+        }
+        this.topCount = topCount;
+    }
+
+    @Override
+    public long getRenderCount() {
+        return aggregates.values().stream().mapToLong(aggregate -> aggregate.renderCount.sum()).sum();
+    }
+
+    @Override
+    public long getQueryCount() {
+        return aggregates.values().stream().mapToLong(aggregate -> aggregate.queryCount.sum()).sum();
+    }
+
+    @Override
+    public void reset() {
+        aggregates.clear();
+    }
+
+    private static final class Aggregate {
+
+        private final LongAdder renderCount = new LongAdder();
+
+        private final LongAdder buildNanos = new LongAdder();
+
+        private final LongAdder nodeCount = new LongAdder();
+
+        private final LongAdder joinCount = new LongAdder();
+
+        private final LongAdder queryCount = new LongAdder();
+
+        private final LongAdder latencyNanos = new LongAdder();
+
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        private final LongAdder rowCount = new LongAdder();
+    }
+
+    /**
+     * This class is the state of {@link Aggregate} at a point in time, so the specifications are sorted by the values that do not change meanwhile.
+     */
+    private static final class Snapshot {
+
+        private final String name;
+
+        private final long renderCount;
+
+        private final long buildNanos;
+
+        private final long nodeCount;
+
+        private final long joinCount;
+
+        private final long queryCount;
+
+        private final long latencyNanos;
+
+        private final long maxLatencyNanos;
+
+        private final long rowCount;
+
+        private Snapshot(String name, Aggregate aggregate) {
+            this.name = name;
+            this.renderCount = aggregate.renderCount.sum();
+            this.buildNanos = aggregate.buildNanos.sum();
+            this.nodeCount = aggregate.nodeCount.sum();
+            this.joinCount = aggregate.joinCount.sum();
+            this.queryCount = aggregate.queryCount.sum();
+            this.latencyNanos = aggregate.latencyNanos.sum();
+            this.maxLatencyNanos = aggregate.maxLatencyNanos.get();
+            this.rowCount = aggregate.rowCount.sum();
+        }
+
+        private double meanLatencyNanos() {
+            return queryCount > 0 ? (double) latencyNanos / queryCount : 0;
+        }
+
+        private double meanBuildNanos() {
+            return renderCount > 0 ? (double) buildNanos / renderCount : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s: queries=%d, mean query=%.3f ms, max query=%.3f ms, rows=%d, renders=%d, mean build=%.3f ms, nodes=%d, joins=%d",
+                    name, queryCount, meanLatencyNanos() / NANOS_PER_MILLI, maxLatencyNanos / NANOS_PER_MILLI, rowCount,
+                    renderCount, meanBuildNanos() / NANOS_PER_MILLI, nodeCount, joinCount);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.bartoszpop.jpa.specification;
+
+/**
+ * This is the management interface of {@link SpecificationStatistics}.
+ *
+ * @author Bartosz Popiela
+ */
+public interface SpecificationStatisticsMBean {
+
+    /**
+     * Returns the names of the specifications of the highest mean query latency along with their statistics, the slowest first.
+     */
+    String[] getSlowestSpecifications();
+
+    int getTopCount();
+
+    void setTopCount(int topCount);
+
+    long getRenderCount();
+
+    long getQueryCount();
+
+    void reset();
+}
@@ -0,0 +1,35 @@
+package io.github.bartoszpop.jpa.specification;
+
+/**
+ * This class visits the tree of {@link SpecificationNode} {@link CompositeSpecification} is composed of.
+ * <p>
+ * It allows to inspect a specification before {@link javax.persistence.criteria.CriteriaBuilder} is involved,
+ * e.g. {@link CompositeSpecification#toPredicate} renders the tree with a visitor.
+ *
+ * @param <R> the type of the result
+ * @author Bartosz Popiela
+ */
+public interface SpecificationVisitor<R> {
+
+    R visitLeaf(SpecificationNode.Leaf leaf);
+
+    R visitNoOp(SpecificationNode.NoOp noOp);
+
+    R visitAnd(SpecificationNode.And and);
+
+    R visitOr(SpecificationNode.Or or);
+
+    R visitNot(SpecificationNode.Not not);
+
+    R visitGet(SpecificationNode.Get get);
+
+    R visitJoin(SpecificationNode.Join join);
+
+    R visitFetch(SpecificationNode.Fetch fetch);
+
+    R visitExists(SpecificationNode.Exists exists);
+
+    R visitComparison(SpecificationNode.Comparison comparison);
+
+    R visitIn(SpecificationNode.In in);
+}
@@ -0,0 +1,42 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import java.lang.reflect.Member;
+
+public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y> {
+    @Override
+    public String getName() {
+        return null;
+    }
+
+    @Override
+    public PersistentAttributeType getPersistentAttributeType() {
+        return null;
+    }
+
+    @Override
+    public ManagedType<X> getDeclaringType() {
+        return null;
+    }
+
+    @Override
+    public Class<Y> getJavaType() {
+        return null;
+    }
+
+    @Override
+    public Member getJavaMember() {
+        return null;
+    }
+
+    @Override
+    public boolean isAssociation() {
+        return false;
+    }
+
+    @Override
+    public boolean isCollection() {
+        return false;
+    }
+}
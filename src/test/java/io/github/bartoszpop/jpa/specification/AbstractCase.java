@@ -0,0 +1,90 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Selection;
+import java.util.Collection;
+import java.util.List;
+
+public abstract class AbstractCase<R> implements CriteriaBuilder.Case<R> {
+    @Override
+    public CriteriaBuilder.Case<R> when(Expression<Boolean> condition, R result) {
+        return null;
+    }
+
+    @Override
+    public CriteriaBuilder.Case<R> when(Expression<Boolean> condition, Expression<? extends R> result) {
+        return null;
+    }
+
+    @Override
+    public Expression<R> otherwise(R result) {
+        return null;
+    }
+
+    @Override
+    public Expression<R> otherwise(Expression<? extends R> result) {
+        return null;
+    }
+
+    @Override
+    public Predicate isNull() {
+        return null;
+    }
+
+    @Override
+    public Predicate isNotNull() {
+        return null;
+    }
+
+    @Override
+    public Predicate in(Object... values) {
+        return null;
+    }
+
+    @Override
+    public Predicate in(Expression<?>... values) {
+        return null;
+    }
+
+    @Override
+    public Predicate in(Collection<?> values) {
+        return null;
+    }
+
+    @Override
+    public Predicate in(Expression<Collection<?>> values) {
+        return null;
+    }
+
+    @Override
+    public <X> Expression<X> as(Class<X> type) {
+        return null;
+    }
+
+    @Override
+    public Selection<R> alias(String name) {
+        return null;
+    }
+
+    @Override
+    public boolean isCompoundSelection() {
+        return false;
+    }
+
+    @Override
+    public List<Selection<?>> getCompoundSelectionItems() {
+        return null;
+    }
+
+    @Override
+    public Class<? extends R> getJavaType() {
+        return null;
+    }
+
+    @Override
+    public String getAlias() {
+        return null;
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.Type;
+
+public abstract class AbstractSingularAttribute<X, T> extends AbstractAttribute<X, T> implements SingularAttribute<X, T> {
+    @Override
+    public boolean isId() {
+        return false;
+    }
+
+    @Override
+    public boolean isVersion() {
+        return false;
+    }
+
+    @Override
+    public boolean isOptional() {
+        return false;
+    }
+
+    @Override
+    public Type<T> getType() {
+        return null;
+    }
+
+    @Override
+    public BindableType getBindableType() {
+        return null;
+    }
+
+    @Override
+    public Class<T> getBindableJavaType() {
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.bartoszpop.jpa.specification;
+
+public abstract class AbstractSpecificationVisitor<R> implements SpecificationVisitor<R> {
+    @Override
+    public R visitLeaf(SpecificationNode.Leaf leaf) {
+        return null;
+    }
+
+    @Override
+    public R visitNoOp(SpecificationNode.NoOp noOp) {
+        return null;
+    }
+
+    @Override
+    public R visitAnd(SpecificationNode.And and) {
+        return null;
+    }
+
+    @Override
+    public R visitOr(SpecificationNode.Or or) {
+        return null;
+    }
+
+    @Override
+    public R visitNot(SpecificationNode.Not not) {
+        return null;
+    }
+
+    @Override
+    public R visitGet(SpecificationNode.Get get) {
+        return null;
+    }
+
+    @Override
+    public R visitJoin(SpecificationNode.Join join) {
+        return null;
+    }
+
+    @Override
+    public R visitFetch(SpecificationNode.Fetch fetch) {
+        return null;
+    }
+
+    @Override
+    public R visitExists(SpecificationNode.Exists exists) {
+        return null;
+    }
+
+    @Override
+    public R visitComparison(SpecificationNode.Comparison comparison) {
+        return null;
+    }
+
+    @Override
+    public R visitIn(SpecificationNode.In in) {
+        return null;
+    }
+}
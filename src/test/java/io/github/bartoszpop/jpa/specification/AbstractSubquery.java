@@ -0,0 +1,215 @@
+package io.github.bartoszpop.jpa.specification;
+
+import javax.persistence.criteria.AbstractQuery;
+import javax.persistence.criteria.CollectionJoin;
+import javax.persistence.criteria.CommonAbstractCriteria;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.ListJoin;
+import javax.persistence.criteria.MapJoin;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.criteria.SetJoin;
+import javax.persistence.criteria.Subquery;
+import javax.persistence.metamodel.EntityType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public abstract class AbstractSubquery<T> implements Subquery<T> {
+    @Override
+    public AbstractQuery<?> getParent() {
+        return null;
+    }
+
+    @Override
+    public Subquery<T> distinct(boolean distinct) {
+        return null;
+    }
+
+    @Override
+    public Subquery<T> select(Expression<T> expression) {
+        return null;
+    }
+
+    @Override
+    public Subquery<T> where(Expression<Boolean> restriction) {
+        return null;
+    }
+
+    @Override
+    public Subquery<T> where(Predicate... restrictions) {
+        return null;
+    }
+
+    @Override
+    public Subquery<T> groupBy(List<Expression<?>> grouping) {
+        return null;
+    }
+
+    @Override
+    public Subquery<T> groupBy(Expression<?>... grouping) {
+        return null;
+    }
+
+    @Override
+    public Subquery<T> having(Predicate... restrictions) {
+        return null;
+    }
+
+    @Override
+    public Subquery<T> having(Expression<Boolean> restriction) {
+        return null;
+    }
+
+    @Override
+    public <X, K, V> MapJoin<X, K, V> correlate(MapJoin<X, K, V> parentMap) {
+        return null;
+    }
+
+    @Override
+    public <X, Y> CollectionJoin<X, Y> correlate(CollectionJoin<X, Y> parentCollection) {
+        return null;
+    }
+
+    @Override
+    public <X, Y> Join<X, Y> correlate(Join<X, Y> parentJoin) {
+        return null;
+    }
+
+    @Override
+    public <X, Y> ListJoin<X, Y> correlate(ListJoin<X, Y> parentList) {
+        return null;
+    }
+
+    @Override
+    public <Y> Root<Y> correlate(Root<Y> parentRoot) {
+        return null;
+    }
+
+    @Override
+    public <X, Y> SetJoin<X, Y> correlate(SetJoin<X, Y> parentSet) {
+        return null;
+    }
+
+    @Override
+    public CommonAbstractCriteria getContainingQuery() {
+        return null;
+    }
+
+    @Override
+    public Expression<T> getSelection() {
+        return null;
+    }
+
+    @Override
+    public Set<Join<?, ?>> getCorrelatedJoins() {
+        return null;
+    }
+
+    @Override
+    public <X> Root<X> from(Class<X> entityClass) {
+        return null;
+    }
+
+    @Override
+    public <X> Root<X> from(EntityType<X> entity) {
+        return null;
+    }
+
+    @Override
+    public Predicate getGroupRestriction() {
+        return null;
+    }
+
+    @Override
+    public Set<Root<?>> getRoots() {
+        return null;
+    }
+
+    @Override
+    public List<Expression<?>> getGroupList() {
+        return null;
+    }
+
+    @Override
+    public boolean isDistinct() {
+        return false;
+    }
+
+    @Override
+    public Class<T> getResultType() {
+        return null;
+    }
+
+    @Override
+    public <U> Subquery<U> subquery(Class<U> type) {
+        return null;
+    }
+
+    @Override
+    public Predicate getRestriction() {
+        return null;
+    }
+
+    @Override
+    public Predicate in(Collection<?> values) {
+        return null;
+    }
+
+    @Override
+    public Predicate in(Object... values) {
+        return null;
+    }
+
+    @Override
+    public Predicate in(Expression<Collection<?>> values) {
+        return null;
+    }
+
+    @Override
+    public Predicate in(Expression<?>... values) {
+        return null;
+    }
+
+    @Override
+    public <X> Expression<X> as(Class<X> type) {
+        return null;
+    }
+
+    @Override
+    public Predicate isNull() {
+        return null;
+    }
+
+    @Override
+    public Predicate isNotNull() {
+        return null;
+    }
+
+    @Override
+    public Selection<T> alias(String name) {
+        return null;
+    }
+
+    @Override
+    public boolean isCompoundSelection() {
+        return false;
+    }
+
+    @Override
+    public List<Selection<?>> getCompoundSelectionItems() {
+        return null;
+    }
+
+    @Override
+    public Class<? extends T> getJavaType() {
+        return null;
+    }
+
+    @Override
+    public String getAlias() {
+        return null;
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+class CompiledQueryCacheTest {
+
+    @Test
+    void get_returnsCachedQueryOnHit() {
+        // given
+        var cache = new CompiledQueryCache(10);
+        var query = new CompiledQuery<>(null, List.of());
+        cache.get("key", () -> query);
+
+        // when
+        var cachedQuery = cache.get("key", () -> new CompiledQuery<>(null, List.of()));
+
+        // then
+        assertThat(cachedQuery, sameInstance(query));
+        assertThat(cache.getHitCount(), equalTo(1L));
+        assertThat(cache.getMissCount(), equalTo(1L));
+    }
+
+    @Test
+    void get_evictsLeastRecentlyUsedQuery() {
+        // given
+        var cache = new CompiledQueryCache(2);
+        cache.get("first", () -> new CompiledQuery<>(null, List.of()));
+        cache.get("second", () -> new CompiledQuery<>(null, List.of()));
+        cache.get("first", () -> new CompiledQuery<>(null, List.of()));
+
+        // when
+        cache.get("third", () -> new CompiledQuery<>(null, List.of()));
+        cache.get("first", () -> new CompiledQuery<>(null, List.of()));
+        cache.get("second", () -> new CompiledQuery<>(null, List.of()));
+
+        // then
+        assertThat(cache.size(), equalTo(2));
+        assertThat(cache.getHitCount(), equalTo(2L));
+        assertThat(cache.getMissCount(), equalTo(4L));
+    }
+}
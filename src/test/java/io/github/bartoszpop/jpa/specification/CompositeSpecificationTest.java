@@ -3,12 +3,21 @@ package io.github.bartoszpop.jpa.specification;
 import org.junit.jupiter.api.Test;
 
 import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.ParameterExpression;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 
 class CompositeSpecificationTest {
 
@@ -135,4 +144,419 @@ class CompositeSpecificationTest {
         // then
         assertThat(combinedSpecificationPredicate, equalTo(combinedPredicate));
     }
+
+    @Test
+    void allOf_flattensNestedConjunctions() {
+        // given
+        var firstSpecificationPredicate = new NoOpPredicate();
+        var secondSpecificationPredicate = new NoOpPredicate();
+        var thirdSpecificationPredicate = new NoOpPredicate();
+        var firstSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (root, query, criteriaBuilder) -> firstSpecificationPredicate
+        );
+        var secondSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (root, query, criteriaBuilder) -> secondSpecificationPredicate
+        );
+        var thirdSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (root, query, criteriaBuilder) -> thirdSpecificationPredicate
+        );
+        var combinedPredicate = new NoOpPredicate();
+        var conjunctiveCriteriaBuilder = new AbstractCriteriaBuilder() {
+            @Override
+            public Predicate and(Predicate... restrictions) {
+                if (List.of(restrictions).equals(List.of(firstSpecificationPredicate, secondSpecificationPredicate, thirdSpecificationPredicate))) {
+                    return combinedPredicate;
+                } else {
+                    return null;
+                }
+            }
+        };
+
+        // when
+        var combinedSpecificationPredicate = CompositeSpecification.allOf(firstSpecification.and(secondSpecification), thirdSpecification)
+                .toPredicate(new NoOpRoot<>(), new NoOpCriteriaQuery<>(), conjunctiveCriteriaBuilder);
+
+        // then
+        assertThat(combinedSpecificationPredicate, equalTo(combinedPredicate));
+    }
+
+    @Test
+    void anyOf_flattensNestedDisjunctions() {
+        // given
+        var firstSpecificationPredicate = new NoOpPredicate();
+        var secondSpecificationPredicate = new NoOpPredicate();
+        var thirdSpecificationPredicate = new NoOpPredicate();
+        var firstSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (root, query, criteriaBuilder) -> firstSpecificationPredicate
+        );
+        var secondSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (root, query, criteriaBuilder) -> secondSpecificationPredicate
+        );
+        var thirdSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (root, query, criteriaBuilder) -> thirdSpecificationPredicate
+        );
+        var combinedPredicate = new NoOpPredicate();
+        var disjunctiveCriteriaBuilder = new AbstractCriteriaBuilder() {
+            @Override
+            public Predicate or(Predicate... restrictions) {
+                if (List.of(restrictions).equals(List.of(firstSpecificationPredicate, secondSpecificationPredicate, thirdSpecificationPredicate))) {
+                    return combinedPredicate;
+                } else {
+                    return null;
+                }
+            }
+        };
+
+        // when
+        var combinedSpecificationPredicate = CompositeSpecification.anyOf(List.of(firstSpecification.or(secondSpecification).or(thirdSpecification)))
+                .toPredicate(new NoOpRoot<>(), new NoOpCriteriaQuery<>(), disjunctiveCriteriaBuilder);
+
+        // then
+        assertThat(combinedSpecificationPredicate, equalTo(combinedPredicate));
+    }
+
+    @Test
+    void allOf_doesNotFlattenNestedDisjunctions() {
+        // given
+        var disjunctionPredicate = new NoOpPredicate();
+        var leftSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (root, query, criteriaBuilder) -> new NoOpPredicate()
+        );
+        var rightSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (root, query, criteriaBuilder) -> new NoOpPredicate()
+        );
+        var disjunctiveCriteriaBuilder = new AbstractCriteriaBuilder() {
+            @Override
+            public Predicate or(Expression<Boolean> left, Expression<Boolean> right) {
+                return disjunctionPredicate;
+            }
+        };
+
+        // when
+        var specificationPredicate = CompositeSpecification.allOf(leftSpecification.or(rightSpecification))
+                .toPredicate(new NoOpRoot<>(), new NoOpCriteriaQuery<>(), disjunctiveCriteriaBuilder);
+
+        // then
+        assertThat(specificationPredicate, equalTo(disjunctionPredicate));
+    }
+
+    @Test
+    void accept_passesTreeToVisitor() {
+        // given
+        var leafSpecification = CompositeSpecification.<Integer, Path<Integer>, TypeSafePredicateBuilder<Path<Integer>>>of(
+                (root, query, criteriaBuilder) -> new NoOpPredicate()
+        );
+        var specification = leafSpecification.and(CompositeSpecification.not(ExpressionSpecifications.equal(1)));
+
+        // when
+        var description = specification.accept(new AbstractSpecificationVisitor<String>() {
+            @Override
+            public String visitLeaf(SpecificationNode.Leaf leaf) {
+                return "leaf";
+            }
+
+            @Override
+            public String visitAnd(SpecificationNode.And and) {
+                return "and(" + and.getOperands().get(0).accept(this) + ", " + and.getOperands().get(1).accept(this) + ")";
+            }
+
+            @Override
+            public String visitNot(SpecificationNode.Not not) {
+                return "not(" + not.getOperand().accept(this) + ")";
+            }
+
+            @Override
+            public String visitComparison(SpecificationNode.Comparison comparison) {
+                return comparison.getOperator() + " " + comparison.getValue();
+            }
+        });
+
+        // then
+        assertThat(description, equalTo("and(leaf, not(EQUAL 1))"));
+    }
+
+    @Test
+    void toPredicate_bindsValuesOfNestedSpecificationToParameters() {
+        // given
+        var attribute = new NoOpRoot<String>();
+        var root = new AbstractRoot<>() {
+            @Override
+            public <Y> Path<Y> get(String attributeName) {
+                //noinspection unchecked
+                return Objects.equals(attributeName, "attribute") ? (Path<Y>) attribute : null;
+            }
+        };
+        var parameter = new NoOpParameterExpression<String>();
+        var equalPredicate = new NoOpPredicate();
+        var criteriaBuilder = new AbstractCriteriaBuilder() {
+            @Override
+            public <T> ParameterExpression<T> parameter(Class<T> paramClass, String name) {
+                //noinspection unchecked
+                return paramClass == String.class && Objects.equals(name, "p0") ? (ParameterExpression<T>) parameter : null;
+            }
+
+            @Override
+            public Predicate equal(Expression<?> x, Expression<?> y) {
+                return Objects.equals(x, attribute) && Objects.equals(y, parameter) ? equalPredicate : null;
+            }
+        };
+        var attributeSpecification = ExpressionSpecifications.<String, Path<String>>equal("value");
+        var specification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (target, query, specificationCriteriaBuilder) -> attributeSpecification.asBuilder().toPredicate(target.get("attribute"), query, specificationCriteriaBuilder)
+        );
+        var parameters = new QueryParameters(criteriaBuilder);
+
+        // when
+        var specificationPredicate = specification.toPredicate(root, new NoOpCriteriaQuery<>(), criteriaBuilder, parameters);
+
+        // then
+        assertThat(specificationPredicate, equalTo(equalPredicate));
+        assertThat(parameters.getValues(), contains("value"));
+    }
+
+    @Test
+    void toPredicate_noOpDoesNotRestrictQuery() {
+        // given
+        var specification = CompositeSpecification.<Object, Path<Object>>noOp().and(CompositeSpecification.noOp());
+
+        // when
+        var specificationPredicate = specification.toPredicate(new NoOpRoot<>(), new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(specificationPredicate, nullValue());
+    }
+
+    @Test
+    void and_eliminatesNoOp() {
+        // given
+        var specificationPredicate = new NoOpPredicate();
+        var specification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (root, query, criteriaBuilder) -> specificationPredicate
+        );
+
+        // when
+        var combinedSpecificationPredicate = CompositeSpecification.<Object, Path<Object>>noOp().and(specification).and(CompositeSpecification.noOp())
+                .toPredicate(new NoOpRoot<>(), new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(combinedSpecificationPredicate, equalTo(specificationPredicate));
+    }
+
+    @Test
+    void not_pushesNegationDownToComparisons() {
+        // given
+        var root = new NoOpRoot<Integer>();
+        var notEqualPredicate = new NoOpPredicate();
+        var greaterThanOrEqualToPredicate = new NoOpPredicate();
+        var combinedPredicate = new NoOpPredicate();
+        var criteriaBuilder = new AbstractCriteriaBuilder() {
+            @Override
+            public Predicate notEqual(Expression<?> x, Object y) {
+                return Objects.equals(x, root) && Objects.equals(y, 1) ? notEqualPredicate : null;
+            }
+
+            @Override
+            public <Y extends Comparable<? super Y>> Predicate greaterThanOrEqualTo(Expression<? extends Y> x, Y y) {
+                return Objects.equals(x, root) && Objects.equals(y, 2) ? greaterThanOrEqualToPredicate : null;
+            }
+
+            @Override
+            public Predicate or(Expression<Boolean> left, Expression<Boolean> right) {
+                if (Objects.equals(left, notEqualPredicate) && Objects.equals(right, greaterThanOrEqualToPredicate)) {
+                    return combinedPredicate;
+                } else {
+                    return null;
+                }
+            }
+        };
+        var specification = ExpressionSpecifications.<Integer, Root<Integer>>equal(1).and(ExpressionSpecifications.lessThan(2));
+
+        // when
+        var negatedSpecificationPredicate = CompositeSpecification.not(specification).toPredicate(root, new NoOpCriteriaQuery<>(), criteriaBuilder);
+
+        // then
+        assertThat(negatedSpecificationPredicate, equalTo(combinedPredicate));
+    }
+
+    @Test
+    void not_collapsesDoubleNegation() {
+        // given
+        var specificationPredicate = new NoOpPredicate();
+        var specification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (root, query, criteriaBuilder) -> specificationPredicate
+        );
+
+        // when
+        var negatedSpecificationPredicate = CompositeSpecification.not(CompositeSpecification.not(specification))
+                .toPredicate(new NoOpRoot<>(), new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(negatedSpecificationPredicate, equalTo(specificationPredicate));
+    }
+
+    @Test
+    void optional_returnsNoOpIfValueIsNull() {
+        // when
+        var specificationPredicate = CompositeSpecification.<Integer, Integer, Root<Integer>>optional(null, ExpressionSpecifications::equal)
+                .toPredicate(new NoOpRoot<>(), new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(specificationPredicate, nullValue());
+    }
+
+    @Test
+    void equals_specificationsOfSameStructureAndValues_areEqual() {
+        // given
+        var first = ExpressionSpecifications.<Integer, Root<Integer>>greaterThan(1);
+        var second = ExpressionSpecifications.<Integer, Root<Integer>>lessThan(5);
+        var third = ExpressionSpecifications.<Integer, Root<Integer>>notEqual(3);
+
+        // when
+        var specification = first.and(second.and(third));
+        var otherSpecification = CompositeSpecification.allOf(ExpressionSpecifications.<Integer, Root<Integer>>greaterThan(1), ExpressionSpecifications.lessThan(5), ExpressionSpecifications.notEqual(3));
+
+        // then
+        assertThat(specification, equalTo(otherSpecification));
+        assertThat(specification.hashCode(), equalTo(otherSpecification.hashCode()));
+    }
+
+    @Test
+    void getCanonicalKey_ignoresOrderOfOperands() {
+        // given
+        var first = ExpressionSpecifications.<Integer, Root<Integer>>equal(1);
+        var second = ExpressionSpecifications.<Integer, Root<Integer>>equal(2);
+        var named = CompositeSpecification.<Integer, Root<Integer>, TypeSafePredicateBuilder<Root<Integer>>>of("named", List.of(3), (target, query, criteriaBuilder) -> null);
+
+        // when
+        var key = first.or(second).and(named).getCanonicalKey();
+        var otherKey = named.and(second.or(first)).getCanonicalKey();
+
+        // then
+        assertThat(key, equalTo(otherKey));
+    }
+
+    @Test
+    void getCanonicalKey_leafWithoutName_hasNoKey() {
+        // given
+        var leaf = CompositeSpecification.<Integer, Root<Integer>, TypeSafePredicateBuilder<Root<Integer>>>of((target, query, criteriaBuilder) -> null);
+
+        // when
+        var key = ExpressionSpecifications.<Integer, Root<Integer>>equal(1).and(leaf).getCanonicalKey();
+
+        // then
+        assertThat(key, nullValue());
+    }
+
+    @Test
+    void getCanonicalKey_valuesChangedAfterIn_isNotChanged() {
+        // given
+        var values = new ArrayList<>(List.of(1, 2));
+        var specification = ExpressionSpecifications.<Integer, Root<Integer>>in(values);
+
+        // when
+        values.add(3);
+
+        // then
+        var unchangedSpecification = ExpressionSpecifications.<Integer, Root<Integer>>in(List.of(1, 2));
+        assertThat(specification.getCanonicalKey(), equalTo(unchangedSpecification.getCanonicalKey()));
+        assertThat(specification, equalTo(unchangedSpecification));
+    }
+
+    @Test
+    void getCanonicalKey_valueOfUnknownType_hasNoKey() {
+        // given
+        var specification = ExpressionSpecifications.<Label, Root<Label>>equal(new Label("name", 1));
+
+        // when
+        var key = specification.getCanonicalKey();
+
+        // then
+        assertThat(key, nullValue());
+    }
+
+    @Test
+    void getCanonicalKey_equalSetsOfDifferentOrder_haveEqualKeys() {
+        // given
+        var set = new LinkedHashSet<>(List.of(1, 2, 3));
+        var otherSet = new LinkedHashSet<>(List.of(3, 2, 1));
+
+        // when
+        var key = ExpressionSpecifications.<Integer, Root<Integer>>in(set).getCanonicalKey();
+        var otherKey = ExpressionSpecifications.<Integer, Root<Integer>>in(otherSet).getCanonicalKey();
+
+        // then
+        assertThat(key, equalTo(otherKey));
+    }
+
+    @Test
+    void toPredicate_chainsOfHundredThousandSpecifications_renderWithSmallStack() throws InterruptedException {
+        // given
+        var junctionSizes = new ArrayList<String>();
+        var criteriaBuilder = new AbstractCriteriaBuilder() {
+            @Override
+            public Predicate and(Predicate... restrictions) {
+                junctionSizes.add("and:" + restrictions.length);
+                return new NoOpPredicate();
+            }
+
+            @Override
+            public Predicate or(Predicate... restrictions) {
+                junctionSizes.add("or:" + restrictions.length);
+                return new NoOpPredicate();
+            }
+
+            @Override
+            public Predicate not(Expression<Boolean> restriction) {
+                return new NoOpPredicate();
+            }
+        };
+        var chain = IntStream.range(0, 100_000)
+                .mapToObj(i -> CompositeSpecification.<Object, Root<Object>, TypeSafePredicateBuilder<Root<Object>>>of((target, query, builder) -> i >= 0 ? new NoOpPredicate() : null))
+                .reduce(CompositeSpecification::or)
+                .orElseThrow();
+        var failure = new AtomicReference<Throwable>();
+
+        // when
+        var thread = new Thread(null, () -> {
+            try {
+                chain.toPredicate(new NoOpRoot<>(), new NoOpCriteriaQuery<>(), criteriaBuilder);
+                CompositeSpecification.not(chain).toPredicate(new NoOpRoot<>(), new NoOpCriteriaQuery<>(), criteriaBuilder);
+                chain.hashCode();
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "small-stack", 256 * 1024);
+        thread.start();
+        thread.join();
+
+        // then
+        assertThat(failure.get(), nullValue());
+        assertThat(junctionSizes, contains("or:100000", "and:100000"));
+    }
+
+    /**
+     * This value prints the name only, so the values of different numbers print the same.
+     */
+    private static final class Label implements Comparable<Label> {
+
+        private final String name;
+
+        private final int number;
+
+        private Label(String name, int number) {
+            this.name = name;
+            this.number = number;
+        }
+
+        @Override
+        public int compareTo(Label other) {
+            var nameComparison = name.compareTo(other.name);
+            return nameComparison != 0 ? nameComparison : Integer.compare(number, other.number);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
 }
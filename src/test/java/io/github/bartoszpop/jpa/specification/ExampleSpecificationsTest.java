@@ -0,0 +1,181 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ExampleMatcher;
+
+import javax.persistence.Embeddable;
+import javax.persistence.Embedded;
+import javax.persistence.ManyToOne;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExampleSpecificationsTest {
+
+    @Test
+    void like_isSatisfiedByTargetsMatchingNonNullAttributesOfProbe() {
+        // given
+        var john = new Person("John", 30, new Address("Paris"), null);
+        var jane = new Person("Jane", 30, new Address("Paris"), null);
+        var otherJohn = new Person("John", 40, new Address("London"), null);
+        var probe = new Person("John", null, new Address("Paris"), null);
+
+        // when
+        var found = List.of(john, jane, otherJohn).stream()
+                .filter(ExampleSpecifications.like(probe).asPredicate())
+                .collect(Collectors.toList());
+
+        // then
+        assertThat(found, contains(john));
+    }
+
+    @Test
+    void like_matchingAny_isSatisfiedByTargetsMatchingAnyAttributeOfProbe() {
+        // given
+        var john = new Person("John", 30, null, null);
+        var jane = new Person("Jane", 40, null, null);
+        var joe = new Person("Joe", 50, null, null);
+        var probe = new Person("John", 40, null, null);
+
+        // when
+        var found = List.of(john, jane, joe).stream()
+                .filter(ExampleSpecifications.like(probe, ExampleMatcher.matchingAny().withIgnorePaths("address")).asPredicate())
+                .collect(Collectors.toList());
+
+        // then
+        assertThat(found, contains(john, jane));
+    }
+
+    @Test
+    void like_equalProbes_createEqualSpecifications() {
+        // given
+        var matcher = ExampleMatcher.matching().withMatcher("name", ExampleMatcher.GenericPropertyMatchers.contains().ignoreCase());
+
+        // when
+        var specification = ExampleSpecifications.like(new Person("Jo%", null, new Address("Paris"), null), matcher);
+        var equalSpecification = ExampleSpecifications.like(new Person("JO%", null, new Address("Paris"), null), matcher);
+        var otherSpecification = ExampleSpecifications.like(new Person("Jo", null, new Address("Paris"), null), matcher);
+
+        // then
+        assertThat(specification, equalTo(equalSpecification));
+        assertThat(specification.getCanonicalKey(), equalTo(equalSpecification.getCanonicalKey()));
+        assertThat(specification, not(equalTo(otherSpecification)));
+    }
+
+    @Test
+    void like_probeReferringToItself_isRejected() {
+        // given
+        var probe = new Person("John", null, null, null);
+        probe.manager = probe;
+
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class, () -> ExampleSpecifications.like(probe));
+    }
+
+    @Test
+    void like_regularExpression_isRejected() {
+        // given
+        var matcher = ExampleMatcher.matching().withStringMatcher(ExampleMatcher.StringMatcher.REGEX);
+
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class, () -> ExampleSpecifications.like(new Person("J.*", null, null, null), matcher));
+    }
+
+    @Test
+    void like_proxy_isReadWithGetters() {
+        // given
+        var matcher = ExampleMatcher.matching().withIgnorePaths("code");
+        Customer probe = new Customer$$Proxy(new Customer("John", "C1"));
+
+        // when
+        var specification = ExampleSpecifications.like(probe, matcher);
+
+        // then
+        assertThat(specification, equalTo(ExampleSpecifications.like(new Customer("John", null), matcher)));
+    }
+
+    @Test
+    void like_attributeOfProxyWithoutGetter_isRejected() {
+        // given
+        Customer probe = new Customer$$Proxy(new Customer("John", "C1"));
+
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class, () -> ExampleSpecifications.like(probe));
+    }
+
+    private static final class Person {
+
+        private static final String TABLE = "person";
+
+        private final String name;
+
+        private final Integer age;
+
+        @Embedded
+        private final Address address;
+
+        @ManyToOne
+        private Person manager;
+
+        private final List<Person> subordinates = List.of();
+
+        private Person(String name, Integer age, Address address, Person manager) {
+            this.name = name;
+            this.age = age;
+            this.address = address;
+            this.manager = manager;
+        }
+    }
+
+    @Embeddable
+    private static final class Address {
+
+        private final String city;
+
+        private Address(String city) {
+            this.city = city;
+        }
+    }
+
+    private static class Customer {
+
+        private final String name;
+
+        private final String code;
+
+        private Customer(String name, String code) {
+            this.name = name;
+            this.code = code;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * This class is named as a CGLIB proxy is, so it is recognized as a proxy whose fields are never set.
+     */
+    private static final class Customer$$Proxy extends Customer {
+
+        private final Customer target;
+
+        private Customer$$Proxy(Customer target) {
+            super(null, null);
+            this.target = target;
+        }
+
+        @Override
+        public String getName() {
+            return target.getName();
+        }
+    }
+}
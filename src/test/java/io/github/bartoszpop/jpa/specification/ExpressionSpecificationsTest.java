@@ -5,9 +5,12 @@ import org.junit.jupiter.api.Test;
 import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -156,4 +159,74 @@ class ExpressionSpecificationsTest {
         // then
         assertThat(inSpecificationPredicate, equalTo(inPredicate));
     }
+
+    @Test
+    void in_padsValuesToPowerOfTwo() {
+        // given
+        var inValues = List.of(1, 2, 3);
+        var inPredicate = new NoOpPredicate();
+        var root = new AbstractRoot<Integer>() {
+            @Override
+            public Predicate in(Collection<?> values) {
+                if (Objects.equals(List.of(1, 2, 3, 3), values)) {
+                    return inPredicate;
+                } else {
+                    return null;
+                }
+            }
+        };
+
+        // when
+        var inSpecificationPredicate = ExpressionSpecifications.in(inValues, InStrategy.direct().padToPowerOfTwo())
+                .toPredicate(root, new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(inSpecificationPredicate, equalTo(inPredicate));
+    }
+
+    @Test
+    void in_splitsMillionValuesIntoChunks() {
+        // given
+        var inValues = IntStream.range(0, 1_000_000).boxed().collect(Collectors.toList());
+        var chunks = new ArrayList<Collection<?>>();
+        var root = new AbstractRoot<Integer>() {
+            @Override
+            public Predicate in(Collection<?> values) {
+                chunks.add(values);
+                return new NoOpPredicate();
+            }
+        };
+        var orPredicate = new NoOpPredicate();
+        var criteriaBuilder = new AbstractCriteriaBuilder() {
+            @Override
+            public Predicate or(Predicate... restrictions) {
+                return restrictions.length == 977 ? orPredicate : null;
+            }
+        };
+
+        // when
+        var inSpecificationPredicate = ExpressionSpecifications.in(inValues, InStrategy.direct().padToPowerOfTwo().chunkSize(1024))
+                .toPredicate(root, new NoOpCriteriaQuery<>(), criteriaBuilder);
+
+        // then
+        assertThat(inSpecificationPredicate, equalTo(orPredicate));
+        assertThat(chunks.stream().allMatch(chunk -> chunk.size() == 1024), equalTo(true));
+        assertThat(chunks.get(976), equalTo(IntStream.range(0, 1024).mapToObj(i -> Math.min(999_424 + i, 999_999)).collect(Collectors.toList())));
+    }
+
+    @Test
+    void in_fallsBackAboveThreshold() {
+        // given
+        var inValues = IntStream.range(0, 1_000_000).boxed().collect(Collectors.toList());
+        var root = new NoOpRoot<Integer>();
+        var fallbackPredicate = new NoOpPredicate();
+        InStrategy.Fallback fallback = (target, values, query, criteriaBuilder) -> Objects.equals(target, root) && Objects.equals(values, inValues) ? fallbackPredicate : null;
+
+        // when
+        var inSpecificationPredicate = ExpressionSpecifications.in(inValues, InStrategy.direct().chunkSize(1000).fallbackAbove(100_000, fallback))
+                .toPredicate(root, new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(inSpecificationPredicate, equalTo(fallbackPredicate));
+    }
 }
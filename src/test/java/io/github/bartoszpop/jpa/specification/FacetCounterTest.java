@@ -0,0 +1,258 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.Attribute;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+class FacetCounterTest {
+
+    @Test
+    void render_innerJoinOfFacet_isRenderedAsLeftJoinAlongsideCollectionJoinOfSpecification() {
+        // given
+        var root = new JoiningRoot();
+        var distinct = new AtomicBoolean();
+        var restrictions = new ArrayList<Expression<Boolean>>();
+        var query = new AbstractCriteriaQuery<>() {
+            @Override
+            public CriteriaQuery<Object> distinct(boolean queryDistinct) {
+                distinct.set(queryDistinct);
+                return this;
+            }
+
+            @Override
+            public CriteriaQuery<Object> where(Expression<Boolean> restriction) {
+                restrictions.add(restriction);
+                return this;
+            }
+        };
+        var employeePredicate = new NoOpPredicate();
+        var addressPredicate = new NoOpPredicate();
+
+        // when
+        var facetPredicates = FacetCounter.render(join("employees", employeePredicate), List.of(join("address", addressPredicate)), root, query, new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(root.getJoinNames(), contains("employees INNER", "address LEFT"));
+        assertThat(distinct.get(), equalTo(true));
+        assertThat(restrictions, contains(employeePredicate));
+        assertThat(facetPredicates, contains(addressPredicate));
+    }
+
+    @Test
+    void render_facetsOfSameAttribute_shareLeftJoin() {
+        // given
+        var root = new JoiningRoot();
+        var firstPredicate = new NoOpPredicate();
+        var secondPredicate = new NoOpPredicate();
+
+        // when
+        var facetPredicates = FacetCounter.render(CompositeSpecification.noOp(), List.of(join("employees", firstPredicate), join("employees", secondPredicate)),
+                root, new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(root.getJoinNames(), contains("employees LEFT"));
+        assertThat(facetPredicates, contains(firstPredicate, secondPredicate));
+    }
+
+    @Test
+    void render_facetOfAttributeJoinedBySpecification_sharesInnerJoinOfSpecification() {
+        // given
+        var root = new JoiningRoot();
+        var employeePredicate = new NoOpPredicate();
+        var facetPredicate = new NoOpPredicate();
+
+        // when
+        var facetPredicates = FacetCounter.render(join("employees", employeePredicate), List.of(join("employees", facetPredicate)),
+                root, new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(root.getJoinNames(), contains("employees INNER"));
+        assertThat(facetPredicates, contains(facetPredicate));
+    }
+
+    @Test
+    void count_facetOfNonDistinctQuery_sumsCase() {
+        // given
+        var selectCase = new RecordingCase();
+        var sum = new AtomicReference<Expression<?>>();
+        var criteriaBuilder = new AbstractCriteriaBuilder() {
+            @Override
+            public <R> Case<R> selectCase() {
+                //noinspection unchecked
+                return (Case<R>) selectCase;
+            }
+
+            @Override
+            public <N extends Number> Expression<N> sum(Expression<N> x) {
+                sum.set(x);
+                return null;
+            }
+        };
+        var predicate = new NoOpPredicate();
+
+        // when
+        FacetCounter.count(criteriaBuilder, new NoOpRoot<>(), predicate, false, "id");
+
+        // then
+        assertThat(sum.get(), sameInstance(selectCase));
+        assertThat(selectCase.condition, sameInstance(predicate));
+        assertThat(selectCase.result, equalTo(1L));
+        assertThat(selectCase.otherwise, equalTo(0L));
+    }
+
+    @Test
+    void count_facetOfDistinctQuery_countsDistinctIdentifiers() {
+        // given
+        var id = new NoOpJoin<Object, Object>();
+        var root = new AbstractRoot<>() {
+            @Override
+            public <Y> Path<Y> get(String attributeName) {
+                //noinspection unchecked
+                return Objects.equals(attributeName, "id") ? (Path<Y>) id : null;
+            }
+        };
+        var selectCase = new RecordingCase();
+        var countDistinct = new AtomicReference<Expression<?>>();
+        var criteriaBuilder = new AbstractCriteriaBuilder() {
+            @Override
+            public <R> Case<R> selectCase() {
+                //noinspection unchecked
+                return (Case<R>) selectCase;
+            }
+
+            @Override
+            public Expression<Long> countDistinct(Expression<?> x) {
+                countDistinct.set(x);
+                return null;
+            }
+        };
+        var predicate = new NoOpPredicate();
+
+        // when
+        FacetCounter.count(criteriaBuilder, root, predicate, true, "id");
+
+        // then
+        assertThat(countDistinct.get(), sameInstance(selectCase));
+        assertThat(selectCase.condition, sameInstance(predicate));
+        assertThat(selectCase.result, sameInstance(id));
+        assertThat(selectCase.otherwise, nullValue());
+    }
+
+    private static CompositeSpecification<Object, Root<Object>> join(String attribute, NoOpPredicate predicate) {
+        return FromSpecifications.<Object, Object, Root<Object>>join(attribute, JoinType.INNER,
+                CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of((target, query, criteriaBuilder) -> predicate));
+    }
+
+    /**
+     * This class creates the joins of a collection attribute and returns them from {@link Root#getJoins()}, so {@link JoinRegistry} may reuse them.
+     */
+    private static final class JoiningRoot extends AbstractRoot<Object> {
+
+        private final Set<Join<Object, ?>> joins = new LinkedHashSet<>();
+
+        @Override
+        public Set<Join<Object, ?>> getJoins() {
+            return joins;
+        }
+
+        @Override
+        public <X, Y> Join<X, Y> join(String attributeName, JoinType jt) {
+            var join = new CollectionJoin(attributeName, jt);
+            joins.add(join);
+            //noinspection unchecked
+            return (Join<X, Y>) join;
+        }
+
+        private List<String> getJoinNames() {
+            var joinNames = new ArrayList<String>();
+            for (var join : joins) {
+                joinNames.add(join.getAttribute().getName() + ' ' + join.getJoinType());
+            }
+            return joinNames;
+        }
+    }
+
+    private static final class CollectionJoin extends AbstractJoin<Object, Object> {
+
+        private final String attribute;
+
+        private final JoinType joinType;
+
+        private CollectionJoin(String attribute, JoinType joinType) {
+            this.attribute = attribute;
+            this.joinType = joinType;
+        }
+
+        @Override
+        public Attribute<? super Object, ?> getAttribute() {
+            return new AbstractAttribute<>() {
+                @Override
+                public String getName() {
+                    return attribute;
+                }
+
+                @Override
+                public boolean isCollection() {
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        public JoinType getJoinType() {
+            return joinType;
+        }
+    }
+
+    private static final class RecordingCase extends AbstractCase<Object> {
+
+        private Expression<Boolean> condition;
+
+        private Object result;
+
+        private Object otherwise;
+
+        @Override
+        public CriteriaBuilder.Case<Object> when(Expression<Boolean> condition, Object result) {
+            this.condition = condition;
+            this.result = result;
+            return this;
+        }
+
+        @Override
+        public CriteriaBuilder.Case<Object> when(Expression<Boolean> condition, Expression<?> result) {
+            return when(condition, (Object) result);
+        }
+
+        @Override
+        public Expression<Object> otherwise(Object result) {
+            otherwise = result;
+            return this;
+        }
+
+        @Override
+        public Expression<Object> otherwise(Expression<?> result) {
+            return otherwise((Object) result);
+        }
+    }
+}
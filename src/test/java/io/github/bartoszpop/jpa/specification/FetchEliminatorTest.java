@@ -0,0 +1,71 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.criteria.JoinType;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+
+class FetchEliminatorTest {
+
+    @Test
+    void fetch_isReplacedWithJoin() {
+        // given
+        var operand = ExpressionSpecifications.equal("value").getNode();
+        var fetch = new SpecificationNode.Fetch("attribute", JoinType.INNER, operand);
+
+        // when
+        var eliminated = fetch.accept(FetchEliminator.INSTANCE);
+
+        // then
+        assertThat(eliminated, instanceOf(SpecificationNode.Join.class));
+        var join = (SpecificationNode.Join) eliminated;
+        assertThat(join.getAttribute(), equalTo("attribute"));
+        assertThat(join.getJoinType(), equalTo(JoinType.INNER));
+        assertThat(join.getOperand(), sameInstance(operand));
+    }
+
+    @Test
+    void leftFetchWithoutPredicate_isEliminated() {
+        // given
+        var operand = ExpressionSpecifications.equal("value").getNode();
+        var and = new SpecificationNode.And(List.of(operand, new SpecificationNode.Fetch("attribute", JoinType.LEFT, SpecificationNode.NoOp.INSTANCE)));
+
+        // when
+        var eliminated = and.accept(FetchEliminator.INSTANCE);
+
+        // then
+        assertThat(((SpecificationNode.And) eliminated).getOperands(), contains(sameInstance(operand), sameInstance(SpecificationNode.NoOp.INSTANCE)));
+    }
+
+    @Test
+    void leftJoinWithoutPredicate_isEliminatedFromCount() {
+        // given
+        var join = new SpecificationNode.Join("attribute", JoinType.LEFT, SpecificationNode.NoOp.INSTANCE);
+
+        // when
+        var eliminated = join.accept(FetchEliminator.COUNT);
+
+        // then
+        assertThat(eliminated, sameInstance(SpecificationNode.NoOp.INSTANCE));
+    }
+
+    @Test
+    void nodeWithoutFetch_isReturnedItself() {
+        // given
+        var node = new SpecificationNode.Or(List.of(
+                new SpecificationNode.Join("attribute", JoinType.LEFT, ExpressionSpecifications.equal("value").getNode()),
+                ExpressionSpecifications.equal("other value").getNode()));
+
+        // when
+        var eliminated = node.accept(FetchEliminator.INSTANCE);
+
+        // then
+        assertThat(eliminated, sameInstance(node));
+    }
+}
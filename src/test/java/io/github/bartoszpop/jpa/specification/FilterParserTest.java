@@ -0,0 +1,123 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FilterParserTest {
+
+    @Test
+    void parse_conjunctionBindsTighterThanDisjunction() {
+        // given
+        var john = new Person("John", LocalDate.of(1960, 1, 1));
+        var jane = new Person("Jane", LocalDate.of(1970, 1, 1));
+        var joe = new Person("Joe", LocalDate.of(1980, 1, 1));
+        var parser = new FilterParser<Person, Path<Person>>(10).attribute("name", String.class).attribute("dateOfBirth", LocalDate.class);
+
+        // when
+        var specification = parser.parse("name=out=(John, 'Jane') ; dateOfBirth=ge=1965-01-01 , (name==\"John\")");
+
+        // then
+        var found = List.of(john, jane, joe).stream().filter(specification.asPredicate()).collect(Collectors.toList());
+        assertThat(found, contains(john, joe));
+    }
+
+    @Test
+    void parse_selectorOfJoin_isParsedByParserOfJoin() {
+        // given
+        var team = new Team(List.of(new Person("John", LocalDate.of(1960, 1, 1))));
+        var personParser = new FilterParser<Person, Join<Team, Person>>(10).attribute("name", String.class);
+        var teamParser = new FilterParser<Team, Root<Team>>(10)
+                .join("members", personParser, personSpecification -> FromSpecifications.join("members", JoinType.INNER, personSpecification));
+
+        // when
+        var specification = teamParser.parse("members.name==John");
+
+        // then
+        assertThat(specification, equalTo(FromSpecifications.<Team, Person, Root<Team>>join("members", JoinType.INNER,
+                PathSpecifications.get("name", ExpressionSpecifications.equal("John")))));
+        assertThat(specification.asPredicate().test(team), equalTo(true));
+    }
+
+    @Test
+    void parse_sameFilter_isCached() {
+        // given
+        var parser = new FilterParser<Person, Path<Person>>(10).attribute("name", String.class);
+        var specification = parser.parse("name==John");
+
+        // when
+        var cachedSpecification = parser.parse("name==John");
+
+        // then
+        assertThat(cachedSpecification, sameInstance(specification));
+        assertThat(parser.getHitCount(), equalTo(1L));
+    }
+
+    @Test
+    void parse_malformedFilter_isRejected() {
+        // given
+        var parser = new FilterParser<Person, Path<Person>>(10).attribute("name", String.class).attribute("dateOfBirth", LocalDate.class);
+
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("name==John;(dateOfBirth=lt=1970-01-01"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("dateOfBirth=lt=tomorrow"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("age=gt=30"));
+    }
+
+    @Test
+    void parse_deeplyNestedParentheses_areRejected() {
+        // given
+        var parser = new FilterParser<Person, Path<Person>>(10).attribute("name", String.class);
+        var filter = "(".repeat(100_000) + "name==John" + ")".repeat(100_000);
+
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class, () -> parser.parse(filter));
+    }
+
+    @Test
+    void parse_nestedParentheses_areParsed() {
+        // given
+        var parser = new FilterParser<Person, Path<Person>>(10).attribute("name", String.class);
+
+        // when
+        var specification = parser.parse("(".repeat(64) + "name==John" + ")".repeat(64));
+
+        // then
+        assertThat(specification, equalTo(parser.parse("name==John")));
+    }
+
+    private static final class Person {
+
+        private final String name;
+
+        private final LocalDate dateOfBirth;
+
+        private Person(String name, LocalDate dateOfBirth) {
+            this.name = name;
+            this.dateOfBirth = dateOfBirth;
+        }
+    }
+
+    private static final class Team {
+
+        private final List<Person> members;
+
+        private Team(List<Person> members) {
+            this.members = members;
+        }
+    }
+}
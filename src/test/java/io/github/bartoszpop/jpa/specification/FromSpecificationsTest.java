@@ -0,0 +1,286 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import javax.persistence.metamodel.Attribute;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class FromSpecificationsTest {
+
+    @Test
+    void join_appliesSpecificationToJoin() {
+        // given
+        var join = new NoOpJoin<Object, Object>();
+        var root = new AbstractRoot<>() {
+            @Override
+            public <X, Y> Join<X, Y> join(String attributeName, JoinType jt) {
+                if (Objects.equals(attributeName, "attribute") && jt == JoinType.LEFT) {
+                    //noinspection unchecked
+                    return (Join<X, Y>) join;
+                } else {
+                    return null;
+                }
+            }
+        };
+        var joinPredicate = new NoOpPredicate();
+        var joinSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (target, query, criteriaBuilder) -> Objects.equals(target, join) ? joinPredicate : null
+        );
+
+        // when
+        var specificationPredicate = FromSpecifications.<Object, Object, Root<Object>>join("attribute", JoinType.LEFT, joinSpecification)
+                .toPredicate(root, new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(specificationPredicate, equalTo(joinPredicate));
+    }
+
+    @Test
+    void join_collectionMakesQueryDistinct() {
+        // given
+        var join = new AbstractJoin<Object, Object>() {
+            @Override
+            public Attribute<? super Object, ?> getAttribute() {
+                return new AbstractAttribute<>() {
+                    @Override
+                    public boolean isCollection() {
+                        return true;
+                    }
+                };
+            }
+        };
+        var root = new AbstractRoot<>() {
+            @Override
+            public <X, Y> Join<X, Y> join(String attributeName, JoinType jt) {
+                //noinspection unchecked
+                return (Join<X, Y>) join;
+            }
+        };
+        var distinct = new AtomicBoolean();
+        var query = new AbstractCriteriaQuery<>() {
+            @Override
+            public CriteriaQuery<Object> distinct(boolean queryDistinct) {
+                distinct.set(queryDistinct);
+                return this;
+            }
+        };
+
+        // when
+        FromSpecifications.<Object, Object, Root<Object>>join("attribute", JoinType.LEFT, CompositeSpecification.noOp())
+                .toPredicate(root, query, new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(distinct.get(), equalTo(true));
+    }
+
+    @Test
+    void fetch_appliesSpecificationToFetchJoin() {
+        // given
+        var fetch = new FetchJoin<>();
+        var root = new AbstractRoot<>() {
+            @Override
+            public <X, Y> Fetch<X, Y> fetch(String attributeName, JoinType jt) {
+                if (Objects.equals(attributeName, "attribute") && jt == JoinType.LEFT) {
+                    //noinspection unchecked
+                    return (Fetch<X, Y>) fetch;
+                } else {
+                    return null;
+                }
+            }
+        };
+        var fetchPredicate = new NoOpPredicate();
+        var fetchSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (target, query, criteriaBuilder) -> Objects.equals(target, fetch) ? fetchPredicate : null
+        );
+
+        // when
+        var specificationPredicate = FromSpecifications.<Object, Object, Root<Object>>fetch("attribute", JoinType.LEFT, fetchSpecification)
+                .toPredicate(root, new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(specificationPredicate, equalTo(fetchPredicate));
+    }
+
+    @Test
+    void fetch_isRenderedAsJoinInCountQuery() {
+        // given
+        var join = new NoOpJoin<Object, Object>();
+        var root = new AbstractRoot<>() {
+            @Override
+            public Class<Object> getJavaType() {
+                return Object.class;
+            }
+
+            @Override
+            public <X, Y> Join<X, Y> join(String attributeName, JoinType jt) {
+                if (Objects.equals(attributeName, "attribute") && jt == JoinType.INNER) {
+                    //noinspection unchecked
+                    return (Join<X, Y>) join;
+                } else {
+                    return null;
+                }
+            }
+        };
+        var query = new LongQuery(root);
+        var joinPredicate = new NoOpPredicate();
+        var joinSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (target, criteriaQuery, criteriaBuilder) -> Objects.equals(target, join) ? joinPredicate : null
+        );
+
+        // when
+        var specificationPredicate = FromSpecifications.<Object, Object, Root<Object>>fetch("attribute", JoinType.INNER, joinSpecification)
+                .toPredicate(root, query, new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(specificationPredicate, equalTo(joinPredicate));
+    }
+
+    @Test
+    void join_leftJoinWithoutPredicateInQueryOfLong_isRendered() {
+        // given
+        var joined = new AtomicBoolean();
+        var root = new JoinRecordingRoot(joined);
+
+        // when
+        FromSpecifications.<Object, Object, Root<Object>>join("attribute", JoinType.LEFT, CompositeSpecification.noOp())
+                .toPredicate(root, new LongQuery(root), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(joined.get(), equalTo(true));
+    }
+
+    @Test
+    void join_leftJoinWithoutPredicateInLongQueryOfExecutor_isOmitted() {
+        // given
+        var joined = new AtomicBoolean();
+        var root = new JoinRecordingRoot(joined);
+        var context = new RenderContext(null);
+        context.setCounting(true);
+
+        // when
+        context.render(() -> FromSpecifications.<Object, Object, Root<Object>>join("attribute", JoinType.LEFT, CompositeSpecification.noOp())
+                .toPredicate(root, new LongQuery(root), new NoOpCriteriaBuilder()));
+
+        // then
+        assertThat(joined.get(), equalTo(false));
+    }
+
+    @Test
+    void anyMatch_appliesSpecificationToCorrelatedSubqueryJoin() {
+        // given
+        var root = new NoOpRoot<>();
+        var subqueryJoin = new NoOpJoin<>();
+        var correlatedRoot = new AbstractRoot<>() {
+            @Override
+            public <X, Y> Join<X, Y> join(String attributeName, JoinType jt) {
+                if (Objects.equals(attributeName, "attribute") && jt == JoinType.INNER) {
+                    //noinspection unchecked
+                    return (Join<X, Y>) subqueryJoin;
+                } else {
+                    return null;
+                }
+            }
+        };
+        var joinPredicate = new NoOpPredicate();
+        var subqueryRestrictions = new ArrayList<Expression<Boolean>>();
+        var subquery = new AbstractSubquery<>() {
+            @Override
+            public <Y> Root<Y> correlate(Root<Y> parentRoot) {
+                //noinspection unchecked
+                return Objects.equals(parentRoot, root) ? (Root<Y>) correlatedRoot : null;
+            }
+
+            @Override
+            public Subquery<Object> where(Expression<Boolean> restriction) {
+                subqueryRestrictions.add(restriction);
+                return this;
+            }
+        };
+        var query = new AbstractCriteriaQuery<>() {
+            @Override
+            public <U> Subquery<U> subquery(Class<U> type) {
+                //noinspection unchecked
+                return (Subquery<U>) subquery;
+            }
+        };
+        var existsPredicate = new NoOpPredicate();
+        var criteriaBuilder = new AbstractCriteriaBuilder() {
+            @Override
+            public Predicate exists(Subquery<?> existsSubquery) {
+                return Objects.equals(existsSubquery, subquery) ? existsPredicate : null;
+            }
+        };
+        var joinSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (target, specificationQuery, specificationCriteriaBuilder) -> Objects.equals(target, subqueryJoin) ? joinPredicate : null
+        );
+
+        // when
+        var specificationPredicate = FromSpecifications.<Object, Object, Root<Object>>anyMatch("attribute", joinSpecification)
+                .toPredicate(root, query, criteriaBuilder);
+
+        // then
+        assertThat(specificationPredicate, equalTo(existsPredicate));
+        assertThat(subqueryRestrictions, contains(joinPredicate));
+    }
+
+    private static final class FetchJoin<Z, T> extends AbstractJoin<Z, T> implements Fetch<Z, T> {
+    }
+
+    /**
+     * This class is a query of {@link Long} from the root, e.g. {@code select count(e)} or {@code select e.id}.
+     */
+    private static final class LongQuery extends AbstractCriteriaQuery<Long> {
+
+        private final Root<Object> root;
+
+        private LongQuery(Root<Object> root) {
+            this.root = root;
+        }
+
+        @Override
+        public Class<Long> getResultType() {
+            return Long.class;
+        }
+
+        @Override
+        public Set<Root<?>> getRoots() {
+            return Set.of(root);
+        }
+    }
+
+    private static final class JoinRecordingRoot extends AbstractRoot<Object> {
+
+        private final AtomicBoolean joined;
+
+        private JoinRecordingRoot(AtomicBoolean joined) {
+            this.joined = joined;
+        }
+
+        @Override
+        public Class<Object> getJavaType() {
+            return Object.class;
+        }
+
+        @Override
+        public <X, Y> Join<X, Y> join(String attributeName, JoinType jt) {
+            joined.set(true);
+            return new NoOpJoin<>();
+        }
+    }
+}
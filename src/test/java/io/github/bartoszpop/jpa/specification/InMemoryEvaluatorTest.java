@@ -0,0 +1,98 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InMemoryEvaluatorTest {
+
+    @Test
+    void asPredicate_evaluatesComparisonsOfAttributes() {
+        // given
+        var john = new Person("John", 30);
+        var jane = new Person("Jane", 40);
+        var anonymous = new Person(null, 50);
+        var specification = PathSpecifications.<Person, String, Path<Person>>get("name", ExpressionSpecifications.notEqual("John"))
+                .and(PathSpecifications.get("age", ExpressionSpecifications.greaterThan(35)));
+
+        // when
+        var found = List.of(john, jane, anonymous).stream().filter(specification.asPredicate()).collect(Collectors.toList());
+
+        // then
+        assertThat(found, contains(jane));
+    }
+
+    @Test
+    void asPredicate_negationOfComparisonWithNull_isUnknown() {
+        // given
+        var anonymous = new Person(null, 50);
+        var specification = CompositeSpecification.not(PathSpecifications.<Person, String, Path<Person>>get("name", ExpressionSpecifications.in(List.of("John"))));
+
+        // when
+        var satisfied = specification.asPredicate().test(anonymous);
+
+        // then
+        assertThat(satisfied, equalTo(false));
+    }
+
+    @Test
+    void asPredicate_joinsOfSameAttribute_areSatisfiedBySameElement() {
+        // given
+        var team = new Team(List.of(new Person("John", 30), new Person("Jane", 40)));
+        var firstSpecification = FromSpecifications.<Team, Person, Root<Team>>join("members", JoinType.INNER,
+                PathSpecifications.<Person, String, Join<Team, Person>>get("name", ExpressionSpecifications.equal("John")));
+        var secondSpecification = FromSpecifications.<Team, Person, Root<Team>>join("members", JoinType.INNER,
+                PathSpecifications.<Person, Integer, Join<Team, Person>>get("age", ExpressionSpecifications.equal(40)));
+
+        // when
+        var satisfied = firstSpecification.and(secondSpecification).asPredicate().test(team);
+
+        // then
+        assertThat(satisfied, equalTo(false));
+    }
+
+    @Test
+    void asPredicate_leaf_isUnsupported() {
+        // given
+        var specification = CompositeSpecification.<Object, Object, TypeSafePredicateBuilder<Object>>of((target, query, criteriaBuilder) -> null);
+
+        // when
+        // then
+        assertThrows(UnsupportedOperationException.class, specification::asPredicate);
+    }
+
+    private static final class Person {
+
+        private final String name;
+
+        private final Integer age;
+
+        private Person(String name, Integer age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final class Team {
+
+        private final List<Person> members;
+
+        private Team(List<Person> members) {
+            this.members = members;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.Attribute;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+class JoinRegistryTest {
+
+    @Test
+    void join_returnsExistingJoin() {
+        // given
+        var existingJoin = new AttributeJoin("attribute", JoinType.LEFT);
+        var root = new AbstractRoot<>() {
+            @Override
+            public Set<Join<Object, ?>> getJoins() {
+                return Set.of(new AttributeJoin("attribute", JoinType.INNER), existingJoin);
+            }
+        };
+
+        // when
+        var join = JoinRegistry.join(root, "attribute", JoinType.LEFT);
+
+        // then
+        assertThat(join, sameInstance(existingJoin));
+    }
+
+    @Test
+    void join_createsJoinIfRestrictedJoinExists() {
+        // given
+        var createdJoin = new NoOpJoin<>();
+        var root = new AbstractRoot<>() {
+            @Override
+            public Set<Join<Object, ?>> getJoins() {
+                return Set.of(new AttributeJoin("attribute", JoinType.LEFT) {
+                    @Override
+                    public Predicate getOn() {
+                        return new NoOpPredicate();
+                    }
+                });
+            }
+
+            @Override
+            public <X, Y> Join<X, Y> join(String attributeName, JoinType jt) {
+                //noinspection unchecked
+                return (Join<X, Y>) createdJoin;
+            }
+        };
+
+        // when
+        var join = JoinRegistry.join(root, "attribute", JoinType.LEFT);
+
+        // then
+        assertThat(join, equalTo(createdJoin));
+    }
+
+    @Test
+    void and_joinsAttributeOnce() {
+        // given
+        var joins = new HashSet<Join<Object, ?>>();
+        var root = new AbstractRoot<>() {
+            @Override
+            public Set<Join<Object, ?>> getJoins() {
+                return joins;
+            }
+
+            @Override
+            public <X, Y> Join<X, Y> join(String attributeName, JoinType jt) {
+                var join = new AttributeJoin(attributeName, jt);
+                joins.add(join);
+                //noinspection unchecked
+                return (Join<X, Y>) join;
+            }
+        };
+        var specification = FromSpecifications.<Object, Object, Root<Object>>join("attribute", JoinType.LEFT, ExpressionSpecifications.in(Set.of()))
+                .and(FromSpecifications.join("attribute", JoinType.LEFT, ExpressionSpecifications.in(Set.of())));
+
+        // when
+        specification.toPredicate(root, new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(joins.size(), equalTo(1));
+    }
+
+    private static class AttributeJoin extends AbstractJoin<Object, Object> {
+
+        private final String attribute;
+
+        private final JoinType joinType;
+
+        AttributeJoin(String attribute, JoinType joinType) {
+            this.attribute = attribute;
+            this.joinType = joinType;
+        }
+
+        @Override
+        public Attribute<? super Object, ?> getAttribute() {
+            return new AbstractAttribute<>() {
+                @Override
+                public String getName() {
+                    return attribute;
+                }
+            };
+        }
+
+        @Override
+        public JoinType getJoinType() {
+            return joinType;
+        }
+    }
+}
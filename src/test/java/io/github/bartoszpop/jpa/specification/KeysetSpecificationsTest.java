@@ -0,0 +1,54 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetSpecificationsTest {
+
+    @Test
+    void after_isSatisfiedByRowsAfterLastRow() {
+        // given
+        var first = new Row("a", 3);
+        var second = new Row("a", 2);
+        var third = new Row("a", 1);
+        var fourth = new Row("b", 5);
+        var sort = Sort.by(Sort.Order.asc("name"), Sort.Order.desc("number"));
+
+        // when
+        var found = List.of(first, second, third, fourth).stream()
+                .filter(KeysetSpecifications.after(sort, List.of("a", 2)).asPredicate())
+                .collect(Collectors.toList());
+
+        // then
+        assertThat(found, contains(third, fourth));
+    }
+
+    @Test
+    void after_valuesOfOtherNumberThanSortProperties_areRejected() {
+        // given
+        var sort = Sort.by("name", "number");
+
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class, () -> KeysetSpecifications.after(sort, List.of("a")));
+    }
+
+    private static final class Row {
+
+        private final String name;
+
+        private final Integer number;
+
+        private Row(String name, Integer number) {
+            this.name = name;
+            this.number = number;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.criteria.JoinType;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+class LeftJoinConverterTest {
+
+    @Test
+    void innerJoinAndFetch_areReplacedWithLeftJoins() {
+        // given
+        var operand = ExpressionSpecifications.equal("value").getNode();
+        var and = new SpecificationNode.And(List.of(
+                new SpecificationNode.Join("first", JoinType.INNER, operand),
+                new SpecificationNode.Fetch("second", JoinType.INNER, operand)));
+
+        // when
+        var converted = and.accept(LeftJoinConverter.INSTANCE);
+
+        // then
+        assertThat(converted, equalTo(new SpecificationNode.And(List.of(
+                new SpecificationNode.Join("first", JoinType.LEFT, operand),
+                new SpecificationNode.Join("second", JoinType.LEFT, operand)))));
+    }
+
+    @Test
+    void joinWithinExists_isNotReplaced() {
+        // given
+        var exists = new SpecificationNode.Exists("attribute", new SpecificationNode.Join("nested", JoinType.INNER, SpecificationNode.NoOp.INSTANCE));
+
+        // when
+        var converted = exists.accept(LeftJoinConverter.INSTANCE);
+
+        // then
+        assertThat(converted, sameInstance(exists));
+    }
+
+    @Test
+    void nodeWithoutOtherJoin_isReturnedItself() {
+        // given
+        var not = new SpecificationNode.Not(new SpecificationNode.Get("attribute",
+                new SpecificationNode.Join("nested", JoinType.LEFT, ExpressionSpecifications.equal("value").getNode())));
+
+        // when
+        var converted = not.accept(LeftJoinConverter.INSTANCE);
+
+        // then
+        assertThat(converted, sameInstance(not));
+    }
+}
@@ -0,0 +1,4 @@
+package io.github.bartoszpop.jpa.specification;
+
+public final class NoOpJoin<Z, T> extends AbstractJoin<Z, T> {
+}
@@ -0,0 +1,4 @@
+package io.github.bartoszpop.jpa.specification;
+
+public final class NoOpParameterExpression<T> extends AbstractParameterExpression<T> {
+}
@@ -0,0 +1,92 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.criteria.Path;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
+import java.util.Objects;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class PathSpecificationsTest {
+
+    @Test
+    void get_appliesSpecificationToAttribute() {
+        // given
+        var attribute = new NoOpRoot<>();
+        var root = new AbstractRoot<>() {
+            @Override
+            public <Y> Path<Y> get(String attributeName) {
+                //noinspection unchecked
+                return Objects.equals(attributeName, "attribute") ? (Path<Y>) attribute : null;
+            }
+        };
+        var attributePredicate = new NoOpPredicate();
+        var attributeSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (target, query, criteriaBuilder) -> Objects.equals(target, attribute) ? attributePredicate : null
+        );
+
+        // when
+        var specificationPredicate = PathSpecifications.<Object, Object, Path<Object>>get("attribute", attributeSpecification)
+                .toPredicate(root, new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(specificationPredicate, equalTo(attributePredicate));
+    }
+
+    @Test
+    void get_metamodelAttribute_isResolvedWithoutName() {
+        // given
+        var attribute = new NoOpRoot<>();
+        var metamodelAttribute = new AbstractSingularAttribute<Object, Object>() {
+            @Override
+            public String getName() {
+                return "attribute";
+            }
+        };
+        var root = new AbstractRoot<>() {
+            @Override
+            public <Y> Path<Y> get(SingularAttribute<? super Object, Y> singularAttribute) {
+                //noinspection unchecked
+                return singularAttribute == metamodelAttribute ? (Path<Y>) attribute : null;
+            }
+        };
+        var attributePredicate = new NoOpPredicate();
+        var attributeSpecification = CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of(
+                (target, query, criteriaBuilder) -> Objects.equals(target, attribute) ? attributePredicate : null
+        );
+        var specification = PathSpecifications.<Object, Object, Path<Object>>get(metamodelAttribute, attributeSpecification);
+
+        // when
+        var specificationPredicate = specification.toPredicate(root, new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(specificationPredicate, equalTo(attributePredicate));
+        assertThat(specification, equalTo(PathSpecifications.<Object, Object, Path<Object>>get("attribute", attributeSpecification)));
+    }
+
+    @Test
+    void get_sameAttributeOfSameParent_isResolvedOnce() {
+        // given
+        var resolvedAttributes = new ArrayList<String>();
+        var root = new AbstractRoot<>() {
+            @Override
+            public <Y> Path<Y> get(String attributeName) {
+                resolvedAttributes.add(attributeName);
+                return new NoOpRoot<>();
+            }
+        };
+        var specification = PathSpecifications.<Object, Integer, Path<Object>>get("first", ExpressionSpecifications.equal(1))
+                .or(PathSpecifications.get("second", ExpressionSpecifications.equal(2)))
+                .or(PathSpecifications.get("first", ExpressionSpecifications.equal(3)));
+
+        // when
+        specification.toPredicate(root, new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(resolvedAttributes, contains("first", "second"));
+    }
+}
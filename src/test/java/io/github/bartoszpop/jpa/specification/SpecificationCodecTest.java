@@ -0,0 +1,117 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SpecificationCodecTest {
+
+    // Cast allowed because the specification is named with the date specification
+    //noinspection unchecked
+    private final SpecificationRegistry registry = new SpecificationRegistry().register("born", arguments -> born((CompositeSpecification<?, ? super Path<LocalDate>>) arguments.get(0)));
+
+    private final SpecificationCodec codec = new SpecificationCodec(registry);
+
+    @Test
+    void decode_encodedSpecification_isEqual() {
+        // given
+        var specification = specification();
+
+        // when
+        var decoded = codec.decode(codec.encode(specification));
+
+        // then
+        assertThat(decoded, equalTo(specification));
+    }
+
+    @Test
+    void fromJson_specificationToJson_isEqual() {
+        // given
+        var specification = specification();
+
+        // when
+        var decoded = codec.fromJson(codec.toJson(specification));
+
+        // then
+        assertThat(decoded, equalTo(specification));
+    }
+
+    @Test
+    void decode_unsupportedVersion_isRejected() {
+        // given
+        var bytes = codec.encode(CompositeSpecification.noOp());
+        bytes[1] = SpecificationFormat.VERSION + 1;
+
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(bytes));
+    }
+
+    @Test
+    void decode_truncatedSpecification_isRejected() {
+        // given
+        var bytes = codec.encode(specification());
+
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test
+    void decode_dateOutOfRange_isRejected() {
+        // given
+        var bytes = new byte[]{SpecificationFormat.MAGIC, SpecificationFormat.VERSION, SpecificationFormat.COMPARISON, 0, SpecificationFormat.LOCAL_DATE,
+                (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x40};
+
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(bytes));
+    }
+
+    @Test
+    void decode_deeplyNestedSpecification_isRejected() {
+        // given
+        var bytes = new byte[100_003];
+        Arrays.fill(bytes, SpecificationFormat.NOT);
+        bytes[0] = SpecificationFormat.MAGIC;
+        bytes[1] = SpecificationFormat.VERSION;
+        bytes[bytes.length - 1] = SpecificationFormat.NO_OP;
+
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(bytes));
+    }
+
+    @Test
+    void fromJson_deeplyNestedJson_isRejected() {
+        // given
+        var json = "[".repeat(100_000) + "]".repeat(100_000);
+
+        // when
+        // then
+        assertThrows(IllegalArgumentException.class, () -> codec.fromJson(json));
+    }
+
+    private static CompositeSpecification<Object, Root<Object>> specification() {
+        return FromSpecifications.<Object, Object, Root<Object>>join("members", JoinType.LEFT,
+                        PathSpecifications.get("name", ExpressionSpecifications.in(Set.of("John", "Jane \"Doe\""), InStrategy.direct().padToPowerOfTwo().chunkSize(4))))
+                .and(CompositeSpecification.not(PathSpecifications.get("salary", ExpressionSpecifications.greaterThan(new BigDecimal("-1234.50")))))
+                .or(PathSpecifications.get("rank", ExpressionSpecifications.lessThan(300L)))
+                .or(born(ExpressionSpecifications.lessThan(LocalDate.of(1990, 1, 1))));
+    }
+
+    private static <S> CompositeSpecification<Object, S> born(CompositeSpecification<?, ? super Path<LocalDate>> dateSpecification) {
+        return CompositeSpecification.<Object, S, TypeSafePredicateBuilder<Object>>of("born", List.of(dateSpecification), (target, query, criteriaBuilder) -> null);
+    }
+}
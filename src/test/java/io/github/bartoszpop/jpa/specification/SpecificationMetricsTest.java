@@ -0,0 +1,110 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+
+class SpecificationMetricsTest {
+
+    @AfterEach
+    void disableMetrics() {
+        SpecificationInstrumentation.setMetrics(null);
+    }
+
+    @Test
+    void toPredicate_namedSpecification_reportsNodesAndJoins() {
+        // given
+        var metrics = new RecordingMetrics();
+        SpecificationInstrumentation.setMetrics(metrics);
+        var root = new AbstractRoot<>() {
+            @Override
+            public <X, Y> Join<X, Y> join(String attributeName, JoinType jt) {
+                return new NoOpJoin<>();
+            }
+        };
+        var specification = FromSpecifications.<Object, Object, Root<Object>>join("attribute", JoinType.LEFT, leaf())
+                .and(leaf())
+                .named("joined");
+
+        // when
+        specification.toPredicate(root, new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(metrics.renders, contains("joined:4:1"));
+        assertThat(specification, equalTo(FromSpecifications.<Object, Object, Root<Object>>join("attribute", JoinType.LEFT, leaf()).and(leaf())));
+    }
+
+    @Test
+    void toPredicate_unnamedSpecification_isNotReported() {
+        // given
+        var metrics = new RecordingMetrics();
+        SpecificationInstrumentation.setMetrics(metrics);
+        var specification = CompositeSpecification.<Object, Root<Object>>noOp().and(leaf()).or(leaf());
+
+        // when
+        specification.toPredicate(new NoOpRoot<>(), new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(metrics.renders, empty());
+    }
+
+    @Test
+    void toPredicate_namedSpecificationComposedWithNoOp_isNotReported() {
+        // given
+        var metrics = new RecordingMetrics();
+        SpecificationInstrumentation.setMetrics(metrics);
+        var specification = CompositeSpecification.<Object, Root<Object>>noOp().and(leaf()).and(leaf()).named("named").and(CompositeSpecification.noOp());
+
+        // when
+        specification.toPredicate(new NoOpRoot<>(), new NoOpCriteriaQuery<>(), new NoOpCriteriaBuilder());
+
+        // then
+        assertThat(metrics.renders, empty());
+    }
+
+    @Test
+    void getSlowestSpecifications_ranksByMeanQueryLatency() {
+        // given
+        var statistics = new SpecificationStatistics(2);
+        statistics.executed("fast", 1_000_000, 1);
+        statistics.executed("slow", 2_000_000, 1);
+        statistics.executed("slow", 4_000_000, 1);
+        statistics.executed("medium", 2_000_000, 1);
+
+        // when
+        var slowestSpecifications = statistics.getSlowestSpecifications();
+
+        // then
+        assertThat(slowestSpecifications, arrayContaining(startsWith("slow: queries=2, mean query=3.000 ms, max query=4.000 ms"), startsWith("medium:")));
+    }
+
+    private static <S> CompositeSpecification<Object, S> leaf() {
+        return CompositeSpecification.<Object, S, TypeSafePredicateBuilder<Object>>of("leaf", List.of(), (target, query, criteriaBuilder) -> new NoOpPredicate());
+    }
+
+    private static final class RecordingMetrics implements SpecificationMetrics {
+
+        private final List<String> renders = new ArrayList<>();
+
+        @Override
+        public void rendered(String name, long buildNanos, int nodeCount, int joinCount) {
+            renders.add(name + ':' + nodeCount + ':' + joinCount);
+        }
+
+        @Override
+        public void executed(String name, long latencyNanos, long rowCount) {
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class SpecificationResultCacheTest {
+
+    @Test
+    void get_evictsExpiredResult() {
+        // given
+        var nanoTime = new AtomicLong();
+        var cache = new SpecificationResultCache(10, Duration.ofNanos(100), nanoTime::get);
+        var specification = ExpressionSpecifications.<Integer, Root<Integer>>equal(1);
+        cache.get("key", Integer.class, specification, () -> List.of(1));
+        cache.get("key", Integer.class, specification, () -> List.of(1));
+
+        // when
+        nanoTime.set(100);
+        cache.get("key", Integer.class, specification, () -> List.of(1));
+
+        // then
+        assertThat(cache.getHitCount(), equalTo(1L));
+        assertThat(cache.getMissCount(), equalTo(2L));
+        assertThat(cache.getEvictionCount(), equalTo(1L));
+    }
+
+    @Test
+    void invalidate_dropsResultsOfSpecificationsEntitySatisfies() {
+        // given
+        var cache = new SpecificationResultCache(10, Duration.ofMinutes(1));
+        var adults = PathSpecifications.<Person, Integer, Path<Person>>get("age", ExpressionSpecifications.greaterThanOrEqualTo(18));
+        var children = PathSpecifications.<Person, Integer, Path<Person>>get("age", ExpressionSpecifications.lessThan(18));
+        var withFriends = FromSpecifications.<Person, Person, Root<Person>>join("friends", JoinType.INNER, CompositeSpecification.noOp());
+        cache.get("adults", Person.class, adults, List::of);
+        cache.get("children", Person.class, children, List::of);
+        cache.get("withFriends", Person.class, withFriends, List::of);
+
+        // when
+        cache.invalidate(new Person(30));
+
+        // then
+        assertThat(cache.size(), equalTo(1));
+        cache.get("children", Person.class, children, List::of);
+        assertThat(cache.getHitCount(), equalTo(1L));
+    }
+
+    private static final class Person {
+
+        private final Integer age;
+
+        private Person(Integer age) {
+            this.age = age;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.bartoszpop.jpa.specification;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+
+import static io.github.bartoszpop.jpa.specification.ExpressionSpecifications.equal;
+import static io.github.bartoszpop.jpa.specification.ExpressionSpecifications.lessThan;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+class SpecificationShapeTest {
+
+    @Test
+    void key_isEqualForDifferentValues() {
+        // given
+        var specification = FromSpecifications.<Object, Object, Root<Object>>join("attribute", JoinType.LEFT, PathSpecifications.get("first", equal("John")))
+                .and(PathSpecifications.get("second", lessThan(1)));
+        var otherSpecification = FromSpecifications.<Object, Object, Root<Object>>join("attribute", JoinType.LEFT, PathSpecifications.get("first", equal("Jane")))
+                .and(PathSpecifications.get("second", lessThan(2)));
+
+        // when
+        var shape = SpecificationShape.of(specification.getSimplifiedNode());
+        var otherShape = SpecificationShape.of(otherSpecification.getSimplifiedNode());
+
+        // then
+        assertThat(shape.getKey(), equalTo(otherShape.getKey()));
+        assertThat(shape.getValues(), contains("John", 1));
+        assertThat(otherShape.getValues(), contains("Jane", 2));
+    }
+
+    @Test
+    void key_differsForDifferentAttributes() {
+        // given
+        var specification = PathSpecifications.<Object, String, Path<Object>>get("first", equal("John"));
+        var otherSpecification = PathSpecifications.<Object, String, Path<Object>>get("second", equal("John"));
+
+        // when
+        var shape = SpecificationShape.of(specification.getSimplifiedNode());
+        var otherShape = SpecificationShape.of(otherSpecification.getSimplifiedNode());
+
+        // then
+        assertThat(shape.getKey(), not(equalTo(otherShape.getKey())));
+    }
+
+    @Test
+    void key_isNullIfSpecificationHasPredicateBuilder() {
+        // given
+        var specification = PathSpecifications.<Object, String, Path<Object>>get("first", equal("John"))
+                .and(CompositeSpecification.<Object, Path<Object>, TypeSafePredicateBuilder<Path<Object>>>of((target, query, criteriaBuilder) -> null));
+
+        // when
+        var shape = SpecificationShape.of(specification.getSimplifiedNode());
+
+        // then
+        assertThat(shape.getKey(), nullValue());
+    }
+}